@@ -0,0 +1,113 @@
+package src;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * The CaptureBenchmark Class measures what recording the frames costs the thread that draws them.
+ * It plays a Classic game of a fixed seed at 1080p, with a tick and a frame every 1/60 of a second,
+ * as the timer paints it, first without a capture, and then capturing every frame as PNG files and
+ * as a raw video stream, dropping the frames that the encoder cannot keep up with, and as a raw
+ * stream that blocks instead.  It reports the p50 and maximum time of a frame, and how many frames
+ * were captured, encoded, and dropped.  It is run with "ant bench-capture", and -Dcapture.args can
+ * hold --frames N, the number of frames of each run, and --out DIR, to keep the frames in a
+ * directory instead of deleting them, which records a headless run of the game.
+ */
+public final class CaptureBenchmark {
+    //Class Variables
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    static final int DEFAULT_FRAMES = 240;
+    static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    /**
+     * CaptureBenchmark Constructor - This class has only static methods.
+     */
+    private CaptureBenchmark() {
+    }//end of the CaptureBenchmark Constructor
+    /**
+     * run Method - Plays the game for a number of frames, paced at 60 frames per second, and
+     * prints the time of its frames and the counts of the capture.
+     * @param name - the name of the run
+     * @param frames - the number of frames
+     * @param capture - the FrameCapture of the run, or null to draw without a capture
+     * @throws IOException - if a frame could not be written
+     */
+    static void run(String name, int frames, FrameCapture capture) throws IOException {
+        SubmarineKillerBenchmark.Fixture fixture = new SubmarineKillerBenchmark.Fixture(WIDTH, HEIGHT);
+        for (int i = 0; i < 200; i++) {
+            fixture.tick();//Warm up the frame path before the capture starts.
+            fixture.game.paintComponent(fixture.g2d);
+        }
+        fixture.game.setFrameCapture(capture);
+        long[] frameNanos = new long[frames];
+        long start = System.nanoTime(), nextFrame = start;
+        for (int i = 0; i < frames; i++) {
+            long frameStart = System.nanoTime();
+            fixture.tick();
+            fixture.game.paintComponent(fixture.g2d);
+            long now = System.nanoTime();
+            frameNanos[i] = now - frameStart;
+            nextFrame = Math.max(nextFrame + FRAME_NANOS, now);
+            while (System.nanoTime() < nextFrame)
+                LockSupport.parkNanos(nextFrame - System.nanoTime());
+        }
+        long elapsed = System.nanoTime() - start;
+        if (capture != null)
+            capture.close();
+        Arrays.sort(frameNanos);
+        System.out.println(String.format("%-16s %8.2f %8.2f %8.1f %9d %9d %9d", name, frameNanos[frames / 2] / 1e6,
+                frameNanos[frames - 1] / 1e6, frames / (elapsed / 1e9),
+                capture != null ? capture.getCapturedFrames() : 0, capture != null ? capture.getEncodedFrames() : 0,
+                capture != null ? capture.getDroppedFrames() : 0));
+        fixture.g2d.dispose();
+
+    }//end of the run Method
+    /**
+     * delete Method - Deletes a directory and everything in it.
+     * @param directory - the Path of the directory
+     * @throws IOException - if a file cannot be deleted
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>)files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }//end of the delete Method
+    /**
+     * main Method - Runs the game without a capture and with every kind of capture.
+     * @param args - String[] that may hold --frames N and --out DIR
+     * @throws IOException - if the frames cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int frames = DEFAULT_FRAMES;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--frames".equals(args[i]) && i + 1 < args.length)
+                frames = Integer.parseInt(args[++i]);
+            else if ("--out".equals(args[i]) && i + 1 < args.length)
+                out = Paths.get(args[++i]);
+        }
+        Path directory = out != null ? out : Files.createTempDirectory("capture-benchmark");
+        System.out.println(String.format("%-16s %8s %8s %8s %9s %9s %9s", "capture", "p50 ms", "max ms", "fps",
+                "captured", "encoded", "dropped"));
+        run("none", frames, null);
+        run("png", frames, new FrameCapture(directory.resolve("png"), FrameCapture.Format.PNG,
+                FrameCapture.DEFAULT_POOL_SIZE, false));
+        run("raw", frames, new FrameCapture(directory.resolve("raw"), FrameCapture.Format.RAW,
+                FrameCapture.DEFAULT_POOL_SIZE, false));
+        run("raw.blocking", frames, new FrameCapture(directory.resolve("raw-blocking"), FrameCapture.Format.RAW,
+                FrameCapture.DEFAULT_POOL_SIZE, true));
+        if (out != null)
+            System.out.println("The frames are in " + out);
+        else
+            delete(directory);
+
+    }//end of the main Method
+} // end of the CaptureBenchmark Class
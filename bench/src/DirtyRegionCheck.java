@@ -0,0 +1,100 @@
+package src;
+
+import java.awt.Graphics2D;
+import java.awt.image.DataBufferInt;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * The DirtyRegionCheck Class enforces that the dirty region path of the timer draws the same
+ * frames as a full repaint, and that it produces no garbage.  It plays two 1080p panels of the same
+ * seed side by side: one paints only the dirty region of each frame, one rectangle at a time with
+ * the clip set to it, as the timer does with paintImmediately, and the other paints the whole
+ * panel.  After every frame, the images of both must be the same, pixel for pixel.  After the
+ * warm-up, the bytes that the thread allocated while ticking and painting the dirty regions are
+ * measured with ThreadMXBean.getThreadAllocatedBytes.  Setting the clip of a Graphics2D allocates
+ * a Rectangle and a Region in the JDK, as every paintImmediately of Swing does, so the cost of a
+ * setClip call is measured on its own, and the clips of the dirty regions are taken out of the
+ * measurement, which must leave nothing.  It is run with "ant check-dirty-region",
+ * and it exits with a failure if a frame differs, if anything was allocated, or if no frame took
+ * the dirty region path.
+ */
+public final class DirtyRegionCheck {
+    //Class Variables
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    static final int WARMUP_FRAMES = 5_000;
+    static final int MEASURED_FRAMES = 5_000;
+    static final int CLIP_CALLS = 10_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * DirtyRegionCheck Constructor - This class has only static methods.
+     */
+    private DirtyRegionCheck() {
+    }//end of the DirtyRegionCheck Constructor
+    /**
+     * getClipBytes Method - Measures the bytes that setting the clip of a Graphics context to a
+     * rectangle allocates.
+     * @param g2d - the Graphics2D whose clip is set, and removed afterward
+     * @return long - Returns the number of bytes of a call.
+     */
+    static long getClipBytes(Graphics2D g2d) {
+        long threadId = Thread.currentThread().getId();
+        long bytes = 0;
+        for (int pass = 0; pass < 2; pass++) {//The first pass warms the calls up.
+            long start = THREADS.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < CLIP_CALLS; i++)
+                g2d.setClip(i % WIDTH, 0, 10, 10);
+            bytes = (THREADS.getThreadAllocatedBytes(threadId) - start) / CLIP_CALLS;
+        }
+        g2d.setClip(null);
+        return bytes;
+
+    }//end of the getClipBytes Method
+    /**
+     * main Method - Runs the check and exits with a failure if the dirty region path differs from a
+     * full repaint or allocates.
+     * @param args - String[] not used
+     */
+    public static void main(String[] args) {
+        SubmarineKillerBenchmark.Fixture dirty = new SubmarineKillerBenchmark.Fixture(WIDTH, HEIGHT);
+        SubmarineKillerBenchmark.Fixture full = new SubmarineKillerBenchmark.Fixture(WIDTH, HEIGHT);
+        int[] dirtyPixels = ((DataBufferInt)dirty.image.getRaster().getDataBuffer()).getData();
+        int[] fullPixels = ((DataBufferInt)full.image.getRaster().getDataBuffer()).getData();
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0, clips = 0;
+        int dirtyFrames = 0, differentFrames = 0, firstDifference = -1;
+        for (int i = 1; i <= WARMUP_FRAMES + MEASURED_FRAMES; i++) {
+            long start = THREADS.getThreadAllocatedBytes(threadId);
+            boolean isDirty = dirty.tickDirty();
+            if (i > WARMUP_FRAMES) {
+                allocated += THREADS.getThreadAllocatedBytes(threadId) - start;
+                if (isDirty)
+                    clips += dirty.game.getDirtyRegion().getCount();
+            }
+            full.tick();
+            full.game.paintComponent(full.g2d);
+            if (isDirty)
+                dirtyFrames++;
+            if (!Arrays.equals(dirtyPixels, fullPixels)) {
+                differentFrames++;
+                if (firstDifference < 0)
+                    firstDifference = i;
+            }
+        }
+        long clipBytes = clips * getClipBytes(dirty.g2d);
+        System.out.println(String.format("%,d of %,d frames painted the dirty region, %,d differed from a full repaint",
+                dirtyFrames, WARMUP_FRAMES + MEASURED_FRAMES, differentFrames));
+        System.out.println(String.format("Allocated %,d bytes in %,d ticks and dirty frames, of which %,d are the %,d clips",
+                allocated, MEASURED_FRAMES, clipBytes, clips));
+        allocated -= clipBytes;
+        if (differentFrames > 0 || allocated > 0 || dirtyFrames == 0) {
+            System.out.println("FAILED: the dirty region path "
+                    + (dirtyFrames == 0 ? "was never taken" : differentFrames > 0 ? "differed first at frame " + firstDifference
+                    : "allocated " + allocated + " bytes"));
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the DirtyRegionCheck Class
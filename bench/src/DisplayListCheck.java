@@ -0,0 +1,100 @@
+package src;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The DisplayListCheck Class compares the display lists of a game with a golden file, so that a
+ * change to what a frame draws shows up as a difference of text without a display.  It plays a
+ * Classic game of a fixed seed at 1080p, dropping a depth charge every 40 ticks and moving the
+ * battleship every 50, paints the panel into an image every SAMPLE_TICKS ticks and on the first
+ * tick of the game over, and writes the display list of each frame, and of one frame that is only
+ * painted under the clip of the score.  It is run with "ant check-display-list", and it exits with
+ * a failure if the lists differ from the golden file; with --update, it writes the golden file.
+ */
+public final class DisplayListCheck {
+    //Class Variables
+    static final long SEED = 24;
+    static final int SAMPLE_TICKS = 100;
+    /** The number of ticks after which a game that is not over is ended */
+    static final int MAX_TICKS = 5_000;
+    static final Path GOLDEN = Paths.get("bench", "golden", "display-list.txt");
+
+    /**
+     * DisplayListCheck Constructor - This class has only static methods.
+     */
+    private DisplayListCheck() {
+    }//end of the DisplayListCheck Constructor
+    /**
+     * record Method - Plays the game and writes the display lists of its sampled frames.
+     * @return String - Returns the display lists, each after a line with its tick and clip.
+     * @throws IOException - if a list cannot be written
+     */
+    static String record() throws IOException {
+        SubmarineKillerBenchmark.Fixture fixture = new SubmarineKillerBenchmark.Fixture(1920, 1080);
+        SubmarineKiller game = fixture.game;
+        DisplayList list = game.getDisplayList();
+        StringBuilder out = new StringBuilder();
+        int scenes = 0, texts = 0, states = 0;
+        for (int tick = 1; tick <= MAX_TICKS; tick++) {
+            if (tick % 40 == 0)
+                fixture.pressKey(InputRing.DROP);
+            if (tick % 50 == 0)
+                fixture.pressKey((tick / 50) % 2 == 0 ? InputRing.LEFT : InputRing.RIGHT);
+            game.updateNewFrame();
+            boolean isGameOver = game.getWorld().isGameOver();
+            if (tick % SAMPLE_TICKS != 0 && !isGameOver)
+                continue;
+            fixture.g2d.setClip(null);
+            game.paintComponent(fixture.g2d);
+            out.append("frame ").append(tick).append('\n');
+            list.writeTo(out);
+            scenes += list.getSceneCount();
+            texts += list.getTextCount();
+            states += list.getStateCount();
+            if (isGameOver)
+                break;
+        }
+        fixture.g2d.setClip(0, 0, 240, 48);
+        game.paintComponent(fixture.g2d);
+        out.append("frame clipped 0 0 240 48\n");
+        list.writeTo(out);
+        fixture.g2d.dispose();
+        System.out.println(String.format("%d blits, %d texts, and %d states of the overlay were recorded", scenes,
+                texts, states));
+        return out.toString();
+
+    }//end of the record Method
+    /**
+     * main Method - Records the display lists and compares them with the golden file, or writes it.
+     * @param args - String[] that may hold --update to write the golden file
+     * @throws IOException - if the golden file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        String lists = record();
+        if (args.length > 0 && "--update".equals(args[0])) {
+            Files.createDirectories(GOLDEN.getParent());
+            Files.write(GOLDEN, lists.getBytes(StandardCharsets.UTF_8));
+            System.out.println("Wrote " + GOLDEN);
+            return;
+        }
+        String[] actual = lists.split("\n");
+        String[] golden = new String(Files.readAllBytes(GOLDEN), StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < Math.max(actual.length, golden.length); i++) {
+            String expected = i < golden.length ? golden[i] : "<end>";
+            String line = i < actual.length ? actual[i] : "<end>";
+            if (!expected.equals(line)) {
+                System.out.println("FAILED: line " + (i + 1) + " of " + GOLDEN + " differs");
+                System.out.println("  expected: " + expected);
+                System.out.println("  actual:   " + line);
+                System.exit(1);
+            }
+        }
+        System.out.println(actual.length + " lines match " + GOLDEN);
+
+    }//end of the main Method
+} // end of the DisplayListCheck Class
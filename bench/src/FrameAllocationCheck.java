@@ -0,0 +1,87 @@
+
+package src;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The FrameAllocationCheck Class enforces that the update and render path produces no garbage
+ * in steady state.  It warms up a 1080p panel, then runs 10,000 ticks and frames, with keys that
+ * drop depth charges and move the battleship offered to the input of the world, and measures the
+ * bytes that the thread allocated with ThreadMXBean.getThreadAllocatedBytes.  The games are
+ * played through the states of the panel, as a player does: a game that is over is painted in the
+ * game over state until the panel attracts players, the bot is watched for ATTRACT_FRAMES, and
+ * the next game is started with requestStart, and every one of those ticks, transitions, and
+ * frames is measured.  The games are seeded from SEED, so that every run plays the same games.
+ * It is run with "ant check-allocation", and it exits with a failure if anything was allocated.
+ */
+public final class FrameAllocationCheck {
+    //Class Variables
+    static final int WARMUP_FRAMES = 10_000;
+    static final int MEASURED_FRAMES = 10_000;
+    /** The number of bytes that the measured frames may allocate */
+    static final long ALLOCATION_BUDGET = 0;
+    /** The number of frames of the attract state before a game is started */
+    static final int ATTRACT_FRAMES = 200;
+    /** The seed of the first game that the states start, and each game after it has the next one */
+    static final long SEED = 8;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * FrameAllocationCheck Constructor - This class has only static methods.
+     */
+    private FrameAllocationCheck() {
+    }//end of the FrameAllocationCheck Constructor
+    /**
+     * measure Method - Runs the ticks and frames and measures their allocation.
+     * @param fixture - the panel to run
+     * @param frames - the number of ticks and frames to run
+     * @param states - the int[] that counts the frames painted in each GameState, by its ordinal
+     * @return long - Returns the number of bytes allocated by the ticks and frames.
+     */
+    static long measure(SubmarineKillerBenchmark.Fixture fixture, int frames, int[] states) {
+        SubmarineKiller game = fixture.game;
+        long threadId = Thread.currentThread().getId();
+        int attractFrames = 0;
+        long start = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 1; i <= frames; i++) {
+            if (i % 40 == 0 && game.getState() == SubmarineKiller.GameState.PLAYING)
+                fixture.pressKey(InputRing.DROP);
+            if (i % 50 == 0)
+                fixture.pressKey((i / 50) % 2 == 0 ? InputRing.LEFT : InputRing.RIGHT);
+            if (game.getState() == SubmarineKiller.GameState.ATTRACT && ++attractFrames >= ATTRACT_FRAMES) {
+                game.requestStart();
+                attractFrames = 0;
+            }
+            game.updateNewFrame();
+            game.paintComponent(fixture.g2d);
+            states[game.getState().ordinal()]++;
+        }
+        return THREADS.getThreadAllocatedBytes(threadId) - start;
+
+    }//end of the measure Method
+    /**
+     * main Method - Runs the check and exits with a failure if the budget is exceeded.
+     * @param args - String[] not used
+     */
+    public static void main(String[] args) {
+        SubmarineKillerBenchmark.Fixture fixture = new SubmarineKillerBenchmark.Fixture(1920, 1080);
+        fixture.game.setSeeds(new AtomicLong(SEED)::getAndIncrement);
+        fixture.game.warmUp(fixture.g2d.getDeviceConfiguration());//As the Startup does before the panel is shown.
+        int[] states = new int[SubmarineKiller.GameState.values().length];
+        measure(fixture, WARMUP_FRAMES, states);
+        Arrays.fill(states, 0);
+        long allocated = measure(fixture, MEASURED_FRAMES, states);
+        System.out.println("Allocated " + allocated + " bytes in " + MEASURED_FRAMES + " ticks and frames");
+        StringBuilder painted = new StringBuilder("Frames painted in each state:");
+        for (SubmarineKiller.GameState state : SubmarineKiller.GameState.values())
+            painted.append(' ').append(state).append('=').append(states[state.ordinal()]);
+        System.out.println(painted);
+        if (allocated > ALLOCATION_BUDGET) {
+            System.out.println("FAILED: the frame path allocated more than " + ALLOCATION_BUDGET + " bytes");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the FrameAllocationCheck Class
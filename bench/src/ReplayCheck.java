@@ -0,0 +1,91 @@
+package src;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The ReplayCheck Class enforces that a recorded game plays again exactly.  It plays games of both
+ * levels, and of the Barrage level with depth charges that fall 120 pixels a tick, with several
+ * seeds, with a script of random key presses, held keys, moves, and drops that are applied
+ * between the ticks like the key listener and the timer apply them, and records
+ * each game into a temporary file.  Then it plays every replay with the ReplayPlayer, and compares
+ * the score, the misses, the number of ticks, and the place of the battleship with the recorded
+ * game.  It is run with "ant check-replay", and it exits with a failure if any replay differs.
+ */
+public final class ReplayCheck {
+    //Class Variables
+    static final long[] SEEDS = {1L, 42L, 0x5EEDL, -7L};
+    /** The number of ticks after which a game that is not over is ended */
+    static final int MAX_TICKS = 100_000;
+
+    /**
+     * ReplayCheck Constructor - This class has only static methods.
+     */
+    private ReplayCheck() {
+    }//end of the ReplayCheck Constructor
+    /**
+     * record Method - Plays a scripted game and records it.
+     * @param file - the Path of the replay
+     * @param level - the Level of the game
+     * @param seed - the seed of the world and of the script
+     * @return GameWorld - Returns the world of the recorded game, after its END record.
+     * @throws IOException - if the replay cannot be written
+     */
+    static GameWorld record(Path file, Level level, long seed) throws IOException {
+        GameWorld world = new GameWorld(1920, 1080, new GameRandom(seed), level);
+        world.setRecorder(new ReplayRecorder(file, world));
+        Random script = new Random(seed);
+        boolean isClassic = level == Level.CLASSIC;
+        while (!world.isGameOver() && world.getTickCount() < MAX_TICKS) {
+            int roll = script.nextInt(isClassic ? 40 : 4);
+            if (roll == 0) {
+                world.getInput().offer(InputRing.DROP, 0);
+                world.getInput().offer(InputRing.DROP | InputRing.RELEASED, 0);
+            } else if (roll == 1) {
+                int key = script.nextBoolean() ? InputRing.LEFT : InputRing.RIGHT;
+                world.getInput().offer(key | (script.nextBoolean() ? InputRing.RELEASED : 0), 0);
+            } else if (roll == 2) {
+                world.moveBattleship(script.nextInt(61) - 30);
+            } else if (roll == 3 && !isClassic) {
+                world.dropDepthCharge();
+            }
+            world.tick();
+        }
+        world.getRecorder().finish(world);
+        world.setRecorder(null);
+        return world;
+
+    }//end of the record Method
+    /**
+     * main Method - Records and plays the games, and exits with a failure if any of them differ.
+     * @param args - String[] not used
+     * @throws IOException - if a replay cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("replay-check");
+        boolean isEveryReplayMatched = true;
+        for (Level level : new Level[] {Level.CLASSIC, Level.BARRAGE, Level.BARRAGE.withChargeSpeed(120)}) {
+            for (long seed : SEEDS) {
+                Path file = directory.resolve(level.getName() + "-" + level.getChargeSpeed() + "-" + seed + ".skr");
+                GameWorld recorded = record(file, level, seed);
+                ReplayPlayer player = new ReplayPlayer(file);
+                player.play();
+                GameWorld played = player.getWorld();
+                boolean isMatched = player.matches() && played.getTickCount() == recorded.getTickCount()
+                        && played.getSnapshots().acquire().battleshipX == recorded.getSnapshots().acquire().battleshipX;
+                System.out.println(String.format("%s, %d bytes: %s", player, Files.size(file),
+                        isMatched ? "OK" : "DIFFERS at tick " + played.getTickCount()
+                        + " instead of " + recorded.getTickCount()));
+                isEveryReplayMatched &= isMatched;
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+        if (!isEveryReplayMatched) {
+            System.out.println("FAILED: a replay did not play the recorded game");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the ReplayCheck Class
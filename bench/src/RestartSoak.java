@@ -0,0 +1,125 @@
+package src;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The RestartSoak Class enforces that a game can be restarted in place without leaking.  It plays
+ * 10,000 short games on a panel the way a player does, dropping depth charges until the game is
+ * over, and starting the next game from the game over state, and every tenth game it waits for
+ * the attract state and watches the bot play for a while first.  After 1,000 and after 10,000
+ * restarts, it collects the garbage and measures the used heap and the number of threads, and it
+ * checks that the panel still ticks the world that it created first.  It is run with
+ * "ant soak-restart", and it exits with a failure if the heap or the threads grew beyond the
+ * budget between the two measurements, or if a restart created a new world.
+ */
+public final class RestartSoak {
+    //Class Variables
+    static final int WIDTH = 640;
+    static final int HEIGHT = 360;
+    static final int RESTARTS = 10_000;
+    static final int BASELINE_RESTARTS = 1_000;
+    static final int ATTRACT_INTERVAL = 10;
+    static final int ATTRACT_TICKS = 200;
+    /** The number of ticks after which a game that is not over fails the soak */
+    static final int MAX_TICKS = 100_000;
+    /** The number of bytes that the used heap may grow by between the two measurements */
+    static final long HEAP_BUDGET = 2 * 1024 * 1024;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * RestartSoak Constructor - This class has only static methods.
+     */
+    private RestartSoak() {
+    }//end of the RestartSoak Constructor
+    /**
+     * play Method - Starts a game from the current state of the panel, and plays it until it is
+     * over.  A frame is painted after the start and after the end of the game.
+     * @param game - the SubmarineKiller panel
+     * @param g2d - the Graphics context of the image that the panel paints into
+     */
+    static void play(SubmarineKiller game, Graphics2D g2d) {
+        game.doNewGame();
+        game.updateNewFrame();
+        if (game.getState() != SubmarineKiller.GameState.PLAYING)
+            throw new IllegalStateException("The game did not start from " + game.getState());
+        game.paintComponent(g2d);
+        GameWorld world = game.getWorld();
+        while (game.getState() == SubmarineKiller.GameState.PLAYING) {
+            if (world.getTickCount() > MAX_TICKS)
+                throw new IllegalStateException("The game did not end after " + MAX_TICKS + " ticks");
+            InputRing input = world.getInput();
+            input.offer(InputRing.DROP, 0);
+            input.offer(InputRing.DROP | InputRing.RELEASED, 0);
+            game.updateNewFrame();
+        }
+        game.paintComponent(g2d);
+
+    }//end of the play Method
+    /**
+     * attract Method - Ticks the game over state until the panel attracts players, and then lets
+     * the bot play for a while.
+     * @param game - the SubmarineKiller panel
+     * @param g2d - the Graphics context of the image that the panel paints into
+     */
+    static void attract(SubmarineKiller game, Graphics2D g2d) {
+        while (game.getState() == SubmarineKiller.GameState.GAME_OVER)
+            game.updateNewFrame();
+        for (int i = 0; i < ATTRACT_TICKS; i++)
+            game.updateNewFrame();
+        game.paintComponent(g2d);
+
+    }//end of the attract Method
+    /**
+     * usedHeap Method - Collects the garbage, and measures the used heap.
+     * @return long - Returns the number of bytes of the heap that are used.
+     */
+    static long usedHeap() {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+
+    }//end of the usedHeap Method
+    /**
+     * main Method - Runs the soak and exits with a failure if anything grew beyond the budget.
+     * @param args - String[] not used
+     */
+    public static void main(String[] args) {
+        SubmarineKiller game = new SubmarineKiller(Level.CLASSIC.withNumberOfCharges(3));
+        game.setSize(WIDTH, HEIGHT);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        game.startGame(0);
+        GameWorld firstWorld = game.getWorld();
+        long baselineHeap = 0;
+        int baselineThreads = 0;
+        long start = System.nanoTime();
+        for (int i = 1; i <= RESTARTS; i++) {
+            if (i % ATTRACT_INTERVAL == 0)
+                attract(game, g2d);
+            play(game, g2d);
+            if (i == BASELINE_RESTARTS) {
+                baselineHeap = usedHeap();
+                baselineThreads = THREADS.getThreadCount();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heap = usedHeap();
+        int threads = THREADS.getThreadCount();
+        boolean isWorldReused = game.getWorld() == firstWorld;
+        System.out.println(String.format("%,d restarts in %.1f s", RESTARTS, seconds));
+        System.out.println(String.format("Used heap after %,d restarts: %,d bytes, after %,d: %,d bytes",
+                BASELINE_RESTARTS, baselineHeap, RESTARTS, heap));
+        System.out.println(String.format("Threads after %,d restarts: %d, after %,d: %d",
+                BASELINE_RESTARTS, baselineThreads, RESTARTS, threads));
+        System.out.println("World reused: " + isWorldReused);
+        if (heap - baselineHeap > HEAP_BUDGET || threads > baselineThreads || !isWorldReused) {
+            System.out.println("FAILED: restarting the game leaked");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the RestartSoak Class
@@ -0,0 +1,124 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The StartupBenchmark Class measures the time from starting the JVM to the first painted frame of
+ * the game.  It starts the game in a new JVM with the --startup-probe argument for every run,
+ * alternating the parallel startup with the --serial-startup one, so that both see the same state
+ * of the machine, and it reports the minimum, the median, and the maximum of the time from the
+ * launch of the process to the first frame, which includes the start of the JVM, and of the time
+ * that the JVM measured from its own start.  The games are headless, unless the DISPLAY variable
+ * is set, such as under xvfb-run, in which case they open a frame on that display.  It is run with
+ * "ant bench-startup", and -Dstartup.args can hold --runs N, --budget MS, which fails the run if
+ * the median of the parallel startup is slower, and any argument of the game, such as --barrage.
+ */
+public final class StartupBenchmark {
+    //Class Variables
+    static final int DEFAULT_RUNS = 10;
+    /** The longest time that a run may take before it is counted as failed */
+    static final long TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * StartupBenchmark Constructor - This class has only static methods.
+     */
+    private StartupBenchmark() {
+    }//end of the StartupBenchmark Constructor
+    /**
+     * launch Method - Starts the game in a new JVM and waits for its first frame.
+     * @param gameArgs - the List of arguments of the game
+     * @param isHeadless - true, if the game runs without a display
+     * @return long[] - Returns the milliseconds from the launch to the first frame, and from the
+     * start of the JVM to the first frame.
+     * @throws IOException - if the JVM cannot be started, or does not report its first frame
+     */
+    static long[] launch(List<String> gameArgs, boolean isHeadless) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (isHeadless)
+            command.add("-Djava.awt.headless=true");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("src.SubmarineKiller");
+        command.add("--startup-probe");
+        command.addAll(gameArgs);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(Startup.FIRST_FRAME)) {
+                    long launchMillis = (System.nanoTime() - start) / 1_000_000;
+                    long jvmMillis = Long.parseLong(line.substring(Startup.FIRST_FRAME.length()).trim());
+                    return new long[] {launchMillis, jvmMillis};
+                }
+                if (System.nanoTime() - start > TIMEOUT_MILLIS * 1_000_000)
+                    break;
+            }
+        } finally {
+            process.destroy();
+        }
+        throw new IOException("The game did not report its first frame: " + command);
+
+    }//end of the launch Method
+    /**
+     * describe Method - Describes the minimum, the median, and the maximum of a sample.
+     * @param millis - the long[] of milliseconds, which is sorted
+     * @return String - Returns the description.
+     */
+    static String describe(long[] millis) {
+        Arrays.sort(millis);
+        return String.format("min %5d  median %5d  max %5d ms", millis[0], millis[millis.length / 2],
+                millis[millis.length - 1]);
+
+    }//end of the describe Method
+    /**
+     * main Method - Runs the benchmark and prints the results.
+     * @param args - String[] of --runs N, --budget MS, and the arguments of the game
+     * @throws IOException - if a game does not start
+     */
+    public static void main(String[] args) throws IOException {
+        int runs = DEFAULT_RUNS;
+        long budget = 0;
+        List<String> gameArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--runs".equals(args[i]) && i + 1 < args.length)
+                runs = Integer.parseInt(args[++i]);
+            else if ("--budget".equals(args[i]) && i + 1 < args.length)
+                budget = Long.parseLong(args[++i]);
+            else
+                gameArgs.add(args[i]);
+        }
+        String display = System.getenv("DISPLAY");
+        boolean isHeadless = display == null || display.isEmpty();
+        List<String> serialArgs = new ArrayList<>(gameArgs);
+        serialArgs.add("--serial-startup");
+        long[][] parallel = new long[2][runs];
+        long[][] serial = new long[2][runs];
+        launch(gameArgs, isHeadless);//The first run warms up the file cache, and is not counted.
+        for (int i = 0; i < runs; i++) {
+            long[] result = launch(gameArgs, isHeadless);
+            parallel[0][i] = result[0];
+            parallel[1][i] = result[1];
+            result = launch(serialArgs, isHeadless);
+            serial[0][i] = result[0];
+            serial[1][i] = result[1];
+        }
+        System.out.println(String.format("Time to first frame, %d runs, %s, %d processors", runs,
+                isHeadless ? "headless" : "display " + display, Runtime.getRuntime().availableProcessors()));
+        System.out.println("parallel startup, from launch:    " + describe(parallel[0]));
+        System.out.println("parallel startup, from JVM start: " + describe(parallel[1]));
+        System.out.println("serial startup, from launch:      " + describe(serial[0]));
+        System.out.println("serial startup, from JVM start:   " + describe(serial[1]));
+        if (budget > 0 && parallel[0][runs / 2] > budget) {
+            System.out.println("FAILED: the median time to first frame is over " + budget + " ms");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the StartupBenchmark Class
@@ -0,0 +1,544 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The SubmarineKillerBenchmark Class is the benchmark harness of the render and update hot paths.
+ * It measures SubmarineKiller.paintComponent rendering into a headless BufferedImage, the draw
+ * method of each nested class, and the per-tick update chain of the timer, at 1080p and 4K panel
+ * sizes, the collision detection of 10x10 to 1000x1000 depth charges and submarines, and the
+ * update and the draw of 50,000 particles on one thread and on every processor.  Each
+ * benchmark is warmed up, then measured over several timed iterations, and reports the average
+ * time per operation, the bytes allocated per operation, the allocation rate, and the garbage
+ * collections that occurred while it was measured.  It is run with "ant bench", and the
+ * optional first argument only runs the benchmarks whose names contain it.
+ */
+public final class SubmarineKillerBenchmark {
+    //Class Variables
+    /** The panel sizes of the benchmarks, 1080p and 4K */
+    static final int[][] SIZES = {{1920, 1080}, {3840, 2160}};
+    /** The numbers of threads that the banded surface renders on */
+    static final int[] BANDED_THREADS = {1, 2, 4, 8};
+    /** The seed of the world of each benchmark, so that every run draws the same frames */
+    static final long SEED = 20141025L;
+    static final int WARMUP_ITERATIONS = 3;
+    static final int MEASUREMENT_ITERATIONS = 5;
+    static final long ITERATION_NANOS = 500_000_000L;
+    /** The numbers of depth charges and submarines of the collision benchmarks, 10x10 to 1000x1000 */
+    static final int[] COLLISION_COUNTS = {10, 100, 1000};
+    /** The number of live particles of the particle benchmarks */
+    static final int PARTICLE_COUNT = 50_000;
+    /** The particles that are emitted at once to keep the particle benchmarks at PARTICLE_COUNT */
+    static final int PARTICLE_BURST = 250;
+    /** The time of a frame at 60 frames per second, which a frame of the particles must fit into */
+    static final double FRAME_BUDGET_NANOS = 1e9 / 60;
+    private static final ParticleSystem.Kind[] PARTICLE_KINDS = ParticleSystem.Kind.values();
+    /** The sum of the results of the collision benchmarks, so that their work cannot be skipped */
+    static int collisionSink;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Benchmark Interface - A single operation to be measured.
+     */
+    interface Benchmark {
+        void run();
+    }//end of the Benchmark Interface
+    /**
+     * Fixture Class - A SubmarineKiller panel of a given size, with its world created, and the
+     * headless image and Graphics context it paints into.
+     */
+    static final class Fixture {
+        //Instance Variables
+        final SubmarineKiller game;
+        final BufferedImage image;
+        final Graphics2D g2d;
+        final DisplayList list = new DisplayList(SubmarineKiller.DISPLAY_LIST_CAPACITY);
+        private final int dropInterval;
+        private final int dropsPerInterval;
+        private int ticks;
+
+        /**
+         * Fixture Constructor - Creates the panel of the Classic level and the image of the given size.
+         * @param width - the width of the panel in pixels
+         * @param height - the height of the panel in pixels
+         */
+        Fixture(int width, int height) {
+            this(width, height, Level.CLASSIC);
+
+        }//end of the Fixture Constructor
+        /**
+         * Fixture Constructor - Creates the panel of the given level and the image of the given size.
+         * The Classic level drops a depth charge every 40 ticks, and any other level drops 4 depth
+         * charges every tick, so that hundreds of them are falling at once.
+         * @param width - the width of the panel in pixels
+         * @param height - the height of the panel in pixels
+         * @param level - the Level of the game
+         */
+        Fixture(int width, int height, Level level) {
+            this(width, height, level, null);
+
+        }//end of the Fixture Constructor
+        /**
+         * Fixture Constructor - Creates the panel of the given level, rendered into the given
+         * ScaledSurface, and the image of the given size.
+         * @param width - the width of the panel in pixels
+         * @param height - the height of the panel in pixels
+         * @param level - the Level of the game
+         * @param surface - the ScaledSurface of the panel, or null to render at the size of the panel
+         */
+        Fixture(int width, int height, Level level, ScaledSurface surface) {
+            boolean isClassic = level == Level.CLASSIC;
+            dropInterval = isClassic ? 40 : 1;
+            dropsPerInterval = isClassic ? 1 : 4;
+            game = new SubmarineKiller(level);
+            game.setSize(width, height);
+            game.setSurface(surface);
+            game.startGame(SEED);
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            g2d = image.createGraphics();
+
+        }//end of the Fixture Constructor
+        /**
+         * tick Method - Runs the update chain of the timer once.  Depth charges are dropped at the
+         * rate of the level, by offering the key that drops them to the input of the world like the
+         * key listener does, so that the input, falling, collision, and explosion paths are
+         * exercised, and a new game is started when the game is over.
+         */
+        void tick() {
+            if (++ticks % dropInterval == 0)
+                for (int i = 0; i < dropsPerInterval; i++)
+                    pressKey(InputRing.DROP);
+            game.updateNewFrame();
+            if (game.getWorld().isGameOver())
+                game.startGame(SEED + ticks);
+
+        }//end of the tick Method
+        /**
+         * begin Method - Empties the list of the fixture to record an entity into it.
+         * @return DisplayList - Returns the DisplayList of the fixture.
+         */
+        DisplayList begin() {
+            list.begin(g2d);
+            return list;
+
+        }//end of the begin Method
+        /**
+         * replay Method - Replays the list of the fixture into the image, as a frame does after
+         * every entity has been recorded.
+         */
+        void replay() {
+            list.replay(g2d, null);
+
+        }//end of the replay Method
+        /**
+         * pressKey Method - Offers a key going down and up to the input of the world.
+         * @param key - the key of the InputRing
+         */
+        void pressKey(int key) {
+            InputRing input = game.getWorld().getInput();
+            input.offer(key, System.nanoTime());
+            input.offer(key | InputRing.RELEASED, System.nanoTime());
+
+        }//end of the pressKey Method
+        /**
+         * tickDirty Method - Runs the update chain of the timer once, and paints the dirty region of
+         * the frame the way the timer does, with the clip of the Graphics context set to each of its
+         * rectangles in turn, or paints the whole panel when the dirty region is too large.
+         * @return Boolean - Returns true, if the dirty region was painted; otherwise, it returns
+         * false, and the whole panel was painted.
+         */
+        boolean tickDirty() {
+            tick();
+            if (!game.updateDirtyRegion()) {
+                game.paintComponent(g2d);
+                return false;
+            }
+            game.paintDirtyRegion(g2d);
+            return true;
+
+        }//end of the tickDirty Method
+    }//end of the Fixture Class
+    /**
+     * Result Class - The measurement of a single benchmark.
+     */
+    static final class Result {
+        //Instance Variables
+        final String name;
+        final double nanosPerOp;
+        final double bytesPerOp;
+        final double megabytesPerSecond;
+        final long gcCount;
+        final long gcMillis;
+
+        /**
+         * Result Constructor - Creates the result of a benchmark, and derives its allocation rate.
+         */
+        Result(String name, double nanosPerOp, double bytesPerOp, long gcCount, long gcMillis) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.megabytesPerSecond = nanosPerOp == 0 ? 0 : bytesPerOp * 1e9 / nanosPerOp / (1024 * 1024);
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+
+        }//end of the Result Constructor
+        /**
+         * toString Method - Formats the result as a row of the report.
+         * @return String - Returns the row of the report.
+         */
+        @Override
+        public String toString() {
+            return String.format("%-36s %14.1f %12.1f %12.2f %8d %8d",
+                    name, nanosPerOp, bytesPerOp, megabytesPerSecond, gcCount, gcMillis);
+
+        }//end of the toString Method
+    }//end of the Result Class
+    /**
+     * SubmarineKillerBenchmark Constructor - This class has only static methods.
+     */
+    private SubmarineKillerBenchmark() {
+    }//end of the SubmarineKillerBenchmark Constructor
+    /**
+     * measure Method - Warms up and measures the benchmark.
+     * @param name - the name of the benchmark
+     * @param benchmark - the operation to measure
+     * @return Result - Returns the measurement of the benchmark.
+     */
+    static Result measure(String name, Benchmark benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            iteration(benchmark);
+        long threadId = Thread.currentThread().getId();
+        long gcCount = gcCount(), gcMillis = gcMillis();
+        long bytes = THREADS.getThreadAllocatedBytes(threadId);
+        long operations = 0, nanos = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operations += iteration(benchmark);
+            nanos += System.nanoTime() - start;
+        }
+        bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+        return new Result(name, (double) nanos / operations, (double) bytes / operations,
+                gcCount() - gcCount, gcMillis() - gcMillis);
+
+    }//end of the measure Method
+    /**
+     * iteration Method - Runs the benchmark in batches until the iteration time has passed.
+     * @param benchmark - the operation to run
+     * @return long - Returns the number of operations that were run.
+     */
+    private static long iteration(Benchmark benchmark) {
+        long deadline = System.nanoTime() + ITERATION_NANOS;
+        long operations = 0;
+        int batch = 1;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < batch; i++)
+                benchmark.run();
+            operations += batch;
+            if (batch < 1024)
+                batch <<= 1;
+        }
+        return operations;
+
+    }//end of the iteration Method
+    /**
+     * gcCount Method - Gets the total number of garbage collections of the JVM.
+     * @return long - Returns the number of collections.
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+
+    }//end of the gcCount Method
+    /**
+     * gcMillis Method - Gets the total time spent in garbage collection by the JVM.
+     * @return long - Returns the time in milliseconds.
+     */
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            millis += Math.max(0, gc.getCollectionTime());
+        return millis;
+
+    }//end of the gcMillis Method
+    /**
+     * run Method - Runs every benchmark of the given panel size whose name contains the filter.
+     * @param width - the width of the panel in pixels
+     * @param height - the height of the panel in pixels
+     * @param filter - the part of the name of the benchmarks to run
+     * @return List - Returns the results of the benchmarks.
+     */
+    static List<Result> run(int width, int height, String filter) {
+        final Fixture f = new Fixture(width, height);
+        final Fixture timed = new Fixture(width, height);
+        timed.game.getFrameStats().setEnabled(true);
+        final Fixture barrage = new Fixture(width, height, Level.BARRAGE);
+        final Fixture half = new Fixture(width, height, Level.CLASSIC,
+                ScaledSurface.ofScale(0.5, ScaledSurface.Interpolation.NEAREST));
+        for (int i = 0; i < 200; i++)
+            barrage.tick();//Fill the sea with falling depth charges
+        final Fixture[] banded = new Fixture[BANDED_THREADS.length];
+        final ForkJoinPool[] pools = new ForkJoinPool[BANDED_THREADS.length];
+        for (int i = 0; i < banded.length; i++) {
+            banded[i] = new Fixture(width, height);
+            pools[i] = new ForkJoinPool(BANDED_THREADS[i]);
+            banded[i].game.setBandedSurface(new BandedSurface(pools[i], SubmarineKiller.BAND_EDGES));
+        }
+        final String size = width + "x" + height;
+        List<Result> results = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        names.add("paintComponent");
+        benchmarks.add(() -> f.game.paintComponent(f.g2d));
+        names.add("paintComponent.timed");
+        benchmarks.add(() -> timed.game.paintComponent(timed.g2d));
+        names.add("Battleship.draw");
+        benchmarks.add(() -> {
+            f.game.battleship.draw(f.begin());
+            f.replay();
+        });
+        names.add("DepthCharge.draw");
+        benchmarks.add(() -> {
+            f.game.depthCharge.draw(f.begin());
+            f.replay();
+        });
+        names.add("Submarine.draw");
+        benchmarks.add(() -> {
+            f.game.submarine.draw(f.begin());
+            f.replay();
+        });
+        names.add("Wave.draw");
+        benchmarks.add(() -> {
+            f.game.waves.draw(f.begin());
+            f.replay();
+        });
+        names.add("CloudOne.draw");
+        benchmarks.add(() -> {
+            f.game.cloudOne.draw(f.begin());
+            f.replay();
+        });
+        names.add("CloudTwo.draw");
+        benchmarks.add(() -> {
+            f.game.cloudTwo.draw(f.begin());
+            f.replay();
+        });
+        names.add("Sun.draw");
+        benchmarks.add(() -> {
+            f.game.sun.draw(f.begin());
+            f.replay();
+        });
+        names.add("actionPerformed.update");
+        benchmarks.add(f::tick);
+        names.add("frame.full");
+        benchmarks.add(() -> {
+            f.tick();
+            f.game.paintComponent(f.g2d);
+        });
+        names.add("frame.dirty");
+        benchmarks.add(f::tickDirty);
+        names.add("paintComponent.scale0.5");
+        benchmarks.add(() -> half.game.paintComponent(half.g2d));
+        names.add("frame.dirty.scale0.5");
+        benchmarks.add(half::tickDirty);
+        names.add("Barrage.paintComponent");
+        benchmarks.add(() -> barrage.game.paintComponent(barrage.g2d));
+        names.add("Barrage.update");
+        benchmarks.add(barrage::tick);
+        for (int i = 0; i < banded.length; i++) {
+            final Fixture fixture = banded[i];
+            names.add("paintComponent.banded" + BANDED_THREADS[i]);
+            benchmarks.add(() -> fixture.game.paintComponent(fixture.g2d));
+        }
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i) + " @" + size;
+            if (name.contains(filter)) {
+                Result result = measure(name, benchmarks.get(i));
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        f.g2d.dispose();
+        timed.g2d.dispose();
+        barrage.g2d.dispose();
+        half.g2d.dispose();
+        for (int i = 0; i < banded.length; i++) {
+            banded[i].g2d.dispose();
+            pools[i].shutdown();
+        }
+        return results;
+
+    }//end of the run Method
+    /**
+     * runCollision Method - Runs the collision benchmarks whose names contain the filter.  Each one
+     * finds the submarine hit by every depth charge at random positions of a 1080p world, with the
+     * submarines in their rows along the bottom, once with the SpatialGrid, including the build of
+     * the grid, once with the grid sweeping every charge over its fall in a tick, and once by
+     * testing every pair.
+     * @param filter - the part of the name of the benchmarks to run
+     * @return List - Returns the results of the benchmarks.
+     */
+    static List<Result> runCollision(String filter) {
+        List<Result> results = new ArrayList<>();
+        GameRandom random = new GameRandom(SEED);
+        final int width = 1920, height = 1080;
+        final int chargeWidth = GameWorld.DepthChargePool.depthChargeWidth;
+        final int chargeHeight = GameWorld.DepthChargePool.depthChargeHeight;
+        final int submarineWidth = GameWorld.SubmarinePool.submarineWidth;
+        final int submarineHeight = GameWorld.SubmarinePool.submarineHeight;
+        for (final int n : COLLISION_COUNTS) {
+            final int[] chargeX = new int[n], chargeY = new int[n];
+            final int[] submarineX = new int[n], submarineY = new int[n];
+            for (int i = 0; i < n; i++) {
+                chargeX[i] = (int)(width * random.nextDouble());
+                chargeY[i] = (int)(height * random.nextDouble());
+                submarineX[i] = (int)(width * random.nextDouble());
+                submarineY[i] = height - 72 - (i % 3) * GameWorld.SubmarinePool.rowSpacing;
+            }
+            final SpatialGrid grid = new SpatialGrid(width, height, GameWorld.SubmarinePool.gridCellSize,
+                    n, submarineWidth, submarineHeight);
+            String gridName = "Collision.grid " + n + "x" + n;
+            if (gridName.contains(filter)) {
+                Result result = measure(gridName, () -> {
+                    grid.build(submarineX, submarineY, n);
+                    for (int i = 0; i < n; i++)
+                        collisionSink += grid.query(chargeX[i], chargeY[i], chargeWidth, chargeHeight);
+                });
+                System.out.println(result);
+                results.add(result);
+            }
+            String sweptName = "Collision.swept " + n + "x" + n;
+            if (sweptName.contains(filter)) {
+                Result result = measure(sweptName, () -> {
+                    grid.build(submarineX, submarineY, n);
+                    for (int i = 0; i < n; i++)
+                        collisionSink += grid.sweep(chargeX[i], chargeY[i], chargeWidth, chargeHeight, 0, Level.DEFAULT_CHARGE_SPEED);
+                });
+                System.out.println(result);
+                results.add(result);
+            }
+            String pairwiseName = "Collision.pairwise " + n + "x" + n;
+            if (pairwiseName.contains(filter)) {
+                Result result = measure(pairwiseName, () -> {
+                    for (int i = 0; i < n; i++) {
+                        int found = -1;
+                        for (int j = 0; j < n && found < 0; j++) {
+                            if (chargeX[i] < submarineX[j] + submarineWidth && submarineX[j] < chargeX[i] + chargeWidth
+                                    && chargeY[i] < submarineY[j] + submarineHeight && submarineY[j] < chargeY[i] + chargeHeight)
+                                found = j;
+                        }
+                        collisionSink += found;
+                    }
+                });
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        return results;
+
+    }//end of the runCollision Method
+    /**
+     * fillParticles Method - Emits bursts of particles of every kind at random positions of a 1080p
+     * panel, until the system holds PARTICLE_COUNT particles, which replaces the particles that
+     * died in the last update.
+     * @param particles - the ParticleSystem to fill
+     * @param random - the GameRandom of the positions
+     */
+    static void fillParticles(ParticleSystem particles, GameRandom random) {
+        int k = 0;
+        while (particles.getCount() < PARTICLE_COUNT) {
+            int number = Math.min(PARTICLE_BURST, PARTICLE_COUNT - particles.getCount());
+            particles.emit(PARTICLE_KINDS[k++ % PARTICLE_KINDS.length], (float)(1920 * random.nextDouble()),
+                    (float)(1080 * random.nextDouble()), number, 0, 0);
+        }
+    }//end of the fillParticles Method
+    /**
+     * runParticles Method - Runs the particle benchmarks whose names contain the filter.  Every
+     * operation first tops the system up to PARTICLE_COUNT particles, so that it stays in the
+     * steady state of an effect that emits as many particles as die, and then updates them, on
+     * the thread of the benchmark and on a ForkJoinPool of every processor, and then draws them
+     * into a 1080p image for the frame benchmarks, as the frame of the game does, so the draw is
+     * the difference of a frame and an update.  The time of each frame is compared with the time
+     * of a frame at 60 frames per second.
+     * @param filter - the part of the name of the benchmarks to run
+     * @return List - Returns the results of the benchmarks.
+     */
+    static List<Result> runParticles(String filter) {
+        List<Result> results = new ArrayList<>();
+        final GameRandom random = new GameRandom(SEED);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        final ParticleSystem serial = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY, SEED, null);
+        final ParticleSystem parallel = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY, SEED, pool);
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        final DisplayList list = new DisplayList(SubmarineKiller.DISPLAY_LIST_CAPACITY);
+        List<String> names = new ArrayList<>();
+        List<Benchmark> benchmarks = new ArrayList<>();
+        names.add("Particles.update " + PARTICLE_COUNT);
+        benchmarks.add(() -> {
+            fillParticles(serial, random);
+            serial.update();
+        });
+        names.add("Particles.update.parallel " + PARTICLE_COUNT);
+        benchmarks.add(() -> {
+            fillParticles(parallel, random);
+            parallel.update();
+        });
+        names.add("Particles.frame " + PARTICLE_COUNT);
+        benchmarks.add(() -> {
+            fillParticles(serial, random);
+            serial.update();
+            list.begin(g2d);
+            serial.draw(list, 1920, 1080);
+            list.replay(g2d, null);
+        });
+        names.add("Particles.frame.parallel " + PARTICLE_COUNT);
+        benchmarks.add(() -> {
+            fillParticles(parallel, random);
+            parallel.update();
+            list.begin(g2d);
+            parallel.draw(list, 1920, 1080);
+            list.replay(g2d, null);
+        });
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (name.contains(filter)) {
+                Result result = measure(name, benchmarks.get(i));
+                System.out.println(result);
+                results.add(result);
+                if (name.startsWith("Particles.frame"))
+                    System.out.println(String.format("  %.2f ms of the %.2f ms of a frame at 60 FPS, on %d processors",
+                            result.nanosPerOp / 1e6, FRAME_BUDGET_NANOS / 1e6, pool.getParallelism()));
+            }
+        }
+        g2d.dispose();
+        pool.shutdown();
+        return results;
+
+    }//end of the runParticles Method
+    /**
+     * main Method - Runs the benchmarks at every panel size and prints the report.
+     * @param args - String[] the optional filter of the benchmark names
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        System.out.println(String.format("%-36s %14s %12s %12s %8s %8s",
+                "Benchmark", "ns/op", "B/op", "MB/s", "gc.count", "gc.ms"));
+        for (int[] size : SIZES)
+            run(size[0], size[1], filter);
+        runCollision(filter);
+        runParticles(filter);
+
+    }//end of the main Method
+} // end of the SubmarineKillerBenchmark Class
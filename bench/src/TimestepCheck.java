@@ -0,0 +1,165 @@
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The TimestepCheck Class enforces that the speed of the game does not depend on its frame rate.
+ * It drives the panel with a simulated clock for a minute of frames at 30, 60, and 144 frames per
+ * second, and at frame times that jitter between 4 and 100 milliseconds, as under load, while the
+ * bot of the attract state plays the same seed.  Every run must end on the same tick, with the same
+ * world.  It also measures the largest step of the submarine between two frames, as it is drawn
+ * and as it is in the world, which at 144 frames per second is shorter when the frames are
+ * interpolated.  Last, it paints a frame halfway between the ticks on which the waves wrap around,
+ * which must draw the waves one pixel further along rather than half of the wrap backward.  It is
+ * run with "ant check-timestep", and it exits with a failure if a run differs.
+ */
+public final class TimestepCheck {
+    //Class Variables
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    static final long SEED = 22;
+    static final long DURATION_NANOS = 60_000_000_000L;
+    static final int[] FRAME_RATES = {30, 60, 144};
+    /** The frame rate at which the interpolated steps must be shorter than the steps of the world */
+    static final int SMOOTH_FPS = 144;
+    /*
+     * The shortest and longest frame times of the jittered run.  The longest stays under the
+     * MAX_TICKS_PER_FRAME ticks that a frame may catch up on, so that no tick is dropped.
+     */
+    static final long MIN_JITTER_NANOS = 4_000_000L;
+    static final long MAX_JITTER_NANOS = 100_000_000L;
+    /** The charges of the level, which are enough that the game is not over within the minute */
+    static final int CHARGES = 10_000;
+
+    /**
+     * Run Class - The results of driving the panel at one frame rate.
+     */
+    static final class Run {
+        //Instance Variables
+        long frames;
+        long ticks;
+        int drawnStep;//The largest step of the submarine between two frames as it is drawn
+        int worldStep;//The largest step of the submarine between two frames in the world
+        String world;//The state of the world at the end of the run
+    }//end of the Run Class
+
+    /**
+     * TimestepCheck Constructor - This class has only static methods.
+     */
+    private TimestepCheck() {
+    }//end of the TimestepCheck Constructor
+    /**
+     * run Method - Drives a new panel for a minute of frames.
+     * @param fps - the frames per second, or 0 for frame times that jitter
+     * @return Run - Returns the results of the run.
+     */
+    static Run run(int fps) {
+        SubmarineKiller game = new SubmarineKiller(Level.CLASSIC.withNumberOfCharges(CHARGES));
+        game.createWorld(WIDTH, HEIGHT, SEED);
+        GameWorld world = game.getWorld();
+        Random jitter = new Random(SEED);
+        Run run = new Run();
+        long start = 1_000_000_000L, now = start;
+        game.advanceFrame(now);
+        int drawnX = game.acquireSnapshot().submarineX[0];
+        int worldX = world.submarines.centerX[0];
+        while (now - start < DURATION_NANOS) {
+            long frameNanos = fps == 0 ? MIN_JITTER_NANOS + (long)(jitter.nextDouble() * (MAX_JITTER_NANOS - MIN_JITTER_NANOS))
+                    : 1_000_000_000L / fps;
+            now = Math.min(start + DURATION_NANOS, now + frameNanos);
+            game.advanceFrame(now);
+            run.frames++;
+            int x = game.acquireSnapshot().submarineX[0];
+            run.drawnStep = Math.max(run.drawnStep, getStep(drawnX, x));
+            drawnX = x;
+            x = world.submarines.centerX[0];
+            run.worldStep = Math.max(run.worldStep, getStep(worldX, x));
+            worldX = x;
+        }
+        run.ticks = world.getTickCount();
+        run.world = "hits=" + world.hits + " misses=" + world.misses + " battleship=" + world.battleship.centerX
+                + " submarine=" + world.submarines.centerX[0] + "," + world.submarines.centerY[0]
+                + " charges=" + world.depthCharges.count;
+        return run;
+
+    }//end of the run Method
+    /**
+     * getWrapStep Method - Ticks a new panel until the waves wrap around, and paints the frame
+     * halfway between the tick before the wrap and the wrap.
+     * @return Int - Returns the step of the waves that the frame draws from the tick before the wrap,
+     * modulo the period of the waves, which is -1 or 0 when the wrap is interpolated as one pixel.
+     * @throws IOException - if the display list cannot be written
+     */
+    static int getWrapStep() throws IOException {
+        SubmarineKiller game = new SubmarineKiller(Level.CLASSIC);
+        game.setSize(WIDTH, HEIGHT);
+        game.createWorld(WIDTH, HEIGHT, SEED);
+        GameWorld world = game.getWorld();
+        int before;
+        do {
+            before = world.waves.centerX;
+            game.updateNewFrame();
+        } while (world.waves.centerX - before != SubmarineKiller.Wave.PERIOD - 1);
+        game.setInterpolation(0.5);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        game.paintComponent(g2d);
+        g2d.dispose();
+        StringBuilder list = new StringBuilder();
+        game.getDisplayList().writeTo(list);
+        int start = list.indexOf("image wave ") + "image wave ".length();
+        int drawnX = Integer.parseInt(list.substring(start, list.indexOf(" ", start)));
+        int period = SubmarineKiller.Wave.PERIOD;
+        return Math.floorMod(drawnX - before + period / 2, period) - period / 2;
+
+    }//end of the getWrapStep Method
+    /**
+     * getStep Method - Gets the distance between two positions of the submarine, unless it jumped.
+     * @param from - the position in the previous frame
+     * @param to - the position in this frame
+     * @return Int - Returns the distance in pixels, or 0 if the submarine jumped.
+     */
+    static int getStep(int from, int to) {
+        int step = Math.abs(to - from);
+        return step > WorldSnapshot.MAX_INTERPOLATED_STEP ? 0 : step;
+
+    }//end of the getStep Method
+    /**
+     * main Method - Runs the check at every frame rate, and exits with a failure if the speed of
+     * the game depends on it.
+     * @param args - String[] not used
+     * @throws IOException - if the display list cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        boolean isPassed = true;
+        Run reference = null;
+        System.out.println(String.format("%8s %8s %8s %12s %12s  %s", "fps", "frames", "ticks", "drawn step",
+                "world step", "world"));
+        int[] rates = new int[FRAME_RATES.length + 1];
+        System.arraycopy(FRAME_RATES, 0, rates, 0, FRAME_RATES.length);
+        for (int fps : rates) {
+            Run run = run(fps);
+            System.out.println(String.format("%8s %8d %8d %12d %12d  %s", fps == 0 ? "jitter" : fps, run.frames,
+                    run.ticks, run.drawnStep, run.worldStep, run.world));
+            if (reference == null)
+                reference = run;
+            else if (run.ticks != reference.ticks || !run.world.equals(reference.world))
+                isPassed = false;
+            if (fps == SMOOTH_FPS && run.drawnStep >= run.worldStep)
+                isPassed = false;
+        }
+        if (reference.ticks != DURATION_NANOS / FixedTimestep.TICK_NANOS)
+            isPassed = false;
+        int wrapStep = getWrapStep();
+        System.out.println("The waves step " + wrapStep + " px halfway into the tick on which they wrap");
+        if (wrapStep < -1 || wrapStep > 0)
+            isPassed = false;
+        if (!isPassed) {
+            System.out.println("FAILED: the game did not run at the same speed at every frame rate, or was not interpolated");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the TimestepCheck Class
@@ -0,0 +1,131 @@
+package src;
+
+/**
+ * The TunnelingCheck Class enforces that a depth charge cannot fall through a submarine, however
+ * fast it falls.  For every speed, from the 10 pixels a tick of the original game to several times
+ * the height of a submarine, it drops charges from right above the submarine and counts the hits,
+ * and it checks that every hit is reported where the bottom of the charge meets the top of the
+ * submarine, which is where the swept collision puts the time of impact, unless the submarine ran
+ * into the side of a slow charge.  It also counts the
+ * charges that a test of the positions at the end of each tick would have missed, because no
+ * position of the fall overlapped the submarine.  It is run with "ant check-tunneling", and it
+ * exits with a failure if an aimed charge missed, or hit anywhere but the top, at a speed at which
+ * the submarine cannot move out of its way.
+ */
+public final class TunnelingCheck {
+    //Class Variables
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    static final int[] SPEEDS = {10, 30, 60, 120, 240, 480};
+    static final int DROPS = 200;
+    /*
+     * The slowest speed at which every aimed charge must hit: the charge falls about 800 pixels to
+     * the submarine, which moves 5 pixels a tick, so from 30 pixels a tick it moves less than half
+     * of its width before the charge arrives.
+     */
+    static final int AIMED_SPEED = 30;
+    /** The pixels between the middle of the charge and the middle of the submarine when it is dropped */
+    static final int AIM_TOLERANCE = 10;
+    /** The number of ticks after which a game that is not over fails the check */
+    static final int MAX_TICKS = 1_000_000;
+
+    /**
+     * Impacts Class - The listener of the world that checks where each hit was reported.
+     */
+    static final class Impacts implements GameWorld.Listener {
+        //Instance Variables
+        int submarineY;//The top of the submarine that was aimed at
+        int hits;
+        int sideHits;//The hits that were not reported at the top of the submarine
+
+        /**
+         * depthChargeDropped Method - Does nothing.
+         */
+        @Override
+        public void depthChargeDropped(int centerX, int centerY) {
+        }//end of the depthChargeDropped Method
+        /**
+         * depthChargeHit Method - Counts a hit, and whether the bottom of the charge was within a
+         * pixel of the top of the submarine at the time of impact.
+         */
+        @Override
+        public void depthChargeHit(int impactX, int impactY) {
+            hits++;
+            if (Math.abs(impactY - submarineY) > 1)
+                sideHits++;
+
+        }//end of the depthChargeHit Method
+        /**
+         * submarineExploded Method - Does nothing.
+         */
+        @Override
+        public void submarineExploded(int centerX, int centerY) {
+        }//end of the submarineExploded Method
+    }//end of the Impacts Class
+
+    /**
+     * TunnelingCheck Constructor - This class has only static methods.
+     */
+    private TunnelingCheck() {
+    }//end of the TunnelingCheck Constructor
+    /**
+     * isSampled Method - Determines whether a charge that falls from a height at a speed is ever
+     * tested at a position whose height overlaps the submarine, which is what a test of the
+     * position at the end of each tick needs to find the hit.
+     * @param chargeY - the y position of the charge when it was dropped
+     * @param speed - the pixels the charge falls each tick
+     * @param submarineY - the y position of the top of the submarine
+     * @return Boolean - Returns true, if a position of the fall overlaps the submarine.
+     */
+    static boolean isSampled(int chargeY, int speed, int submarineY) {
+        int top = submarineY - GameWorld.DepthChargePool.depthChargeHeight;
+        int bottom = submarineY + GameWorld.SubmarinePool.submarineHeight;
+        int k = chargeY > top ? 0 : (top - chargeY) / speed + 1;//The first position below the top
+        return chargeY + k * speed < bottom;
+
+    }//end of the isSampled Method
+    /**
+     * main Method - Runs the check at every speed, and exits with a failure if a charge fell
+     * through the submarine.
+     * @param args - String[] not used
+     */
+    public static void main(String[] args) {
+        boolean isPassed = true;
+        System.out.println(String.format("%8s %8s %8s %8s %18s %10s", "px/tick", "drops", "hits", "misses",
+                "missed by points", "side hits"));
+        for (int speed : SPEEDS) {
+            GameWorld world = new GameWorld(WIDTH, HEIGHT, new GameRandom(speed),
+                    new Level("Tunneling", DROPS, 1, 1, speed));
+            Impacts impacts = new Impacts();
+            world.setListener(impacts);
+            GameWorld.SubmarinePool submarines = world.submarines;
+            GameWorld.DepthChargePool charges = world.depthCharges;
+            int drops = 0, unsampled = 0;
+            while (!world.isGameOver()) {
+                if (world.getTickCount() > MAX_TICKS)
+                    throw new IllegalStateException("The game did not end after " + MAX_TICKS + " ticks");
+                if (charges.count == 0 && submarines.explodingCount == 0) {
+                    int target = submarines.centerX[0] + GameWorld.SubmarinePool.submarineWidth / 2;
+                    int aimed = charges.attachedX + GameWorld.DepthChargePool.depthChargeWidth / 2;
+                    if (Math.abs(target - aimed) > AIM_TOLERANCE) {
+                        world.moveBattleship(target - aimed);
+                    } else if (world.dropDepthCharge()) {
+                        drops++;
+                        impacts.submarineY = submarines.centerY[0];
+                        if (!isSampled(charges.attachedY, speed, submarines.centerY[0]))
+                            unsampled++;
+                    }
+                }
+                world.tick();
+            }
+            System.out.println(String.format("%8d %8d %8d %8d %18d %10d", speed, drops, world.hits, world.misses,
+                    unsampled, impacts.sideHits));
+            if ((speed >= AIMED_SPEED && (world.misses > 0 || impacts.sideHits > 0)) || impacts.hits != world.hits)
+                isPassed = false;
+        }
+        if (!isPassed) {
+            System.out.println("FAILED: a depth charge fell through a submarine, or hit it out of place");
+            System.exit(1);
+        }
+    }//end of the main Method
+} // end of the TunnelingCheck Class
@@ -0,0 +1,212 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+
+/**
+ * The ActiveRenderer Class is the active rendering mode of the game.  Instead of a Swing Timer
+ * that asks the panel to repaint, a dedicated game-loop thread updates the world at its fixed tick
+ * rate through a FixedTimestep and draws every frame onto a Canvas through a BufferStrategy,
+ * interpolated between the last two ticks.  The frame rate is set by the
+ * target FPS, or uncapped when it is 0, and each frame is paced by sleeping until shortly before
+ * its deadline and then spinning.  The loop counts the frames that missed their deadline.  The
+ * SubmarineKiller panel is still the passive mode, and it is what draws each frame.
+ */
+final class ActiveRenderer implements Runnable {
+    //Class Variables
+    /** The loop sleeps until this long before the deadline of a frame, then spins */
+    static final long SPIN_NANOS = 2_000_000L;
+
+    //Instance Variables
+    private final SubmarineKiller game;
+    private final Canvas canvas;
+    private final long frameNanos;
+    private final FixedTimestep timestep = new FixedTimestep();
+    private Thread thread;
+    private volatile boolean isRunning;
+    /*
+     * The frame statistics are written by the game-loop thread and can be read from any thread.
+     */
+    private volatile long framesRendered;
+    private volatile long missedFrames;
+    private volatile long worstFrameNanos;
+
+    /**
+     * ActiveRenderer Constructor - Creates an instance of the ActiveRenderer that draws the game
+     * onto the Canvas.
+     * @param game - the SubmarineKiller that draws each frame
+     * @param canvas - the Canvas to draw on
+     * @param targetFps - the target number of frames per second, or 0 for uncapped
+     */
+    ActiveRenderer(SubmarineKiller game, Canvas canvas, int targetFps) {
+        if (targetFps < 0)
+            throw new IllegalArgumentException("targetFps must not be negative: " + targetFps);
+        this.game = game;
+        this.canvas = canvas;
+        this.frameNanos = targetFps == 0 ? 0 : 1_000_000_000L / targetFps;
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+        canvas.addKeyListener(game.keyListener);
+        canvas.addMouseListener(new MouseAdapter() {
+            /**
+             * mousePressed Method - Requests focus, and starts a game, unless one is played.
+             * @param me - the MouseEvent of pressing the mouse
+             */
+            @Override
+            public void mousePressed(MouseEvent me) {
+                canvas.requestFocus();
+                game.requestStart();
+            }//end of the mousePressed Method
+        });//end of the Anonymous MouseAdapter Class
+
+    }//end of the ActiveRenderer Constructor
+    /**
+     * start Method - Creates the BufferStrategy of the Canvas and starts the game-loop thread.
+     * The Canvas must be displayable.
+     */
+    synchronized void start() {
+        if (isRunning)
+            return;
+        canvas.createBufferStrategy(2);
+        isRunning = true;
+        thread = new Thread(this, "SubmarineKiller-GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+
+    }//end of the start Method
+    /**
+     * stop Method - Stops the game-loop thread and waits for it to finish.
+     * @throws InterruptedException - if the wait is interrupted
+     */
+    void stop() throws InterruptedException {
+        Thread loop;
+        synchronized (this) {
+            isRunning = false;
+            loop = thread;
+            thread = null;
+        }
+        if (loop != null && loop != Thread.currentThread())
+            loop.join();
+
+    }//end of the stop Method
+    /**
+     * run Method - The game loop.  Each frame runs the ticks that are due, draws the frame, and
+     * waits for the deadline of the next frame.
+     */
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (isRunning) {
+            long frameStart = System.nanoTime();
+            update(frameStart);
+            render();
+            long now = System.nanoTime();
+            long frameTime = now - frameStart;
+            if (frameTime > worstFrameNanos)
+                worstFrameNanos = frameTime;
+            framesRendered++;
+            if (frameNanos > 0) {
+                nextFrame += frameNanos;
+                if (now > nextFrame) {
+                    //The frame missed its deadline, so the schedule starts again from now.
+                    missedFrames++;
+                    nextFrame = now;
+                } else {
+                    waitUntil(nextFrame);
+                }
+            }
+        }
+    }//end of the run Method
+    /**
+     * update Method - Runs the ticks of the world that are due, unless a game is played while the
+     * Canvas does not have the input focus, in which case the time of the pause is not caught up
+     * on.  The ticks also change the state of the panel, and the frame is interpolated at the
+     * fraction of the next tick that has passed.
+     * @param now - the current time in nanoseconds
+     */
+    private void update(long now) {
+        GameWorld world = game.getWorld();
+        if (world == null || !game.isRunning(canvas.hasFocus())) {
+            timestep.reset();
+            game.setInterpolation(1);
+            return;
+        }
+        int ticks = timestep.advance(now);
+        for (int i = 0; i < ticks; i++)
+            game.updateNewFrame();
+        game.setInterpolation(timestep.getAlpha());
+        game.markRepaintRequested();
+
+    }//end of the update Method
+    /**
+     * render Method - Draws the frame into the back buffer and shows it, and draws it again if
+     * the contents of the buffers were lost.
+     */
+    private void render() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    game.paintFrame(g2d, canvas.getWidth(), canvas.getHeight(), canvas.hasFocus());
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+
+    }//end of the render Method
+    /**
+     * waitUntil Method - Sleeps until shortly before the deadline, then spins until it passes.
+     * @param deadline - the time to wait for in nanoseconds
+     */
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+            try {
+                Thread.sleep((remaining - SPIN_NANOS) / 1_000_000L);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        while (deadline - System.nanoTime() > 0)
+            Thread.yield();
+
+    }//end of the waitUntil Method
+    /**
+     * getFramesRendered Method - Gets the number of frames drawn since the loop started.
+     * @return long - Returns the number of frames.
+     */
+    long getFramesRendered() {return framesRendered;}
+    /**
+     * getMissedFrames Method - Gets the number of frames that finished after their deadline.
+     * @return long - Returns the number of missed frames.
+     */
+    long getMissedFrames() {return missedFrames;}
+    /**
+     * getWorstFrameNanos Method - Gets the longest time that a single frame took.
+     * @return long - Returns the time in nanoseconds.
+     */
+    long getWorstFrameNanos() {return worstFrameNanos;}
+    /**
+     * getDroppedTicks Method - Gets the number of ticks that were dropped after the loop stalled.
+     * @return long - Returns the number of dropped ticks.
+     */
+    long getDroppedTicks() {return timestep.getDroppedTicks();}
+    /**
+     * toString Method - Formats the frame statistics of the loop.
+     * @return String - Returns the frame statistics.
+     */
+    @Override
+    public String toString() {
+        return "frames=" + framesRendered + " missed=" + missedFrames
+                + " worstFrameMillis=" + worstFrameNanos / 1_000_000.0 + " droppedTicks=" + timestep.getDroppedTicks();
+
+    }//end of the toString Method
+} // end of the ActiveRenderer Class
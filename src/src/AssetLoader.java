@@ -0,0 +1,171 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * The AssetLoader Class decodes the images of the game on a background thread, so that the panel
+ * shows its first frame without waiting for them.  Each asset is a PNG resource that is decoded
+ * with ImageIO and converted into an image that is compatible with the default screen, so that
+ * blitting it stays on the fast path of the pipeline, and it is published to the thread that draws
+ * once it is ready.  Until then, and for good if its resource does not exist, whatever draws the
+ * asset falls back to painting it procedurally.  The art of a sprite is found at
+ * /img/sprites/name.png, and it is scaled to the bounds of its sprite.
+ */
+final class AssetLoader {
+    /**
+     * Listener Interface - Is told on the thread of the loader when an asset has been loaded.
+     */
+    interface Listener {
+        void loaded(Asset asset);
+    }//end of the Listener Interface
+    /**
+     * Asset Class - An image resource, and its compatible image once it is loaded.
+     */
+    final class Asset {
+        //Instance Variables
+        private final String resource;
+        private volatile BufferedImage image;
+
+        /**
+         * Asset Constructor - Creates an asset of the given resource.
+         */
+        private Asset(String resource) {
+            this.resource = resource;
+
+        }//end of the Asset Constructor
+        /**
+         * getResource Method - Gets the name of the resource of the asset.
+         * @return String - Returns the name of the resource.
+         */
+        String getResource() {return resource;}
+        /**
+         * getImage Method - Gets the compatible image of the asset.
+         * @return BufferedImage - Returns the image, or null until it is loaded.
+         */
+        BufferedImage getImage() {return image;}
+        /**
+         * isLoaded Method - Determines whether the image of the asset has been loaded.
+         * @return Boolean - Returns true, if the image is loaded; otherwise, it returns false.
+         */
+        boolean isLoaded() {return image != null;}
+    }//end of the Asset Class
+
+    //Class Variables
+    static final String SPRITE_DIRECTORY = "/img/sprites/";
+
+    //Instance Variables
+    private final List<Asset> assets = new ArrayList<>();
+    private final Listener listener;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private Thread thread;
+
+    /**
+     * AssetLoader Constructor - Creates a loader that tells the listener about every asset that
+     * it has loaded.
+     * @param listener - the Listener of the loader
+     */
+    AssetLoader(Listener listener) {
+        this.listener = listener;
+
+    }//end of the AssetLoader Constructor
+    /**
+     * define Method - Adds an image resource to the assets to load.  Every asset must be defined
+     * before the loader is started.
+     * @param resource - the name of the resource, such as /img/Submarine.png
+     * @return Asset - Returns the asset.
+     */
+    Asset define(String resource) {
+        if (thread != null)
+            throw new IllegalStateException("The assets are already loading: " + resource);
+        Asset asset = new Asset(resource);
+        assets.add(asset);
+        return asset;
+
+    }//end of the define Method
+    /**
+     * defineSprite Method - Adds the art of a sprite to the assets to load.
+     * @param name - the name of the sprite, such as battleship
+     * @return Asset - Returns the asset of the art.
+     */
+    Asset defineSprite(String name) {
+        return define(SPRITE_DIRECTORY + name + ".png");
+
+    }//end of the defineSprite Method
+    /**
+     * start Method - Starts to load the assets on a daemon thread, in the order they were defined.
+     */
+    void start() {
+        if (thread != null)
+            return;
+        thread = new Thread(this::load, "Asset loader");
+        thread.setDaemon(true);
+        thread.start();
+
+    }//end of the start Method
+    /**
+     * awaitLoaded Method - Waits until every asset has been loaded or found missing.
+     * @param timeoutMillis - the longest time to wait in milliseconds
+     * @return Boolean - Returns true, if the loader is done; otherwise, it returns false.
+     * @throws InterruptedException - if the thread is interrupted while it waits
+     */
+    boolean awaitLoaded(long timeoutMillis) throws InterruptedException {
+        return done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+
+    }//end of the awaitLoaded Method
+    /**
+     * load Method - Decodes and converts every asset whose resource exists.  An asset that cannot
+     * be decoded is reported, and keeps falling back to its procedural painting.
+     */
+    private void load() {
+        try {
+            ImageIO.setUseCache(false);//The resources are small, so they are decoded in memory.
+            GraphicsConfiguration gc = GraphicsEnvironment.isHeadless() ? null
+                    : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+            for (Asset asset : assets) {
+                URL url = AssetLoader.class.getResource(asset.resource);
+                if (url == null)
+                    continue;
+                try {
+                    BufferedImage decoded = ImageIO.read(url);
+                    if (decoded == null)
+                        throw new IOException("not a supported image");
+                    asset.image = toCompatible(decoded, gc);
+                    listener.loaded(asset);
+                } catch (IOException e) {
+                    System.err.println("The asset " + asset.resource + " could not be loaded: " + e);
+                }
+            }
+        } finally {
+            done.countDown();
+        }
+    }//end of the load Method
+    /**
+     * toCompatible Method - Converts an image into the format of a GraphicsConfiguration, with the
+     * transparency of the image.
+     * @param image - the BufferedImage to convert
+     * @param gc - the GraphicsConfiguration, or null to use premultiplied ARGB
+     * @return BufferedImage - Returns the converted image.
+     */
+    static BufferedImage toCompatible(BufferedImage image, GraphicsConfiguration gc) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage result = gc != null
+                ? gc.createCompatibleImage(width, height, image.getTransparency())
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = result.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return result;
+
+    }//end of the toCompatible Method
+} // end of the AssetLoader Class
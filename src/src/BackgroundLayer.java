@@ -0,0 +1,155 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * The BackgroundLayer Class draws the gradient of the sky and the water behind the game.  The
+ * gradient is rendered once per panel size into a cached image, and every frame copies it in with
+ * a single drawImage, instead of gradient-filling the whole panel.  When the panel is drawn on a
+ * screen, the cache is an accelerated VolatileImage that is restored when its contents are lost;
+ * when it is drawn into an image, such as in headless mode, the cache is a compatible BufferedImage.
+ * A panel can be drawn both ways, so each cache is checked against its own size before it is used.
+ */
+final class BackgroundLayer {
+    //Class Variables
+    private static final Color SKY_COLOR = new Color(252, 252, 164);//the yellowish color of the sky
+    private static final Color WATER_COLOR = new Color(6, 52, 69);//the bluish color of the water
+    /** The y position where the gradient of the sky begins */
+    private static final int HORIZON_Y = 150;
+
+    //Instance Variables
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private int width, height;//The size of the frame that is drawn, which the caches are rendered at
+
+    /**
+     * draw Method - Copies the cached background into the Graphics context, and renders the cache
+     * again only if it is not the size of the panel or its contents were lost.
+     * @param g2d - the Graphics context of the panel
+     * @param panelWidth - the width of the panel
+     * @param panelHeight - the height of the panel
+     */
+    void draw(Graphics2D g2d, int panelWidth, int panelHeight) {
+        if (panelWidth <= 0 || panelHeight <= 0)
+            return;
+        width = panelWidth;
+        height = panelHeight;
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (gc == null || gc.getDevice().getType() == GraphicsDevice.TYPE_IMAGE_BUFFER) {
+            drawBuffered(g2d, gc);
+        } else {
+            drawVolatile(g2d, gc);
+        }
+    }//end of the draw Method
+    /**
+     * prepare Method - Renders the cached BufferedImage again if it is not the size of the frame,
+     * so that the background can then be drawn into an image from several threads at once.
+     * @param gc - the GraphicsConfiguration of the image that the background is drawn into
+     * @param panelWidth - the width of the frame
+     * @param panelHeight - the height of the frame
+     */
+    void prepare(GraphicsConfiguration gc, int panelWidth, int panelHeight) {
+        if (panelWidth <= 0 || panelHeight <= 0)
+            return;
+        width = panelWidth;
+        height = panelHeight;
+        if (!isBufferedValid())
+            renderBuffered(gc);
+    }//end of the prepare Method
+    /**
+     * warmUp Method - Renders the cache for a panel size and a GraphicsConfiguration before the
+     * first frame, so that the first frame only copies it.  It must not be called while a frame is
+     * drawn.
+     * @param gc - the GraphicsConfiguration that the panel will be drawn on, or null
+     * @param panelWidth - the width of the panel
+     * @param panelHeight - the height of the panel
+     */
+    void warmUp(GraphicsConfiguration gc, int panelWidth, int panelHeight) {
+        if (panelWidth <= 0 || panelHeight <= 0)
+            return;
+        width = panelWidth;
+        height = panelHeight;
+        if (gc == null || gc.getDevice().getType() == GraphicsDevice.TYPE_IMAGE_BUFFER) {
+            renderBuffered(gc);
+        } else {
+            if (volatileImage != null)
+                volatileImage.flush();
+            volatileImage = gc.createCompatibleVolatileImage(width, height);
+            volatileImage.validate(gc);
+            Graphics2D g = volatileImage.createGraphics();
+            render(g);
+            g.dispose();
+        }
+    }//end of the warmUp Method
+    /**
+     * drawBuffered Method - Draws the background from a cached BufferedImage.
+     */
+    private void drawBuffered(Graphics2D g2d, GraphicsConfiguration gc) {
+        if (!isBufferedValid())
+            renderBuffered(gc);
+        g2d.drawImage(bufferedImage, 0, 0, null);
+
+    }//end of the drawBuffered Method
+    /**
+     * isBufferedValid Method - Determines whether the cached BufferedImage is the size of the frame.
+     * @return Boolean - Returns true, if it can be drawn; otherwise, it returns false.
+     */
+    private boolean isBufferedValid() {
+        return bufferedImage != null && bufferedImage.getWidth() == width && bufferedImage.getHeight() == height;
+
+    }//end of the isBufferedValid Method
+    /**
+     * renderBuffered Method - Creates the cached BufferedImage and renders the gradient into it.
+     */
+    private void renderBuffered(GraphicsConfiguration gc) {
+        if (bufferedImage != null)
+            bufferedImage.flush();
+        bufferedImage = gc != null ? gc.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = bufferedImage.createGraphics();
+        render(g);
+        g.dispose();
+
+    }//end of the renderBuffered Method
+    /**
+     * drawVolatile Method - Draws the background from a cached VolatileImage, and restores the
+     * image whenever it becomes incompatible with the screen or its contents are lost.
+     */
+    private void drawVolatile(Graphics2D g2d, GraphicsConfiguration gc) {
+        boolean isResized = volatileImage == null || volatileImage.getWidth() != width || volatileImage.getHeight() != height;
+        if (isResized) {
+            if (volatileImage != null)
+                volatileImage.flush();
+            volatileImage = gc.createCompatibleVolatileImage(width, height);
+            isResized = true;
+        }
+        do {
+            int status = volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(width, height);
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED || isResized) {
+                Graphics2D g = volatileImage.createGraphics();
+                render(g);
+                g.dispose();
+                isResized = false;
+            }
+            g2d.drawImage(volatileImage, 0, 0, null);
+        } while (volatileImage.contentsLost());
+
+    }//end of the drawVolatile Method
+    /**
+     * render Method - Fills the cache with the gradient from the sky to the water.
+     * @param g - the Graphics context of the cache
+     */
+    private void render(Graphics2D g) {
+        g.setPaint(new GradientPaint(0, HORIZON_Y, SKY_COLOR, 0, height, WATER_COLOR));
+        g.fillRect(0, 0, width, height);
+
+    }//end of the render Method
+} // end of the BackgroundLayer Class
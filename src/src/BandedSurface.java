@@ -0,0 +1,208 @@
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The BandedSurface Class renders the frame in software on several cores.  The frame is split
+ * into horizontal bands at fixed edges, which for the game are the sky with the clouds and the
+ * sun, the line of the battleship and the waves, and the deep water with the submarines, and each
+ * band is split again into slices of about the same height, so that there is a slice for every
+ * thread of the pool.  Every slice is rendered by a thread of the pool into the same offscreen
+ * BufferedImage, through its own Graphics context that is clipped to the slice, and the image is
+ * then presented with a single blit.  The slices do not overlap, so the threads never write the
+ * same pixel, and the painter must only read shared state while the slices are rendered.
+ */
+final class BandedSurface {
+    //Class Variables
+    /** The most slices that a frame is split into */
+    static final int MAX_SLICES = 64;
+
+    //Instance Variables
+    private final ForkJoinPool pool;
+    private final int[] edges;//The y positions at which one band ends and the next begins
+    private BufferedImage image;
+    private int width, height;
+    /*
+     * The slices are the rows of the image from sliceTop to sliceBottom.  Each has a Graphics
+     * context of the image, which is kept with the image so that a frame does not allocate one,
+     * and a task, which is created once and reinitialized every frame.  The tasks of the slices
+     * of the current layout are the active ones.
+     */
+    private int sliceCount;
+    private final int[] sliceTop = new int[MAX_SLICES];
+    private final int[] sliceBottom = new int[MAX_SLICES];
+    private final Graphics2D[] graphics = new Graphics2D[MAX_SLICES];
+    private final Slice[] slices = new Slice[MAX_SLICES];
+    private Slice[] active;
+    private final Render render = new Render();
+    /** The painter and the clip of the frame that the slices are rendering */
+    private ScaledSurface.Painter painter;
+    private final Rectangle clip = new Rectangle();
+
+    /**
+     * BandedSurface Constructor - Creates a surface that renders its bands on the threads of a pool.
+     * @param pool - the ForkJoinPool that renders the slices
+     * @param edges - the y positions at which the bands are split, in increasing order
+     */
+    BandedSurface(ForkJoinPool pool, int... edges) {
+        if (edges.length + 1 > MAX_SLICES)
+            throw new IllegalArgumentException("There can be at most " + MAX_SLICES + " bands: " + (edges.length + 1));
+        this.pool = pool;
+        this.edges = edges.clone();
+        for (int i = 0; i < MAX_SLICES; i++)
+            slices[i] = new Slice(i);
+
+    }//end of the BandedSurface Constructor
+    /**
+     * layout Method - Creates the image and the slices for a size of the frame, if it has changed.
+     * @param target - the Graphics context that the image is presented on
+     * @param newWidth - the width of the frame
+     * @param newHeight - the height of the frame
+     * @return GraphicsConfiguration - Returns the configuration of the image, which the painter
+     * has to prepare its caches for before the slices are rendered.
+     */
+    GraphicsConfiguration layout(Graphics2D target, int newWidth, int newHeight) {
+        newWidth = Math.max(1, newWidth);
+        newHeight = Math.max(1, newHeight);
+        if (image == null || newWidth != width || newHeight != height) {
+            if (image != null) {
+                for (int i = 0; i < sliceCount; i++)
+                    graphics[i].dispose();
+                image.flush();
+            }
+            width = newWidth;
+            height = newHeight;
+            GraphicsConfiguration gc = target.getDeviceConfiguration();
+            image = gc != null ? gc.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            split();
+            for (int i = 0; i < sliceCount; i++)
+                graphics[i] = image.createGraphics();
+        }
+        return graphics[0].getDeviceConfiguration();
+
+    }//end of the layout Method
+    /**
+     * split Method - Splits every band into slices of about the same height, so that there are
+     * about as many slices as the pool has threads, and at least one slice in every band that is
+     * inside of the frame.
+     */
+    private void split() {
+        int threads = Math.min(MAX_SLICES - edges.length, pool.getParallelism());
+        sliceCount = 0;
+        int top = 0;
+        for (int band = 0; band <= edges.length && top < height; band++) {
+            int bottom = band < edges.length ? Math.min(height, Math.max(top, edges[band])) : height;
+            if (bottom == top)
+                continue;
+            int count = Math.max(1, Math.min(MAX_SLICES - sliceCount - (edges.length - band),
+                    (int)Math.round(threads * (bottom - top) / (double)height)));
+            for (int i = 0; i < count; i++) {
+                sliceTop[sliceCount] = top + (bottom - top) * i / count;
+                sliceBottom[sliceCount] = top + (bottom - top) * (i + 1) / count;
+                sliceCount++;
+            }
+            top = bottom;
+        }
+        active = Arrays.copyOf(slices, sliceCount);
+
+    }//end of the split Method
+    /**
+     * draw Method - Renders the part of the frame under the clip of the target into the image, one
+     * slice on each thread of the pool, and presents it with a single blit.  The layout method must
+     * have been called for the size of the frame.
+     * @param target - the Graphics context that the frame is presented on
+     * @param framePainter - the Painter of the frame, which is called once for every slice
+     */
+    void draw(Graphics2D target, ScaledSurface.Painter framePainter) {
+        clip.setBounds(0, 0, width, height);//This stays, if the target has no clip.
+        target.getClipBounds(clip);
+        int x0 = Math.max(0, clip.x), y0 = Math.max(0, clip.y);
+        int x1 = Math.min(width, clip.x + clip.width), y1 = Math.min(height, clip.y + clip.height);
+        if (x1 <= x0 || y1 <= y0)
+            return;
+        clip.setBounds(x0, y0, x1 - x0, y1 - y0);
+        painter = framePainter;
+        for (Slice slice : active)
+            slice.reinitialize();
+        render.reinitialize();
+        pool.invoke(render);
+        painter = null;
+        target.drawImage(image, x0, y0, x1, y1, x0, y0, x1, y1, null);
+
+    }//end of the draw Method
+    /**
+     * getSliceCount Method - Gets the number of slices that a frame is split into.
+     * @return Int - Returns the number of slices.
+     */
+    int getSliceCount() {return sliceCount;}
+    /**
+     * getParallelism Method - Gets the number of threads that render the slices.
+     * @return Int - Returns the parallelism of the pool.
+     */
+    int getParallelism() {return pool.getParallelism();}
+    /**
+     * toString Method - Describes the slices of the surface.
+     * @return String - Returns the description of the surface.
+     */
+    @Override
+    public String toString() {
+        return "banded, " + sliceCount + " slices on " + pool.getParallelism() + " threads";
+
+    }//end of the toString Method
+    /**
+     * Render Class - This nested class is the RecursiveAction that renders the frame, by invoking
+     * the slice of every band.
+     */
+    private final class Render extends RecursiveAction {
+        //Class Variables
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * compute Method - Invokes the slices and waits for all of them.
+         */
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(active);
+
+        }//end of the compute Method for the Render Class
+    }//end of the Render Class
+    /**
+     * Slice Class - This nested class is the RecursiveAction that renders one slice of the frame.
+     */
+    private final class Slice extends RecursiveAction {
+        //Class Variables
+        private static final long serialVersionUID = 1L;
+
+        //Instance Variables
+        private final int index;
+
+        /**
+         * Slice Constructor - Creates the slice of the given index.
+         * @param index - the index of the slice
+         */
+        Slice(int index) {
+            this.index = index;
+
+        }//end of the Slice Constructor
+        /**
+         * compute Method - Renders the part of the frame that is under both the slice and the clip.
+         */
+        @Override
+        protected void compute() {
+            int top = Math.max(sliceTop[index], clip.y);
+            int bottom = Math.min(sliceBottom[index], clip.y + clip.height);
+            if (bottom <= top)
+                return;
+            Graphics2D g = graphics[index];
+            g.setClip(clip.x, top, clip.width, bottom - top);
+            painter.paint(g, width, height);
+
+        }//end of the compute Method for the Slice Class
+    }//end of the Slice Class
+} // end of the BandedSurface Class
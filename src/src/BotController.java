@@ -0,0 +1,19 @@
+
+package src;
+
+/**
+ * The BotController Interface plays a game in place of the keyboard.  Before each tick, the
+ * BotTournament gives the controller the world and its latest snapshot, and the controller acts
+ * the way a player does: it offers key events to the input of the world, or calls moveBattleship
+ * and dropDepthCharge.  A controller is created for each game, and it is only called by the
+ * thread that plays that game, so it may keep any state, but it must not share any state with
+ * another game, and any randomness must come from a GameRandom of its own.
+ */
+interface BotController {
+    /**
+     * control Method - Acts before the next tick of the world.
+     * @param world - the GameWorld that is played
+     * @param snapshot - the WorldSnapshot of the last tick of the world
+     */
+    void control(GameWorld world, WorldSnapshot snapshot);
+} // end of the BotController Interface
@@ -0,0 +1,427 @@
+
+package src;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * The BotTournament Class plays thousands of complete games headless, each with a BotController in
+ * place of the keyboard, and reports the hit rate, the distribution of getPercentage, and the
+ * number of games played per second.  The games are divided among the threads of a ForkJoinPool
+ * by a RecursiveTask, and every game owns its GameWorld, its GameRandom, and its controller, and
+ * every task counts its results into a Tally of its own that is only merged with another when the
+ * task is joined, so the games share no state and the tournament scales with the cores.  It is
+ * run with "java src.BotTournament [--games N] [--bot tracker|dropper|wanderer] [--barrage]
+ * [--threads N] [--seed S] [--scaling]", and with --scaling it plays the tournament again on 1, 2,
+ * 4, and so on up to the given number of threads, and reports the speedup of each.
+ */
+public final class BotTournament {
+    //Class Variables
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    /** The number of ticks after which a game that is not over is given up */
+    static final int MAX_TICKS = 100_000;
+    /** The number of games that a task plays itself instead of dividing them further */
+    static final int GAMES_PER_TASK = 16;
+
+    //Instance Variables
+    private final Level level;
+    private final Function<GameWorld, BotController> bot;
+    private final String botName;
+
+    /**
+     * BotTournament Constructor - Creates a tournament of a level and a controller.
+     * @param level - the Level of every game
+     * @param botName - the name of the controller, which is only used in the report
+     * @param bot - the Function that creates the controller of each game from its world
+     */
+    BotTournament(Level level, String botName, Function<GameWorld, BotController> bot) {
+        this.level = level;
+        this.botName = botName;
+        this.bot = bot;
+
+    }//end of the BotTournament Constructor
+    /**
+     * run Method - Plays the games of the tournament on a ForkJoinPool.
+     * @param games - the number of games to play
+     * @param seed - the seed of the first game, and each next game has the next seed
+     * @param pool - the ForkJoinPool to play the games on
+     * @return Result - Returns the results of the games.
+     */
+    Result run(int games, long seed, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new Games(seed, 0, games));
+        return new Result(tally, pool.getParallelism(), System.nanoTime() - start);
+
+    }//end of the run Method
+    /**
+     * play Method - Plays one game from its first tick until it is over, or until MAX_TICKS, and
+     * counts it into the tally.
+     * @param seed - the seed of the game
+     * @param tally - the Tally of the task
+     */
+    void play(long seed, Tally tally) {
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, new GameRandom(seed), level);
+        BotController controller = bot.apply(world);
+        SnapshotExchange snapshots = world.getSnapshots();
+        while (!world.isGameOver() && world.getTickCount() < MAX_TICKS) {
+            controller.control(world, snapshots.acquire());
+            world.tick();
+        }
+        tally.add(world);
+
+    }//end of the play Method
+    /**
+     * Games Class - This nested class is the RecursiveTask that plays a range of the games.  It
+     * divides the range in half until it holds at most GAMES_PER_TASK games.
+     */
+    final class Games extends RecursiveTask<Tally> {
+        //Class Variables
+        private static final long serialVersionUID = 1L;
+
+        //Instance Variables
+        private final long seed;
+        private final int from, to;
+
+        /**
+         * Games Constructor - Creates the task of the games from the index from to the index to.
+         * @param seed - the seed of the first game of the tournament
+         * @param from - the index of the first game, inclusive
+         * @param to - the index of the last game, exclusive
+         */
+        Games(long seed, int from, int to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+
+        }//end of the Games Constructor
+        /**
+         * compute Method - Plays the games of the range, or divides them among two tasks.
+         * @return Tally - Returns the results of the games of the range.
+         */
+        @Override
+        protected Tally compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Tally tally = new Tally();
+                for (int i = from; i < to; i++)
+                    play(seed + i, tally);
+                return tally;
+            }
+            int middle = (from + to) >>> 1;
+            Games left = new Games(seed, from, middle);
+            left.fork();
+            Tally tally = new Games(seed, middle, to).compute();
+            tally.merge(left.join());
+            return tally;
+
+        }//end of the compute Method
+    }//end of the nested class Games
+    /**
+     * Tally Class - This nested class counts the results of the games of a task.  The distribution
+     * of getPercentage is counted in buckets of one percent.
+     */
+    static final class Tally {
+        //Instance Variables
+        long games;
+        long unfinishedGames;//The games that were not over after MAX_TICKS
+        long hits, misses;
+        long ticks;
+        final long[] percentageCounts = new long[101];
+
+        /**
+         * add Method - Counts a game that has been played.
+         * @param world - the GameWorld of the game
+         */
+        void add(GameWorld world) {
+            games++;
+            ticks += world.getTickCount();
+            if (!world.isGameOver()) {
+                unfinishedGames++;
+                return;
+            }
+            hits += world.getScore();
+            misses += world.getMisses();
+            percentageCounts[(int)Math.floor(world.getPercentage() * 100 + 1e-9)]++;
+
+        }//end of the add Method
+        /**
+         * merge Method - Adds the results of another tally to this one.
+         * @param other - the Tally to add
+         */
+        void merge(Tally other) {
+            games += other.games;
+            unfinishedGames += other.unfinishedGames;
+            hits += other.hits;
+            misses += other.misses;
+            ticks += other.ticks;
+            for (int i = 0; i < percentageCounts.length; i++)
+                percentageCounts[i] += other.percentageCounts[i];
+
+        }//end of the merge Method
+    }//end of the nested class Tally
+    /**
+     * Result Class - This nested class holds the results of a tournament, and reports them.
+     */
+    final class Result {
+        //Instance Variables
+        final Tally tally;
+        final int parallelism;
+        final long elapsedNanos;
+
+        /**
+         * Result Constructor - Creates the result of a tournament.
+         * @param tally - the Tally of every game
+         * @param parallelism - the number of threads that played the games
+         * @param elapsedNanos - the time the tournament took
+         */
+        Result(Tally tally, int parallelism, long elapsedNanos) {
+            this.tally = tally;
+            this.parallelism = parallelism;
+            this.elapsedNanos = elapsedNanos;
+
+        }//end of the Result Constructor
+        /**
+         * getHitRate Method - Gets the fraction of the depth charges of the finished games that hit.
+         * @return double - Returns the hit rate, from 0 to 1.
+         */
+        double getHitRate() {
+            long charges = tally.hits + tally.misses;
+            return charges == 0 ? 0 : tally.hits / (double)charges;
+
+        }//end of the getHitRate Method
+        /**
+         * getPercentile Method - Gets the getPercentage that the given fraction of the finished
+         * games did not exceed, to one percent.
+         * @param fraction - the fraction of the games, from 0 to 1
+         * @return Int - Returns the percentage, from 0 to 100, or -1 if no game was finished.
+         */
+        int getPercentile(double fraction) {
+            long finished = tally.games - tally.unfinishedGames;
+            long rank = Math.max(1, (long)Math.ceil(fraction * finished));
+            long seen = 0;
+            for (int i = 0; i < tally.percentageCounts.length; i++) {
+                seen += tally.percentageCounts[i];
+                if (seen >= rank)
+                    return i;
+            }
+            return -1;
+
+        }//end of the getPercentile Method
+        /**
+         * getGamesPerSecond Method - Gets the number of games that were played per second.
+         * @return double - Returns the games per second.
+         */
+        double getGamesPerSecond() {return tally.games * 1e9 / elapsedNanos;}
+        /**
+         * toString Method - Reports the results, with the distribution of getPercentage in ten
+         * buckets of ten percent, and a last one for a perfect game.
+         * @return String - Returns the report.
+         */
+        @Override
+        public String toString() {
+            long finished = tally.games - tally.unfinishedGames;
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%s on %s: %d games (%d unfinished) on %d threads in %.2f s, %.0f games/s, %.0f ticks/s%n",
+                    botName, level.getName(), tally.games, tally.unfinishedGames, parallelism, elapsedNanos / 1e9,
+                    getGamesPerSecond(), tally.ticks * 1e9 / elapsedNanos));
+            report.append(String.format("hit rate %.2f%%, percentage p10 %d%%, p50 %d%%, p90 %d%%%n", getHitRate() * 100,
+                    getPercentile(0.1), getPercentile(0.5), getPercentile(0.9)));
+            for (int bucket = 0; bucket <= 10; bucket++) {
+                long count = 0;
+                for (int i = bucket * 10; i < Math.min(bucket * 10 + 10, 101); i++)
+                    count += tally.percentageCounts[i];
+                double share = finished == 0 ? 0 : count / (double)finished;
+                report.append(String.format(bucket == 10 ? "     100%%" : "%3d-%3d%%", bucket * 10, bucket * 10 + 9))
+                        .append(String.format(" %6.2f%% ", share * 100));
+                for (int i = 0; i < (int)Math.round(share * 50); i++)
+                    report.append('#');
+                report.append(String.format("%n"));
+            }
+            return report.toString();
+
+        }//end of the toString Method
+    }//end of the nested class Result
+    /**
+     * Tracker Class - This nested class is a controller that holds the key toward the point where
+     * the nearest submarine will be when a depth charge dropped now reaches it, and drops the depth
+     * charge when the battleship is over that point.  The speed of each submarine is estimated from
+     * its position in the last tick.
+     */
+    static final class Tracker implements BotController {
+        //Class Variables
+        static final int TOLERANCE = 60;//the pixels from the point at which a depth charge is dropped
+
+        //Instance Variables
+        private final int[] previousX;
+        private int heldKey = -1;
+
+        /**
+         * Tracker Constructor - Creates the controller of a game.
+         * @param world - the GameWorld of the game
+         */
+        Tracker(GameWorld world) {
+            previousX = new int[world.getLevel().getNumberOfSubmarines()];
+
+        }//end of the Tracker Constructor
+        /**
+         * reset Method - Forgets the submarines and the key of the last game, so that the controller
+         * can play a new game of the same level.
+         */
+        void reset() {
+            Arrays.fill(previousX, 0);
+            heldKey = -1;
+
+        }//end of the reset Method
+        /**
+         * control Method - Steers the battleship toward the nearest submarine, and drops the depth
+         * charge when it is over the submarine.
+         * @param world - the GameWorld that is played
+         * @param snapshot - the WorldSnapshot of the last tick of the world
+         */
+        @Override
+        public void control(GameWorld world, WorldSnapshot snapshot) {
+            int target = Integer.MAX_VALUE;
+            for (int i = 0; i < snapshot.submarineCount; i++) {
+                int x = snapshot.submarineX[i];
+                int velocity = x - previousX[i];
+                previousX[i] = x;
+                if (snapshot.isSubmarineExploding[i] || Math.abs(velocity) > GameWorld.SubmarinePool.speed)
+                    continue;//A submarine that is exploding or was just placed cannot be aimed at.
+                int ticks = (snapshot.submarineY[i] - snapshot.attachedChargeY) / world.getLevel().getChargeSpeed();
+                int predicted = x + velocity * ticks;
+                if (Math.abs(predicted - snapshot.battleshipX) < Math.abs(target - snapshot.battleshipX))
+                    target = predicted;
+            }
+            int key = -1;
+            if (target != Integer.MAX_VALUE && Math.abs(target - snapshot.battleshipX) > GameWorld.Battleship.speed)
+                key = target < snapshot.battleshipX ? InputRing.LEFT : InputRing.RIGHT;
+            InputRing input = world.getInput();
+            if (key != heldKey) {
+                if (heldKey >= 0)
+                    input.offer(heldKey | InputRing.RELEASED, 0);
+                if (key >= 0)
+                    input.offer(key, 0);
+                heldKey = key;
+            }
+            if (snapshot.isDepthChargeAttached && Math.abs(target - snapshot.attachedChargeX) < TOLERANCE) {
+                input.offer(InputRing.DROP, 0);
+                input.offer(InputRing.DROP | InputRing.RELEASED, 0);
+            }
+        }//end of the control Method
+    }//end of the nested class Tracker
+    /**
+     * Dropper Class - This nested class is a controller that never moves, and drops a depth charge
+     * every INTERVAL ticks, which is the baseline of blind luck.
+     */
+    static final class Dropper implements BotController {
+        //Class Variables
+        static final int INTERVAL = 40;
+
+        /**
+         * control Method - Drops a depth charge every INTERVAL ticks.
+         * @param world - the GameWorld that is played
+         * @param snapshot - the WorldSnapshot of the last tick of the world
+         */
+        @Override
+        public void control(GameWorld world, WorldSnapshot snapshot) {
+            if (snapshot.tickCount % INTERVAL == 0)
+                world.dropDepthCharge();
+
+        }//end of the control Method
+    }//end of the nested class Dropper
+    /**
+     * Wanderer Class - This nested class is a controller that moves the battleship in a random
+     * direction for a random number of ticks, and drops depth charges at random, like a player who
+     * does not look at the submarines.  Its GameRandom is seeded from the seed of the world.
+     */
+    static final class Wanderer implements BotController {
+        //Instance Variables
+        private final GameRandom random;
+        private int direction;
+        private int ticksLeft;
+
+        /**
+         * Wanderer Constructor - Creates the controller of a game.
+         * @param world - the GameWorld of the game
+         */
+        Wanderer(GameWorld world) {
+            random = new GameRandom(~world.getSeed());
+
+        }//end of the Wanderer Constructor
+        /**
+         * control Method - Moves the battleship, and drops a depth charge in one tick out of 20.
+         * @param world - the GameWorld that is played
+         * @param snapshot - the WorldSnapshot of the last tick of the world
+         */
+        @Override
+        public void control(GameWorld world, WorldSnapshot snapshot) {
+            if (ticksLeft-- <= 0) {
+                direction = (int)(random.nextDouble() * 3) - 1;
+                ticksLeft = 10 + (int)(random.nextDouble() * 50);
+            }
+            if (direction != 0)
+                world.moveBattleship(direction * GameWorld.Battleship.speed);
+            if (random.nextDouble() < 0.05)
+                world.dropDepthCharge();
+
+        }//end of the control Method
+    }//end of the nested class Wanderer
+    /**
+     * getBot Method - Gets the controller of the given name.
+     * @param name - tracker, dropper, or wanderer
+     * @return Function - Returns the Function that creates the controller of a game.
+     */
+    static Function<GameWorld, BotController> getBot(String name) {
+        switch (name) {
+            case "tracker":
+                return Tracker::new;
+            case "dropper":
+                return world -> new Dropper();
+            case "wanderer":
+                return Wanderer::new;
+            default:
+                throw new IllegalArgumentException("Unknown bot " + name + ", use tracker, dropper, or wanderer");
+        }
+    }//end of the getBot Method
+    /**
+     * main Method - Plays a tournament and reports its results.
+     * @param args - String[] representing the command line arguments
+     */
+    public static void main(String[] args) {
+        int games = 10_000;
+        String botName = "tracker";
+        Level level = Level.CLASSIC;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        boolean isScaling = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--games".equals(args[i]) && i + 1 < args.length)
+                games = Integer.parseInt(args[++i]);
+            else if ("--bot".equals(args[i]) && i + 1 < args.length)
+                botName = args[++i];
+            else if ("--barrage".equals(args[i]))
+                level = Level.BARRAGE;
+            else if ("--threads".equals(args[i]) && i + 1 < args.length)
+                threads = Integer.parseInt(args[++i]);
+            else if ("--seed".equals(args[i]) && i + 1 < args.length)
+                seed = Long.parseLong(args[++i]);
+            else if ("--scaling".equals(args[i]))
+                isScaling = true;
+        }
+        BotTournament tournament = new BotTournament(level, botName, getBot(botName));
+        tournament.run(Math.max(1, games / 10), seed, ForkJoinPool.commonPool());//Warms up the code of a game.
+        double oneThreadGamesPerSecond = 0;
+        for (int t = isScaling ? 1 : threads; t <= threads; t = t < threads ? Math.min(t * 2, threads) : t + 1) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            Result result = tournament.run(games, seed, pool);
+            pool.shutdown();
+            System.out.print(result);
+            if (t == 1)
+                oneThreadGamesPerSecond = result.getGamesPerSecond();
+            else if (oneThreadGamesPerSecond > 0)
+                System.out.println(String.format("speedup %.2fx on %d threads", result.getGamesPerSecond() / oneThreadGamesPerSecond, t));
+        }
+    }//end of the main Method
+} // end of the BotTournament Class
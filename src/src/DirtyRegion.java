@@ -0,0 +1,183 @@
+
+package src;
+
+/**
+ * The DirtyRegion Class collects the rectangles of the panel that have to be painted again.  A
+ * rectangle that is added is merged with a rectangle that it overlaps, when their union does not
+ * cover much more than the two of them, so that the region stays a short list of rectangles that
+ * are each painted once.  When the list is full, a new rectangle is merged with the rectangle
+ * that grows the least.  The rectangles are kept in primitive arrays of a fixed capacity, so a
+ * region is reused every frame without allocating.
+ */
+final class DirtyRegion {
+    //Instance Variables
+    private final int[] left, top, right, bottom;
+    private int count;
+
+    /**
+     * DirtyRegion Constructor - Creates an empty region.
+     * @param capacity - the largest number of rectangles of the region
+     */
+    DirtyRegion(int capacity) {
+        left = new int[capacity];
+        top = new int[capacity];
+        right = new int[capacity];
+        bottom = new int[capacity];
+
+    }//end of the DirtyRegion Constructor
+    /**
+     * clear Method - Removes every rectangle of the region.
+     */
+    void clear() {
+        count = 0;
+
+    }//end of the clear Method
+    /**
+     * add Method - Adds a rectangle to the region.  An empty rectangle is ignored.
+     * @param x - the x position of the rectangle
+     * @param y - the y position of the rectangle
+     * @param width - the width of the rectangle
+     * @param height - the height of the rectangle
+     */
+    void add(int x, int y, int width, int height) {
+        if (width > 0 && height > 0)
+            addEdges(x, y, x + width, y + height);
+
+    }//end of the add Method
+    /**
+     * addAll Method - Adds every rectangle of another region to this region.
+     * @param other - the DirtyRegion to add
+     */
+    void addAll(DirtyRegion other) {
+        for (int i = 0; i < other.count; i++)
+            addEdges(other.left[i], other.top[i], other.right[i], other.bottom[i]);
+
+    }//end of the addAll Method
+    /**
+     * addEdges Method - Adds a rectangle by its edges, merging it with the rectangles it overlaps
+     * for as long as merging is worth it.
+     */
+    private void addEdges(int x0, int y0, int x1, int y1) {
+        boolean isMerged = true;
+        while (isMerged) {
+            isMerged = false;
+            for (int i = 0; i < count; i++) {
+                if (x0 <= right[i] && left[i] <= x1 && y0 <= bottom[i] && top[i] <= y1
+                        && unionArea(i, x0, y0, x1, y1) <= area(x0, y0, x1, y1) + area(i)) {
+                    x0 = Math.min(x0, left[i]);
+                    y0 = Math.min(y0, top[i]);
+                    x1 = Math.max(x1, right[i]);
+                    y1 = Math.max(y1, bottom[i]);
+                    remove(i);
+                    isMerged = true;
+                    break;
+                }
+            }
+        }
+        if (count == left.length) {
+            //The region is full, so the rectangle is merged into the one that grows the least.
+            int best = 0;
+            long bestGrowth = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                long growth = unionArea(i, x0, y0, x1, y1) - area(i);
+                if (growth < bestGrowth) {
+                    bestGrowth = growth;
+                    best = i;
+                }
+            }
+            x0 = Math.min(x0, left[best]);
+            y0 = Math.min(y0, top[best]);
+            x1 = Math.max(x1, right[best]);
+            y1 = Math.max(y1, bottom[best]);
+            remove(best);
+            addEdges(x0, y0, x1, y1);
+            return;
+        }
+        left[count] = x0;
+        top[count] = y0;
+        right[count] = x1;
+        bottom[count] = y1;
+        count++;
+
+    }//end of the addEdges Method
+    /**
+     * remove Method - Removes a rectangle by moving the last rectangle into its place.
+     */
+    private void remove(int i) {
+        count--;
+        left[i] = left[count];
+        top[i] = top[count];
+        right[i] = right[count];
+        bottom[i] = bottom[count];
+
+    }//end of the remove Method
+    /**
+     * area Method - Gets the area of a rectangle of the region.
+     */
+    private long area(int i) {
+        return area(left[i], top[i], right[i], bottom[i]);
+
+    }//end of the area Method
+    /**
+     * area Method - Gets the area of a rectangle by its edges.
+     */
+    private static long area(int x0, int y0, int x1, int y1) {
+        return (long)(x1 - x0) * (y1 - y0);
+
+    }//end of the area Method
+    /**
+     * unionArea Method - Gets the area of the union of a rectangle of the region and a rectangle
+     * by its edges.
+     */
+    private long unionArea(int i, int x0, int y0, int x1, int y1) {
+        return area(Math.min(x0, left[i]), Math.min(y0, top[i]), Math.max(x1, right[i]), Math.max(y1, bottom[i]));
+
+    }//end of the unionArea Method
+    /**
+     * getArea Method - Gets the number of pixels of the region, clipped to a surface.  Pixels in
+     * which rectangles overlap are counted once for each rectangle, as they are painted that often.
+     * @param width - the width of the surface
+     * @param height - the height of the surface
+     * @return long - Returns the number of pixels.
+     */
+    long getArea(int width, int height) {
+        long area = 0;
+        for (int i = 0; i < count; i++) {
+            int x0 = Math.max(0, left[i]), y0 = Math.max(0, top[i]);
+            int x1 = Math.min(width, right[i]), y1 = Math.min(height, bottom[i]);
+            if (x1 > x0 && y1 > y0)
+                area += area(x0, y0, x1, y1);
+        }
+        return area;
+
+    }//end of the getArea Method
+    /**
+     * getCount Method - Gets the number of rectangles of the region.
+     * @return Int - Returns the number of rectangles.
+     */
+    int getCount() {return count;}
+    /**
+     * getX Method - Gets the x position of a rectangle of the region.
+     * @param i - the index of the rectangle
+     * @return Int - Returns the x position.
+     */
+    int getX(int i) {return left[i];}
+    /**
+     * getY Method - Gets the y position of a rectangle of the region.
+     * @param i - the index of the rectangle
+     * @return Int - Returns the y position.
+     */
+    int getY(int i) {return top[i];}
+    /**
+     * getWidth Method - Gets the width of a rectangle of the region.
+     * @param i - the index of the rectangle
+     * @return Int - Returns the width.
+     */
+    int getWidth(int i) {return right[i] - left[i];}
+    /**
+     * getHeight Method - Gets the height of a rectangle of the region.
+     * @param i - the index of the rectangle
+     * @return Int - Returns the height.
+     */
+    int getHeight(int i) {return bottom[i] - top[i];}
+} // end of the DirtyRegion Class
@@ -0,0 +1,347 @@
+package src;
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The DisplayList Class is the retained list of what a frame draws.  The entities record their
+ * commands into it once per frame, and it is then replayed against a Graphics2D, once for the
+ * frame, or once for every slice of a BandedSurface, since replaying only reads it.  The scene is
+ * the blits of the cached images of the sprites and the particles, which are replayed in the order
+ * they were recorded, because they overlap.  The overlay is the text over the scene, which does not
+ * overlap, so it is sorted by its state, the font and the color, which are set once for every state
+ * that is drawn instead of once for every text.  Commands outside of the clip are not recorded,
+ * and the commands outside of the clip of the replay are skipped.  The arrays of the list are
+ * reused every frame, and only grow when a frame has more commands than any frame before it.  The
+ * list can be written as text, one command to a line, which names the sprites instead of holding
+ * their pixels, so that frames can be compared with golden lists without a display.
+ */
+final class DisplayList {
+    //Class Variables
+    private static final FrameStats.Phase[] PHASES = FrameStats.Phase.values();
+    /** The phase of the commands that are not timed */
+    static final int NO_PHASE = -1;
+    private static final byte IMAGE = 0;
+    private static final byte REGION = 1;
+
+    //Instance Variables
+    /*
+     * The scene is the commands that blit the rectangle from x0, y0 to x1, y1 of the frame from
+     * their image, at the same position of the image for a region, or from its upper left corner
+     * for an image.  The name is that of the sprite, and the phase is the ordinal of the Phase that
+     * the blit is timed as.
+     */
+    private int sceneCount;
+    private byte[] kind;
+    private Image[] image;
+    private String[] name;
+    private int[] x0, y0, x1, y1;
+    private byte[] phase;
+    /*
+     * The overlay is the text that is drawn at textX, textY in the state of the index, if the
+     * bounds from boundsX, boundsY of boundsWidth by boundsHeight are in the clip.  The states are
+     * the pairs of a font and a color that the texts were recorded with.
+     */
+    private int textCount;
+    private String[] text;
+    private int[] textX, textY, boundsX, boundsY, boundsWidth, boundsHeight;
+    private int[] state;
+    private int stateCount;
+    private Font[] stateFont;
+    private Color[] stateColor;
+    /** The clip that is recorded, and the phase that new blits are timed as */
+    private final Rectangle clip = new Rectangle();
+    private int currentPhase = NO_PHASE;
+
+    /**
+     * DisplayList Constructor - Creates a list with room for a number of blits and texts.
+     * @param capacity - the number of blits and of texts that fit before the list grows
+     */
+    DisplayList(int capacity) {
+        capacity = Math.max(1, capacity);
+        kind = new byte[capacity];
+        image = new Image[capacity];
+        name = new String[capacity];
+        x0 = new int[capacity];
+        y0 = new int[capacity];
+        x1 = new int[capacity];
+        y1 = new int[capacity];
+        phase = new byte[capacity];
+        text = new String[capacity];
+        textX = new int[capacity];
+        textY = new int[capacity];
+        boundsX = new int[capacity];
+        boundsY = new int[capacity];
+        boundsWidth = new int[capacity];
+        boundsHeight = new int[capacity];
+        state = new int[capacity];
+        stateFont = new Font[4];
+        stateColor = new Color[4];
+
+    }//end of the DisplayList Constructor
+    /**
+     * begin Method - Empties the list to record a frame under the clip of a Graphics context.
+     * @param g2d - the Graphics context whose clip is recorded, which is the whole frame when it
+     * has no clip
+     */
+    void begin(Graphics2D g2d) {
+        clip.setBounds(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        g2d.getClipBounds(clip);
+        clear();
+
+    }//end of the begin Method
+    /**
+     * begin Method - Empties the list to record a whole frame, which can then be replayed under any
+     * clip inside of it.
+     * @param width - the width of the frame
+     * @param height - the height of the frame
+     */
+    void begin(int width, int height) {
+        clip.setBounds(0, 0, width, height);
+        clear();
+
+    }//end of the begin Method
+    /**
+     * clear Method - Removes the commands and the states of the list.
+     */
+    private void clear() {
+        Arrays.fill(image, 0, sceneCount, null);
+        sceneCount = 0;
+        textCount = 0;
+        Arrays.fill(stateFont, 0, stateCount, null);
+        Arrays.fill(stateColor, 0, stateCount, null);
+        stateCount = 0;
+        currentPhase = NO_PHASE;
+
+    }//end of the clear Method
+    /**
+     * setPhase Method - Sets the Phase that the blits recorded from now on are timed as.
+     * @param newPhase - the Phase, or null if the blits are not timed
+     */
+    void setPhase(FrameStats.Phase newPhase) {currentPhase = newPhase == null ? NO_PHASE : newPhase.ordinal();}
+    /**
+     * hitClip Method - Determines whether a rectangle is in the clip that is recorded.
+     * @param x - the x position of the rectangle
+     * @param y - the y position of the rectangle
+     * @param width - the width of the rectangle
+     * @param height - the height of the rectangle
+     * @return Boolean - Returns true, if the rectangle intersects the clip; otherwise, it returns false.
+     */
+    boolean hitClip(int x, int y, int width, int height) {
+        return width > 0 && height > 0 && x < clip.x + clip.width && x + width > clip.x
+                && y < clip.y + clip.height && y + height > clip.y;
+
+    }//end of the hitClip Method
+    /**
+     * isWhole Method - Determines whether the clip that is recorded covers a whole frame, so that
+     * the list draws every part of it.
+     * @param width - the width of the frame
+     * @param height - the height of the frame
+     * @return Boolean - Returns true, if the clip covers the frame; otherwise, it returns false.
+     */
+    boolean isWhole(int width, int height) {return clip.contains(0, 0, width, height);}
+    /**
+     * image Method - Records the blit of a whole image, unless it is outside of the clip.
+     * @param newImage - the Image
+     * @param imageName - the name of the image, which is written instead of its pixels
+     * @param x - the x position of the upper left corner of the image
+     * @param y - the y position of the upper left corner of the image
+     * @param width - the width of the image
+     * @param height - the height of the image
+     */
+    void image(Image newImage, String imageName, int x, int y, int width, int height) {
+        blit(IMAGE, newImage, imageName, x, y, x + width, y + height);
+
+    }//end of the image Method
+    /**
+     * region Method - Records the blit of a rectangle of an image of the size of the frame onto the
+     * same rectangle of the frame, unless it is outside of the clip.
+     * @param newImage - the Image
+     * @param imageName - the name of the image, which is written instead of its pixels
+     * @param left - the x position of the left edge of the rectangle
+     * @param top - the y position of the top edge of the rectangle
+     * @param right - the x position of the right edge of the rectangle
+     * @param bottom - the y position of the bottom edge of the rectangle
+     */
+    void region(Image newImage, String imageName, int left, int top, int right, int bottom) {
+        blit(REGION, newImage, imageName, left, top, right, bottom);
+
+    }//end of the region Method
+    /**
+     * blit Method - Records a blit of the scene, unless it is outside of the clip.
+     */
+    private void blit(byte newKind, Image newImage, String imageName, int left, int top, int right, int bottom) {
+        if (!hitClip(left, top, right - left, bottom - top))
+            return;
+        if (sceneCount == kind.length)
+            growScene();
+        kind[sceneCount] = newKind;
+        image[sceneCount] = newImage;
+        name[sceneCount] = imageName;
+        x0[sceneCount] = left;
+        y0[sceneCount] = top;
+        x1[sceneCount] = right;
+        y1[sceneCount] = bottom;
+        phase[sceneCount] = (byte)currentPhase;
+        sceneCount++;
+
+    }//end of the blit Method
+    /**
+     * text Method - Records a text of the overlay, unless its bounds are outside of the clip.
+     * @param newText - the String to draw
+     * @param x - the x position of the baseline of the text
+     * @param y - the y position of the baseline of the text
+     * @param font - the Font of the text
+     * @param color - the Color of the text
+     * @param bounds - the Rectangle that the text is drawn in
+     */
+    void text(String newText, int x, int y, Font font, Color color, Rectangle bounds) {
+        if (!hitClip(bounds.x, bounds.y, bounds.width, bounds.height))
+            return;
+        if (textCount == text.length)
+            growOverlay();
+        text[textCount] = newText;
+        textX[textCount] = x;
+        textY[textCount] = y;
+        boundsX[textCount] = bounds.x;
+        boundsY[textCount] = bounds.y;
+        boundsWidth[textCount] = bounds.width;
+        boundsHeight[textCount] = bounds.height;
+        state[textCount] = getState(font, color);
+        textCount++;
+
+    }//end of the text Method
+    /**
+     * getState Method - Gets the index of the state of a font and a color, and adds it if it is new.
+     * @return Int - Returns the index of the state.
+     */
+    private int getState(Font font, Color color) {
+        for (int i = 0; i < stateCount; i++)
+            if (stateFont[i] == font && stateColor[i] == color)
+                return i;
+        if (stateCount == stateFont.length) {
+            stateFont = Arrays.copyOf(stateFont, stateCount * 2);
+            stateColor = Arrays.copyOf(stateColor, stateCount * 2);
+        }
+        stateFont[stateCount] = font;
+        stateColor[stateCount] = color;
+        return stateCount++;
+
+    }//end of the getState Method
+    /**
+     * replay Method - Draws the list into a Graphics context: the scene in the order it was
+     * recorded, and then the overlay, one state at a time.  It only reads the list, so several
+     * threads can replay it at once.  When it is timed, each run of blits is recorded as its Phase,
+     * and the overlay as the SCORE.
+     * @param g2d - the Graphics context
+     * @param stats - the FrameStats that the replay is timed into, or null if it is not timed
+     */
+    void replay(Graphics2D g2d, FrameStats stats) {
+        long time = stats != null ? System.nanoTime() : 0;
+        int timedPhase = NO_PHASE;
+        for (int i = 0; i < sceneCount; i++) {
+            if (stats != null && phase[i] != timedPhase) {
+                time = timedPhase != NO_PHASE ? stats.record(PHASES[timedPhase], time) : System.nanoTime();
+                timedPhase = phase[i];
+            }
+            int width = x1[i] - x0[i], height = y1[i] - y0[i];
+            if (!g2d.hitClip(x0[i], y0[i], width, height))
+                continue;
+            if (kind[i] == IMAGE)
+                g2d.drawImage(image[i], x0[i], y0[i], null);
+            else
+                g2d.drawImage(image[i], x0[i], y0[i], x1[i], y1[i], x0[i], y0[i], x1[i], y1[i], null);
+        }
+        if (stats != null)
+            time = timedPhase != NO_PHASE ? stats.record(PHASES[timedPhase], time) : System.nanoTime();
+        for (int s = 0; s < stateCount; s++) {
+            boolean isStateSet = false;
+            for (int i = 0; i < textCount; i++) {
+                if (state[i] != s || !g2d.hitClip(boundsX[i], boundsY[i], boundsWidth[i], boundsHeight[i]))
+                    continue;
+                if (!isStateSet) {
+                    g2d.setFont(stateFont[s]);
+                    g2d.setColor(stateColor[s]);
+                    isStateSet = true;
+                }
+                g2d.drawString(text[i], textX[i], textY[i]);
+            }
+        }
+        if (stats != null)
+            stats.record(FrameStats.Phase.SCORE, time);
+
+    }//end of the replay Method
+    /**
+     * writeTo Method - Writes the list as text in the order that it is replayed, one command to a
+     * line: each blit with the name of its image, its rectangle, and its phase, each state with
+     * its font and color, and each text of the state with its position.
+     * @param out - the Appendable to write to
+     * @throws IOException - if the Appendable cannot be written
+     */
+    void writeTo(Appendable out) throws IOException {
+        for (int i = 0; i < sceneCount; i++) {
+            out.append(kind[i] == IMAGE ? "image " : "region ").append(name[i]);
+            out.append(' ').append(Integer.toString(x0[i])).append(' ').append(Integer.toString(y0[i]));
+            out.append(' ').append(Integer.toString(x1[i])).append(' ').append(Integer.toString(y1[i]));
+            out.append(' ').append(phase[i] == NO_PHASE ? "-" : PHASES[phase[i]].name()).append('\n');
+        }
+        for (int s = 0; s < stateCount; s++) {
+            out.append("state ").append(stateFont[s].getName()).append(' ').append(Integer.toString(stateFont[s].getStyle()));
+            out.append(' ').append(Integer.toString(stateFont[s].getSize()));
+            out.append(String.format(" #%06x", stateColor[s].getRGB() & 0xFFFFFF)).append('\n');
+            for (int i = 0; i < textCount; i++) {
+                if (state[i] == s) {
+                    out.append("text ").append(Integer.toString(textX[i])).append(' ').append(Integer.toString(textY[i]));
+                    out.append(' ').append(text[i]).append('\n');
+                }
+            }
+        }
+    }//end of the writeTo Method
+    /**
+     * getSceneCount Method - Gets the number of blits of the scene.
+     * @return Int - Returns the number of blits.
+     */
+    int getSceneCount() {return sceneCount;}
+    /**
+     * getTextCount Method - Gets the number of texts of the overlay.
+     * @return Int - Returns the number of texts.
+     */
+    int getTextCount() {return textCount;}
+    /**
+     * getStateCount Method - Gets the number of states of the overlay, which is the number of
+     * times that the font and the color are set when the whole list is replayed.
+     * @return Int - Returns the number of states.
+     */
+    int getStateCount() {return stateCount;}
+    /**
+     * growScene Method - Doubles the room for the blits of the scene.
+     */
+    private void growScene() {
+        int capacity = kind.length * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        image = Arrays.copyOf(image, capacity);
+        name = Arrays.copyOf(name, capacity);
+        x0 = Arrays.copyOf(x0, capacity);
+        y0 = Arrays.copyOf(y0, capacity);
+        x1 = Arrays.copyOf(x1, capacity);
+        y1 = Arrays.copyOf(y1, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+
+    }//end of the growScene Method
+    /**
+     * growOverlay Method - Doubles the room for the texts of the overlay.
+     */
+    private void growOverlay() {
+        int capacity = text.length * 2;
+        text = Arrays.copyOf(text, capacity);
+        textX = Arrays.copyOf(textX, capacity);
+        textY = Arrays.copyOf(textY, capacity);
+        boundsX = Arrays.copyOf(boundsX, capacity);
+        boundsY = Arrays.copyOf(boundsY, capacity);
+        boundsWidth = Arrays.copyOf(boundsWidth, capacity);
+        boundsHeight = Arrays.copyOf(boundsHeight, capacity);
+        state = Arrays.copyOf(state, capacity);
+
+    }//end of the growOverlay Method
+} // end of the DisplayList Class
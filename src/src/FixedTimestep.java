@@ -0,0 +1,72 @@
+package src;
+
+/**
+ * The FixedTimestep Class decouples the ticks of the world from the frames that are drawn.  The
+ * time that has passed since the last frame, measured with System.nanoTime, is added to an
+ * accumulator, and a tick is run for every TICK_NANOS in it, so the world runs at 40 ticks per
+ * second whether the frames are drawn at 30, 60, or 144 frames per second, or late under load.
+ * What is left in the accumulator is the fraction of the next tick that has passed, which is the
+ * alpha that a frame is interpolated at between the last two ticks.  After a stall of more than
+ * MAX_TICKS_PER_FRAME ticks, the ticks that are left over are dropped rather than run all at once.
+ */
+final class FixedTimestep {
+    //Class Variables
+    /** The world is updated every 25 milliseconds, the rate that the game was designed for */
+    static final long TICK_NANOS = 25_000_000L;
+    /** At most this many ticks are run to catch up before a frame is drawn */
+    static final int MAX_TICKS_PER_FRAME = 5;
+
+    //Instance Variables
+    private long lastNanos;
+    private boolean isStarted;
+    private long accumulator;
+    private long droppedTicks;
+
+    /**
+     * advance Method - Adds the time since the last call to the accumulator, and takes the ticks
+     * that are due out of it.  The first call after a reset only starts the clock.
+     * @param now - the current time in nanoseconds
+     * @return Int - Returns the number of ticks to run, which is at most MAX_TICKS_PER_FRAME.
+     */
+    int advance(long now) {
+        if (!isStarted) {
+            isStarted = true;
+            lastNanos = now;
+            return 0;
+        }
+        accumulator += Math.max(0, now - lastNanos);
+        lastNanos = now;
+        int ticks = 0;
+        while (accumulator >= TICK_NANOS && ticks < MAX_TICKS_PER_FRAME) {
+            accumulator -= TICK_NANOS;
+            ticks++;
+        }
+        if (accumulator >= TICK_NANOS) {
+            //The loop has fallen too far behind, so the skipped ticks are dropped.
+            droppedTicks += accumulator / TICK_NANOS;
+            accumulator %= TICK_NANOS;
+        }
+        return ticks;
+
+    }//end of the advance Method
+    /**
+     * getAlpha Method - Gets the fraction of the next tick that has passed, at which a frame is
+     * interpolated between the last two ticks.
+     * @return Double - Returns the fraction, from 0 inclusive to 1 exclusive.
+     */
+    double getAlpha() {return accumulator / (double)TICK_NANOS;}
+    /**
+     * reset Method - Forgets the time that has passed, so that a pause is not caught up on when
+     * the ticks start again.
+     */
+    void reset() {
+        isStarted = false;
+        accumulator = 0;
+
+    }//end of the reset Method
+    /**
+     * getDroppedTicks Method - Gets the number of ticks that were dropped after a stall.
+     * @return long - Returns the number of dropped ticks.
+     */
+    long getDroppedTicks() {return droppedTicks;}
+} // end of the FixedTimestep Class
@@ -0,0 +1,328 @@
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * The FrameCapture Class records the frames of the game to files without making the thread that
+ * draws them wait for the encoding.  A frame is drawn into a BufferedImage from a pool of
+ * reusable images, and handed to an encoder thread through a bounded queue.  The encoder writes
+ * every frame as a PNG file of a sequence, or appends its pixels to a raw video stream of 24-bit
+ * RGB, and then gives the image back to the pool.  When the encoder falls behind, every image is
+ * in the queue, and a new frame is dropped and counted, or, when the capture blocks, the thread
+ * that draws waits for the encoder, so that no frame is lost and the game slows down instead.
+ *
+ * Every capture writes into a directory of its own, the first of session-000, session-001, and so
+ * on, that does not exist yet in the directory it is given, so that a capture never overwrites
+ * or appends to the frames of an earlier one.  The PNG files are named frame-000000.png,
+ * frame-000001.png, and so on.  The raw stream of the frames of a size is
+ * capture-WIDTHxHEIGHT.rgb, which can be encoded with, for example,
+ * "ffmpeg -f rawvideo -pixel_format rgb24 -video_size 1920x1080 -framerate 60 -i capture-1920x1080.rgb capture.mp4".
+ */
+final class FrameCapture implements Closeable {
+    /**
+     * Format Enum - The formats that the frames are written in.
+     */
+    enum Format {
+        PNG, RAW
+    }//end of the Format Enum
+
+    //Class Variables
+    /** The number of images of the pool, which is how many frames can wait for the encoder */
+    static final int DEFAULT_POOL_SIZE = 8;
+    /** The milliseconds that a blocking capture waits for a free image before it checks whether it is closed */
+    private static final long BLOCKING_POLL_MILLIS = 10;
+
+    //Instance Variables
+    private final Path directory;
+    private final Format format;
+    private final boolean isBlocking;
+    /*
+     * The free queue holds the images that can be drawn into, and the pending queue the frames
+     * that wait for the encoder, followed by the end of the capture when it is closed.  Every frame
+     * is in one of the two queues, or being drawn, or being encoded.  A frame and the end are queued
+     * while holding the lock of the pending queue, so that no frame is queued after the end.
+     */
+    private final ArrayBlockingQueue<Frame> free;
+    private final ArrayBlockingQueue<Frame> pending;
+    private final Frame end = new Frame();
+    private final Thread encoder;
+    private volatile boolean isClosed;
+    /** The counts of the frames, which the thread that draws and the encoder each write one of */
+    private volatile long capturedFrames;
+    private volatile long droppedFrames;
+    private volatile long encodedFrames;
+    private volatile IOException failure;
+    /*
+     * The raw stream of the frames of the rawWidth by rawHeight, and the bytes of a frame of it,
+     * which only the encoder uses.
+     */
+    private OutputStream raw;
+    private int rawWidth, rawHeight;
+    private byte[] rawBytes;
+
+    /**
+     * FrameCapture Constructor - Creates the directory of the session, and the pool of images, and
+     * starts the encoder thread.
+     * @param directory - the Path of the directory that the session of the frames is created in,
+     * which is created if it does not exist
+     * @param format - the Format of the frames
+     * @param poolSize - the number of images that frames are drawn into
+     * @param isBlocking - true, if the thread that draws waits for a free image; otherwise, false,
+     * if a frame is dropped when there is none
+     * @throws IOException - if the directories cannot be created
+     */
+    FrameCapture(Path directory, Format format, int poolSize, boolean isBlocking) throws IOException {
+        if (poolSize < 1)
+            throw new IllegalArgumentException("The pool needs at least one image: " + poolSize);
+        Files.createDirectories(directory);
+        this.directory = createSession(directory);
+        this.format = format;
+        this.isBlocking = isBlocking;
+        free = new ArrayBlockingQueue<>(poolSize);
+        pending = new ArrayBlockingQueue<>(poolSize + 1);
+        for (int i = 0; i < poolSize; i++)
+            free.add(new Frame());
+        encoder = new Thread(this::encode, "Frame encoder");
+        encoder.setDaemon(true);
+        encoder.start();
+
+    }//end of the FrameCapture Constructor
+    /**
+     * createSession Method - Creates the directory of a new session in a directory, with the first
+     * name of session-000, session-001, and so on, that does not exist yet.
+     * @param directory - the Path of the directory that holds the sessions
+     * @return Path - Returns the Path of the new directory.
+     * @throws IOException - if the directory cannot be created
+     */
+    private static Path createSession(Path directory) throws IOException {
+        for (int i = 0; ; i++) {
+            try {
+                return Files.createDirectory(directory.resolve(String.format("session-%03d", i)));
+            } catch (FileAlreadyExistsException e) {
+                //The directory holds an earlier session, so the next name is tried.
+            }
+        }
+    }//end of the createSession Method
+    /**
+     * capture Method - Draws a frame into a free image of the pool, and queues it for the encoder.
+     * It must be called from one thread, which is the one that draws the frames.
+     * @param painter - the Painter that draws the frame
+     * @param width - the width of the frame
+     * @param height - the height of the frame
+     * @return Boolean - Returns true, if the frame was queued; otherwise, it returns false, and the
+     * frame was dropped, or the capture is closed.
+     */
+    boolean capture(ScaledSurface.Painter painter, int width, int height) {
+        if (isClosed)
+            return false;
+        Frame frame = free.poll();
+        try {
+            //A blocking capture waits for the encoder, but not for a capture that has been closed.
+            while (frame == null && isBlocking && !isClosed)
+                frame = free.poll(BLOCKING_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (frame == null) {
+            droppedFrames++;
+            return false;
+        }
+        frame.layout(width, height);
+        painter.paint(frame.graphics, frame.width, frame.height);
+        synchronized (pending) {
+            if (!isClosed) {
+                frame.number = capturedFrames++;
+                pending.add(frame);//There is always room, since the queue holds every image of the pool and the end.
+                return true;
+            }
+        }
+        //The capture was closed while the frame was drawn, so the frame is never queued after the end.
+        frame.dispose();
+        free.add(frame);
+        return false;
+
+    }//end of the capture Method
+    /**
+     * encode Method - Writes the frames of the queue until the capture is closed.  After a frame
+     * cannot be written, the frames are given back to the pool without being written, so that a
+     * blocking capture does not wait forever.
+     */
+    private void encode() {
+        try {
+            for (Frame frame = pending.take(); frame != end; frame = pending.take()) {
+                if (failure == null) {
+                    try {
+                        write(frame);
+                        encodedFrames++;
+                    } catch (IOException e) {
+                        failure = e;
+                        System.err.println("The frames could not be written to " + directory + ": " + e);
+                    }
+                }
+                free.add(frame);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeRaw();
+        }
+    }//end of the encode Method
+    /**
+     * write Method - Writes a frame in the format of the capture.
+     * @param frame - the Frame to write
+     * @throws IOException - if the frame cannot be written
+     */
+    private void write(Frame frame) throws IOException {
+        if (format == Format.PNG) {
+            Path file = directory.resolve(String.format("frame-%06d.png", frame.number));
+            if (!ImageIO.write(frame.image, "png", file.toFile()))
+                throw new IOException("no writer of PNG images");
+            return;
+        }
+        if (raw == null || frame.width != rawWidth || frame.height != rawHeight) {
+            /*
+             * A raw stream has no header, so the frames of another size go to a stream of their own,
+             * which is appended to if the frames of the session had that size before.
+             */
+            closeRaw();
+            rawWidth = frame.width;
+            rawHeight = frame.height;
+            rawBytes = new byte[rawWidth * rawHeight * 3];
+            raw = new BufferedOutputStream(Files.newOutputStream(directory.resolve("capture-" + rawWidth + "x" + rawHeight + ".rgb"),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16);
+        }
+        int[] pixels = ((DataBufferInt)frame.image.getRaster().getDataBuffer()).getData();
+        for (int i = 0, j = 0; i < pixels.length; i++) {
+            int rgb = pixels[i];
+            rawBytes[j++] = (byte)(rgb >> 16);
+            rawBytes[j++] = (byte)(rgb >> 8);
+            rawBytes[j++] = (byte)rgb;
+        }
+        raw.write(rawBytes);
+
+    }//end of the write Method
+    /**
+     * closeRaw Method - Flushes and closes the raw stream, if there is one.
+     */
+    private void closeRaw() {
+        if (raw == null)
+            return;
+        try {
+            raw.close();
+        } catch (IOException e) {
+            if (failure == null)
+                failure = e;
+            System.err.println("The frames could not be written to " + directory + ": " + e);
+        }
+        raw = null;
+
+    }//end of the closeRaw Method
+    /**
+     * close Method - Waits for the encoder to write every frame that was queued, and stops it.  It
+     * can be called from another thread than the one that captures, such as a shutdown hook, and
+     * a frame that is captured while the capture closes is disposed instead of being queued.
+     * @throws IOException - if a frame could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (pending) {
+            if (isClosed)
+                return;
+            isClosed = true;
+            pending.add(end);
+        }
+        try {
+            encoder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //If the wait was interrupted, the frames that the encoder has not taken are left in the queue.
+        for (Frame frame = pending.poll(); frame != null; frame = pending.poll())
+            frame.dispose();
+        for (Frame frame = free.poll(); frame != null; frame = free.poll())
+            frame.dispose();
+        if (failure != null)
+            throw failure;
+
+    }//end of the close Method
+    /**
+     * getCapturedFrames Method - Gets the number of frames that were queued for the encoder.
+     * @return long - Returns the number of captured frames.
+     */
+    long getCapturedFrames() {return capturedFrames;}
+    /**
+     * getDroppedFrames Method - Gets the number of frames that were dropped because the encoder
+     * was behind.
+     * @return long - Returns the number of dropped frames.
+     */
+    long getDroppedFrames() {return droppedFrames;}
+    /**
+     * getEncodedFrames Method - Gets the number of frames that were written.
+     * @return long - Returns the number of encoded frames.
+     */
+    long getEncodedFrames() {return encodedFrames;}
+    /**
+     * toString Method - Describes the frames of the capture.
+     * @return String - Returns the description of the capture.
+     */
+    @Override
+    public String toString() {
+        return capturedFrames + " frames captured, " + encodedFrames + " encoded, " + droppedFrames + " dropped, as "
+                + format + " in " + directory;
+
+    }//end of the toString Method
+    /**
+     * Frame Class - This nested class is an image of the pool, with the Graphics context that
+     * frames are drawn into it with, and the number of the frame that it holds.
+     */
+    private static final class Frame {
+        //Instance Variables
+        private BufferedImage image;
+        private Graphics2D graphics;
+        private int width, height;
+        private long number;
+
+        /**
+         * layout Method - Creates the image for a size of the frame, if it has changed.
+         * @param newWidth - the width of the frame
+         * @param newHeight - the height of the frame
+         */
+        void layout(int newWidth, int newHeight) {
+            newWidth = Math.max(1, newWidth);
+            newHeight = Math.max(1, newHeight);
+            if (image != null && newWidth == width && newHeight == height)
+                return;
+            dispose();
+            width = newWidth;
+            height = newHeight;
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            graphics = image.createGraphics();
+
+        }//end of the layout Method
+        /**
+         * dispose Method - Releases the image and its Graphics context.
+         */
+        void dispose() {
+            if (image == null)
+                return;
+            graphics.dispose();
+            image.flush();
+            image = null;
+            graphics = null;
+
+        }//end of the dispose Method
+    }//end of the Frame Class
+} // end of the FrameCapture Class
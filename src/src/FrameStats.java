@@ -0,0 +1,184 @@
+
+package src;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The FrameStats Class times the phases of the frames of the game: the update of the world, the
+ * painting of a frame and the draw of each entity in it, the latency from the request of a frame to
+ * the start of its painting, and the key-to-photon latency of the input, which is from the time a
+ * key went down to the end of the first frame that shows it.  Each phase records into its own
+ * lock-free PhaseHistogram, and the percentiles are exposed through JMX as the FrameStatsMBean, and
+ * drawn by the panel as an overlay.  The timing is disabled by default, and the code that is timed
+ * reads the enabled flag once per frame, so that a disabled FrameStats costs nothing but that read.
+ */
+public final class FrameStats implements FrameStatsMBean {
+    //Class Variables
+    /** The name that the FrameStats of the game is registered with in the platform MBeanServer */
+    public static final String OBJECT_NAME = "src:type=FrameStats";
+    private static final Phase[] PHASES = Phase.values();
+
+    //Instance Variables
+    private final PhaseHistogram[] histograms = new PhaseHistogram[PHASES.length];
+    private volatile boolean isEnabled;
+
+    /**
+     * Phase Enum - The phases of a frame that are timed.
+     */
+    enum Phase {
+        UPDATE, PAINT, LATENCY, RECORD, BACKGROUND, CLOUD_TWO, SUN, CLOUD_ONE, BATTLESHIP, SUBMARINE,
+        DEPTH_CHARGE, PARTICLES, WAVES, SCORE, INPUT
+    }//end of the Phase Enum
+
+    /**
+     * FrameStats Constructor - Creates an empty histogram for every phase.
+     */
+    public FrameStats() {
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new PhaseHistogram();
+
+    }//end of the FrameStats Constructor
+    /**
+     * record Method - Records the duration of a phase that started at the given time and ends now.
+     * @param phase - the Phase that ended
+     * @param start - the time the phase started at, from System.nanoTime
+     * @return long - Returns the current time, which is the start of the next phase.
+     */
+    long record(Phase phase, long start) {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - start);
+        return now;
+
+    }//end of the record Method
+    /**
+     * getHistogram Method - Gets the histogram of a phase.
+     * @param phase - the Phase
+     * @return PhaseHistogram - Returns the histogram of the phase.
+     */
+    PhaseHistogram getHistogram(Phase phase) {return histograms[phase.ordinal()];}
+    /**
+     * isEnabled Method - Determines whether the phases are timed.
+     * @return Boolean - Returns true, if the phases are timed; otherwise, it returns false.
+     */
+    @Override
+    public boolean isEnabled() {return isEnabled;}
+    /**
+     * setEnabled Method - Starts or stops the timing of the phases.
+     * @param enabled - true to time the phases
+     */
+    @Override
+    public void setEnabled(boolean enabled) {isEnabled = enabled;}
+    /**
+     * getPhaseNames Method - Gets the names of the phases.
+     * @return String[] - Returns the names of the phases.
+     */
+    @Override
+    public String[] getPhaseNames() {
+        String[] names = new String[PHASES.length];
+        for (int i = 0; i < names.length; i++)
+            names[i] = PHASES[i].name();
+        return names;
+
+    }//end of the getPhaseNames Method
+    /**
+     * getCounts Method - Gets the number of recorded durations of each phase.
+     * @return long[] - Returns the counts of the phases.
+     */
+    @Override
+    public long[] getCounts() {
+        long[] counts = new long[histograms.length];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = histograms[i].getCount();
+        return counts;
+
+    }//end of the getCounts Method
+    /**
+     * getP50Nanos Method - Gets the median duration of each phase.
+     * @return long[] - Returns the durations in nanoseconds.
+     */
+    @Override
+    public long[] getP50Nanos() {return getPercentiles(0.50);}
+    /**
+     * getP99Nanos Method - Gets the 99th percentile of the duration of each phase.
+     * @return long[] - Returns the durations in nanoseconds.
+     */
+    @Override
+    public long[] getP99Nanos() {return getPercentiles(0.99);}
+    /**
+     * getMaxNanos Method - Gets the longest duration of each phase.
+     * @return long[] - Returns the durations in nanoseconds.
+     */
+    @Override
+    public long[] getMaxNanos() {
+        long[] max = new long[histograms.length];
+        for (int i = 0; i < max.length; i++)
+            max[i] = histograms[i].getMax();
+        return max;
+
+    }//end of the getMaxNanos Method
+    /**
+     * getPercentiles Method - Gets a percentile of the duration of each phase.
+     * @param fraction - the fraction of the durations, from 0 to 1
+     * @return long[] - Returns the durations in nanoseconds.
+     */
+    private long[] getPercentiles(double fraction) {
+        long[] percentiles = new long[histograms.length];
+        for (int i = 0; i < percentiles.length; i++)
+            percentiles[i] = histograms[i].getPercentile(fraction);
+        return percentiles;
+
+    }//end of the getPercentiles Method
+    /**
+     * format Method - Formats the timing of a phase as one line, in milliseconds.
+     * @param phase - the Phase
+     * @return String - Returns the line of the phase.
+     */
+    String format(Phase phase) {
+        PhaseHistogram histogram = histograms[phase.ordinal()];
+        return String.format("%-12s p50 %7.3f  p99 %7.3f  max %7.3f ms", phase.name(),
+                histogram.getPercentile(0.50) / 1e6, histogram.getPercentile(0.99) / 1e6,
+                histogram.getMax() / 1e6);
+
+    }//end of the format Method
+    /**
+     * getSummary Method - Formats the timing of every phase, one line for each phase.
+     * @return String - Returns the timing of the phases.
+     */
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Phase phase : PHASES)
+            summary.append(format(phase)).append('\n');
+        return summary.toString();
+
+    }//end of the getSummary Method
+    /**
+     * reset Method - Removes the recorded durations of every phase.
+     */
+    @Override
+    public void reset() {
+        for (PhaseHistogram histogram : histograms)
+            histogram.reset();
+
+    }//end of the reset Method
+    /**
+     * register Method - Registers the FrameStats in the platform MBeanServer under the OBJECT_NAME,
+     * in place of the FrameStats of a previous game.  A failure to register is reported, but the
+     * game goes on without JMX.
+     * @param stats - the FrameStats to register
+     */
+    public static void register(FrameStats stats) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(stats, name);
+        } catch (JMException e) {
+            System.err.println("The frame timing could not be registered with JMX: " + e);
+        }
+    }//end of the register Method
+} // end of the FrameStats Class
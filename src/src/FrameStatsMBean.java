@@ -0,0 +1,18 @@
+
+package src;
+
+/**
+ * The FrameStatsMBean Interface is the JMX management interface of the FrameStats.  The timings
+ * of the phases are given in the order of the phase names, in nanoseconds.
+ */
+public interface FrameStatsMBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+    String[] getPhaseNames();
+    long[] getCounts();
+    long[] getP50Nanos();
+    long[] getP99Nanos();
+    long[] getMaxNanos();
+    String getSummary();
+    void reset();
+}//end of the FrameStatsMBean Interface
@@ -0,0 +1,64 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * The GameFonts Class holds the two fonts of the game, the small font of the score and the large
+ * font of the title.  Resolving them is slow the first time: the families of the system are
+ * enumerated to find whether Bookman Old Style is installed, and the font files are opened and
+ * their glyphs rasterized on first use.  So the fonts are resolved once at startup, off the event
+ * dispatch thread, and every text of the game is drawn once into a scratch image with the hints of
+ * the frame, so that the first frame finds the glyphs in the cache.
+ */
+final class GameFonts {
+    //Class Variables
+    static final String FAMILY = "Bookman Old Style";
+    /** The family that is used when Bookman Old Style is not installed */
+    static final String FALLBACK_FAMILY = Font.DIALOG;
+    static final int SMALL_SIZE = 16;
+    static final int LARGE_SIZE = 40;
+
+    //Instance Variables
+    final Font small, large;
+
+    /**
+     * GameFonts Constructor - Creates the fonts of a family.
+     * @param family - the name of the family
+     */
+    GameFonts(String family) {
+        small = new Font(family, Font.BOLD, SMALL_SIZE);
+        large = new Font(family, Font.BOLD, LARGE_SIZE);
+
+    }//end of the GameFonts Constructor
+    /**
+     * resolve Method - Finds the family of the fonts, and warms up their glyphs.
+     * @param smallTexts - the String[] of text that is drawn in the small font
+     * @param largeTexts - the String[] of text that is drawn in the large font
+     * @return GameFonts - Returns the fonts.
+     */
+    static GameFonts resolve(String[] smallTexts, String[] largeTexts) {
+        String[] families = GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames();
+        GameFonts fonts = new GameFonts(Arrays.asList(families).contains(FAMILY) ? FAMILY : FALLBACK_FAMILY);
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = scratch.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setFont(fonts.small);
+        for (String text : smallTexts)
+            g2d.drawString(text, 0, 0);
+        g2d.setFont(fonts.large);
+        for (String text : largeTexts)
+            g2d.drawString(text, 0, 0);
+        g2d.dispose();
+        return fonts;
+
+    }//end of the resolve Method
+    /**
+     * toString Method - Describes the family of the fonts.
+     * @return String - Returns the name of the family.
+     */
+    @Override
+    public String toString() {return small.getFamily();}
+} // end of the GameFonts Class
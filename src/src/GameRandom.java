@@ -0,0 +1,58 @@
+
+package src;
+
+/**
+ * The GameRandom Class is the injectable random number generator of the simulation.  It is
+ * a small, unsynchronized SplitMix64 generator, so that every GameWorld owns its own sequence
+ * and a game can be reproduced exactly from its seed.  Unlike Math.random(), there is no
+ * shared state between games, and therefore no contention when many games run at once.
+ */
+public final class GameRandom {
+    //Instance Variables
+    private long seed;
+    private long state;
+
+    /**
+     * GameRandom Constructor - Creates an instance of the GameRandom with the given seed.
+     * @param seed - the long seed of the sequence
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+
+    }//end of the GameRandom Constructor
+    /**
+     * getSeed Method - Gets the seed that this GameRandom was created with.
+     * @return long - Returns the seed of the sequence.
+     */
+    public long getSeed() {return seed;}
+    /**
+     * reset Method - Restarts the sequence from the given seed.
+     * @param newSeed - the long seed of the new sequence
+     */
+    public void reset(long newSeed) {
+        seed = newSeed;
+        state = newSeed;
+
+    }//end of the reset Method
+    /**
+     * nextLong Method - Gets the next 64 bits of the sequence.
+     * @return long - Returns the next pseudo-random long.
+     */
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+
+    }//end of the nextLong Method
+    /**
+     * nextDouble Method - Gets the next double of the sequence, uniformly distributed in the
+     * range [0.0, 1.0), as a drop-in replacement for Math.random().
+     * @return double - Returns the next pseudo-random double.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+
+    }//end of the nextDouble Method
+} // end of the GameRandom Class
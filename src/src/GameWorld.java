@@ -0,0 +1,791 @@
+
+package src;
+
+/**
+ * The GameWorld Class is the headless simulation core of the SubmarineKiller game.  It holds the
+ * plain-Java state of the battleship, depth charge, submarine, waves, clouds, and sun, and it
+ * advances all of them by one frame with the tick method.  The key events of the player reach
+ * the world through its InputRing, which the tick drains before it updates anything, so the
+ * world is only changed by the thread that ticks it.  It has no Swing or AWT dependency,
+ * and all randomness comes from the injected GameRandom, so that a game can be driven by the
+ * timer of the panel, or run headless as fast as the CPU allows for load testing and batch
+ * simulation.
+ */
+public class GameWorld {
+    //Instance Variables
+    /*
+     * The screenWidth and screenHeight are the dimensions of the world in pixels.  They are fixed
+     * when the world is created.
+     */
+    final int screenWidth, screenHeight;
+    /** The random drives the erratic movement and the placement of the submarine */
+    private final GameRandom random;
+    private long seed;//The seed of the random when the world was created or reset
+    /** The level holds the number of depth charges and submarines of the game */
+    private final Level level;
+    /*
+     * The Battleship, DepthChargePool, SubmarinePool, Wave, CloudOne, CloudTwo, and Sun hold the
+     * state of the entities of the game, which are described later in this class.
+     */
+    final Battleship battleship;
+    final DepthChargePool depthCharges;
+    final SubmarinePool submarines;
+    final Wave waves;
+    final CloudOne cloudOne;
+    final CloudTwo cloudTwo;
+    final Sun sun;
+    /*
+     * The hits are the number times the depth charge hit the submarine, and the misses are the
+     * number of times the depth charge missed the submarine.  When the sum of both reaches the
+     * numberOfCharges, the game is over.
+     */
+    int hits;
+    int misses;
+    final int numberOfCharges;
+    boolean isGameOver;
+    /** The number of ticks since the world was created or reset */
+    long tickCount;
+    /** The snapshots publishes the state of the world to the painting at the end of each tick */
+    final SnapshotExchange snapshots;
+    /*
+     * The input holds the key events that have not been applied yet, and the inputNanos is the time
+     * of the first key that went down among the events that the last tick applied, or 0 if none did.
+     * The isDropHeld is set while the key that drops the depth charges is held down.
+     */
+    static final int INPUT_CAPACITY = 256;
+    final InputRing input = new InputRing(INPUT_CAPACITY);
+    long inputNanos;
+    private boolean isDropHeld;
+    /** The recorder writes every input that the world applies into a replay, if it is not null */
+    private ReplayRecorder recorder;
+    /** The listener is told about the events that are shown as effects, if it is not null */
+    private Listener listener;
+
+    /**
+     * Listener Interface - Is told on the thread that ticks the world about the events of the game
+     * that the panel shows as effects, such as the particles of an explosion.  It must not change
+     * the world, so that a game plays the same with or without a listener.
+     */
+    interface Listener {
+        void depthChargeDropped(int centerX, int centerY);
+        void depthChargeHit(int impactX, int impactY);
+        void submarineExploded(int centerX, int centerY);
+    }//end of the Listener Interface
+
+    /**
+     * GameWorld Constructor - Creates an instance of the GameWorld of the classic level, with 25
+     * depth charges and one submarine.
+     * @param screenWidth - the width of the world in pixels
+     * @param screenHeight - the height of the world in pixels
+     * @param random - the GameRandom of the world
+     */
+    public GameWorld(int screenWidth, int screenHeight, GameRandom random) {
+        this(screenWidth, screenHeight, random, Level.CLASSIC);
+
+    }//end of the GameWorld Constructor
+    /**
+     * GameWorld Constructor - Creates an instance of the GameWorld, and places all of its
+     * entities at their initial positions.
+     * @param screenWidth - the width of the world in pixels
+     * @param screenHeight - the height of the world in pixels
+     * @param random - the GameRandom of the world
+     * @param level - the Level of the game
+     */
+    public GameWorld(int screenWidth, int screenHeight, GameRandom random, Level level) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.random = random;
+        this.seed = random.getSeed();
+        this.level = level;
+        this.numberOfCharges = level.getNumberOfCharges();
+        sun = new Sun();
+        cloudOne = new CloudOne();
+        cloudTwo = new CloudTwo();
+        battleship = new Battleship();
+        depthCharges = new DepthChargePool(level.getMaxLiveCharges());
+        waves = new Wave();
+        submarines = new SubmarinePool(level.getNumberOfSubmarines());
+        snapshots = new SnapshotExchange(level.getMaxLiveCharges(), level.getNumberOfSubmarines());
+        snapshots.publish(this);
+
+    }//end of the GameWorld Constructor
+    /**
+     * reset Method - Starts a new game in this world, with every entity back at its initial
+     * position, reusing the entities, the pools, the input, and the snapshots.  The world is then
+     * the same as a new GameWorld of the same size and level, with a GameRandom of the new seed.
+     * It must be called from the thread that ticks the world, and any recorder is removed.
+     * @param newSeed - the long seed of the new game
+     */
+    public void reset(long newSeed) {
+        random.reset(newSeed);
+        seed = newSeed;
+        hits = 0;
+        misses = 0;
+        isGameOver = false;
+        tickCount = 0;
+        while (input.poll()) {
+            //The keys of the last game are dropped.
+        }
+        inputNanos = 0;
+        isDropHeld = false;
+        recorder = null;
+        sun.reset();
+        cloudOne.reset();
+        cloudTwo.reset();
+        battleship.reset();
+        depthCharges.reset();
+        waves.reset();
+        submarines.reset();
+        snapshots.publish(this);
+
+    }//end of the reset Method
+    /**
+     * tick Method - Advances the world by one frame.  The entities are updated in the same order
+     * that the timer of the SubmarineKiller panel has always updated them, and then the new
+     * state is published as a snapshot.  Once the game is over, the tick has no effect.
+     */
+    public void tick() {
+        if (isGameOver)
+            return;
+        applyInput();
+        battleship.updateNewFrame();
+        depthCharges.updateNewFrame();
+        if (!isGameOver) {
+            submarines.updateNewFrame();
+            waves.updateNewFrame();
+            cloudTwo.updateNewFrame();
+            sun.updateNewFrame();
+            cloudOne.updateNewFrame();
+            depthCharges.attachToBattleship();
+            tickCount++;
+        }
+        snapshots.publish(this);
+
+    }//end of the tick Method
+    /**
+     * applyInput Method - Applies every key event that is waiting in the input.  The left and right
+     * keys set the keys of the battleship that are held, and the key that drops the depth charges
+     * drops one each time it goes down.
+     */
+    private void applyInput() {
+        inputNanos = 0;
+        while (input.poll()) {
+            int event = input.getEvent();
+            if ((event & InputRing.RELEASED) == 0 && inputNanos == 0)
+                inputNanos = input.getNanos();
+            applyKey(event);
+        }
+    }//end of the applyInput Method
+    /**
+     * applyKey Method - Applies a key event, whether it came from the input or from a replay.
+     * @param event - the InputRing event
+     */
+    void applyKey(int event) {
+        if (recorder != null)
+            recorder.recordKey(tickCount, event);
+        boolean isDown = (event & InputRing.RELEASED) == 0;
+        switch (event & ~InputRing.RELEASED) {
+            case InputRing.LEFT:
+                battleship.setLeftHeld(isDown);
+                break;
+            case InputRing.RIGHT:
+                battleship.setRightHeld(isDown);
+                break;
+            case InputRing.DROP:
+                if (isDown && !isDropHeld)
+                    depthCharges.drop();
+                isDropHeld = isDown;
+                break;
+            default:
+                break;
+        }
+    }//end of the applyKey Method
+    /**
+     * setRecorder Method - Starts recording every input that the world applies into a replay, or
+     * stops recording if the recorder is null.  It must be called from the thread that ticks the
+     * world.
+     * @param recorder - the ReplayRecorder, or null
+     */
+    void setRecorder(ReplayRecorder recorder) {this.recorder = recorder;}
+    /**
+     * getRecorder Method - Gets the recorder of the world.
+     * @return ReplayRecorder - Returns the recorder, or null if the world is not recorded.
+     */
+    ReplayRecorder getRecorder() {return recorder;}
+    /**
+     * setListener Method - Sets the listener that is told about the events of the world, or removes
+     * it if the listener is null.  Unlike the recorder, the listener is kept when the world is reset.
+     * @param listener - the Listener, or null
+     */
+    void setListener(Listener listener) {this.listener = listener;}
+    /**
+     * getListener Method - Gets the listener of the world.
+     * @return Listener - Returns the listener, or null if the world has none.
+     */
+    Listener getListener() {return listener;}
+    /**
+     * getInput Method - Gets the InputRing that the key events of the player are offered to.  Only
+     * one thread may offer events to it.
+     * @return InputRing - Returns the input of the world.
+     */
+    InputRing getInput() {return input;}
+    /**
+     * moveBattleship Method - Moves the battleship horizontally, for a caller that drives the world
+     * from the thread that ticks it, such as a bot.  If this moves the battleship out of the world,
+     * its position is adjusted in the next tick.
+     * @param dx - the number of pixels to move, negative to the left
+     */
+    public void moveBattleship(int dx) {
+        if (recorder != null)
+            recorder.recordMove(tickCount, dx);
+        battleship.centerX += dx;
+
+    }//end of the moveBattleship Method
+    /**
+     * dropDepthCharge Method - Starts the attached depth charge falling, if the level allows
+     * another charge to be falling.  In the classic level, a charge cannot be dropped while the
+     * previous one is still falling.
+     * @return Boolean - Returns true, if a depth charge was dropped; otherwise, it returns false.
+     */
+    public boolean dropDepthCharge() {
+        if (recorder != null)
+            recorder.recordDrop(tickCount);
+        return depthCharges.drop();
+
+    }//end of the dropDepthCharge Method
+    /**
+     * getSnapshots Method - Gets the SnapshotExchange that the world publishes each tick to.
+     * @return SnapshotExchange - Returns the SnapshotExchange of the world.
+     */
+    SnapshotExchange getSnapshots() {return snapshots;}
+    /**
+     * getSeed Method - Gets the seed of the GameRandom that the world was created with, which
+     * together with its inputs determines the whole game.
+     * @return long - Returns the seed.
+     */
+    public long getSeed() {return seed;}
+    /**
+     * getScore Method - Gets the number of the times the depth charge has hit the submarine.
+     * @return Int - Returns the number of hits.
+     */
+    public int getScore() {return hits;}
+    /**
+     * getMisses Method - Gets the number of times the depth charge has missed the submarine.
+     * @return Int - Returns the number of misses.
+     */
+    public int getMisses() {return misses;}
+    /**
+     * getPercentage Method - Gets the percentage of hits (i.e., hits divided by the sum of hits
+     * and misses).
+     * @return double - Returns the percentage of hits.
+     */
+    public double getPercentage() {return (hits / ((double)hits + (double)misses));}
+    /**
+     * isGameOver Method - Determines whether all of the depth charges have been used.
+     * @return Boolean - Returns true, if the game is over; otherwise, it returns false.
+     */
+    public boolean isGameOver() {return isGameOver;}
+    /**
+     * getLevel Method - Gets the level of the game.
+     * @return Level - Returns the level of the game.
+     */
+    public Level getLevel() {return level;}
+    /**
+     * getTickCount Method - Gets the number of ticks since the world was created.
+     * @return long - Returns the number of ticks.
+     */
+    public long getTickCount() {return tickCount;}
+    /**
+     * getScreenWidth Method - Gets the width of the world.
+     * @return Int - Returns the width in pixels.
+     */
+    public int getScreenWidth() {return screenWidth;}
+    /**
+     * getScreenHeight Method - Gets the height of the world.
+     * @return Int - Returns the height in pixels.
+     */
+    public int getScreenHeight() {return screenHeight;}
+    /**
+     * Battleship Class - This nested class holds the state of the Battleship.
+     */
+    final class Battleship {
+        //Instance Variables
+        static final int speed = 12;//the pixels the battleship moves each frame while a key is held
+        int centerX, centerY;  // Current position of the center of the Battleship.
+        /*
+         * The isLeftHeld and isRightHeld are set while the left and right keys are held down, and the
+         * isLeftPressed and isRightPressed are set when a key went down since the last frame, so that
+         * a key that is pressed and released between two frames still moves the Battleship.
+         */
+        boolean isLeftHeld, isRightHeld;
+        boolean isLeftPressed, isRightPressed;
+
+        /**
+         * Battleship Constructor - Creates an instance of the Battleship.  The constructor centers
+         * the Battleship horizontally, 200 pixels from top.
+         */
+        Battleship() {
+            reset();
+
+        }//end of the Battleship Constructor
+        /**
+         * reset Method - Centers the Battleship horizontally, 200 pixels from top, with no key held.
+         */
+        void reset() {
+            centerX = screenWidth/2;
+            centerY = 200;
+            isLeftHeld = false;
+            isRightHeld = false;
+            isLeftPressed = false;
+            isRightPressed = false;
+
+        }//end of the reset Method
+        /**
+         * setLeftHeld Method - Notes that the left key went down or up.
+         * @param isDown - true, if the key went down
+         */
+        void setLeftHeld(boolean isDown) {
+            if (isDown && !isLeftHeld)
+                isLeftPressed = true;
+            isLeftHeld = isDown;
+
+        }//end of the setLeftHeld Method
+        /**
+         * setRightHeld Method - Notes that the right key went down or up.
+         * @param isDown - true, if the key went down
+         */
+        void setRightHeld(boolean isDown) {
+            if (isDown && !isRightHeld)
+                isRightPressed = true;
+            isRightHeld = isDown;
+
+        }//end of the setRightHeld Method
+        /**
+         * updateNewFrame Method - Updates the Battleship frame.  It moves the Battleship while a key
+         * is held, and makes sure it does not move off the screen.
+         */
+        void updateNewFrame() {
+            if (isLeftHeld || isLeftPressed)
+                centerX -= speed;
+            if (isRightHeld || isRightPressed)
+                centerX += speed;
+            isLeftPressed = false;
+            isRightPressed = false;
+            if (centerX < 130) {
+                centerX = 130;
+
+            } else if (centerX > screenWidth - 145) {
+                centerX = screenWidth - 145;
+            }
+        }//end of the updateNewFrame Method for the Battleship
+    } //end the nested Battleship Class
+    /**
+     * DepthChargePool Class - This nested class holds the state of all the falling depth charges
+     * in pooled primitive arrays.  The falling charges are kept packed at the front of the arrays,
+     * so that the update loop walks them in order, and a charge that hits or misses is replaced by
+     * the last falling charge.  The charge that is waiting under the battleship is not falling,
+     * and is kept apart from the pool.
+     */
+    final class DepthChargePool {
+        //Instance Variables
+        static final int depthChargeWidth = 30;//the width in pixels
+        static final int depthChargeHeight = 15;//the height in pixels
+        final int fallingSpeed;//the pixels a depth charge falls each frame, which is the speed of the level
+        final int capacity;
+        final int[] centerX, centerY;//The current position of the center of each falling DepthCharge.
+        final int[] velocityY;//The pixels each falling DepthCharge moves down each frame
+        int count;//The number of falling depth charges
+        int attachedX, attachedY;//The position of the DepthCharge that is attached to the battleship
+
+        /**
+         * DepthChargePool Constructor - Creates the pool of depth charges.  Initially, no charge is
+         * falling, and one is attached to the Battleship.
+         * @param capacity - the number of depth charges that can be falling at once
+         */
+        DepthChargePool(int capacity) {
+            this.capacity = capacity;
+            fallingSpeed = level.getChargeSpeed();
+            centerX = new int[capacity];
+            centerY = new int[capacity];
+            velocityY = new int[capacity];
+            reset();
+
+        }//end of the DepthChargePool Constructor
+        /**
+         * reset Method - Removes every falling depth charge, and attaches one to the Battleship.
+         */
+        void reset() {
+            count = 0;
+            attachToBattleship();
+
+        }//end of the reset Method
+        /**
+         * drop Method - Starts the attached depth charge falling, if another charge can be falling
+         * and the game has charges left.
+         * @return Boolean - Returns true, if a depth charge was dropped; otherwise, it returns false.
+         */
+        boolean drop() {
+            if (count == capacity || hits + misses + count >= numberOfCharges)
+                return false;
+            centerX[count] = attachedX;
+            centerY[count] = attachedY;
+            velocityY[count] = fallingSpeed;
+            count++;
+            if (listener != null)
+                listener.depthChargeDropped(attachedX, attachedY);
+            return true;
+
+        }//end of the drop Method
+        /**
+         * updateNewFrame Method - Updates every falling depth charge.  A charge that has fallen past
+         * the bottom of the world is a miss, a charge that intersects with a submarine anywhere along
+         * its fall in this tick is a hit, and every other charge falls further.  The fall is swept,
+         * so a charge hits a submarine even if it falls further than the height of the submarine in
+         * one tick, and the listener is told where it hit at the time of impact.
+         */
+        void updateNewFrame() {
+            if (((hits + misses) == numberOfCharges) && submarines.explodingCount == 0) {
+                isGameOver = true;
+                return;
+            }
+            if (count > 0)
+                submarines.prepareCollisions();
+            int i = 0;
+            while (i < count) {
+                if (centerY[i] > screenHeight) {//The DepthCharge has missed the submarines.
+                    misses++;
+                    remove(i);
+                } else {
+                    int hit = submarines.sweep(centerX[i], centerY[i], depthChargeWidth, depthChargeHeight, velocityY[i]);
+                    if (hit >= 0) {//The DepthCharge has hit a submarine, which starts exploding.
+                        if (listener != null)
+                            listener.depthChargeHit(centerX[i] + depthChargeWidth / 2,
+                                    centerY[i] + (int)(submarines.impactTime * velocityY[i]) + depthChargeHeight);
+                        submarines.explode(hit);
+                        hits++;
+                        remove(i);
+                    } else {//The DepthCharge has not hit or missed, so it is moved down.
+                        centerY[i] += velocityY[i];
+                        i++;
+                    }
+                }
+            }
+        }//end of the updateNewFrame Method for the DepthChargePool Class
+        /**
+         * remove Method - Returns a falling depth charge to the pool, by moving the last falling
+         * charge into its place.
+         * @param i - the index of the depth charge
+         */
+        private void remove(int i) {
+            count--;
+            centerX[i] = centerX[count];
+            centerY[i] = centerY[count];
+            velocityY[i] = velocityY[count];
+
+        }//end of the remove Method
+        /**
+         * attachToBattleship Method - Places the attached DepthCharge under the center of the
+         * battleship.
+         */
+        void attachToBattleship() {
+            attachedX = battleship.centerX;
+            attachedY = battleship.centerY + 23;
+
+        }//end of the attachToBattleship Method
+        /**
+         * isAttached Method - Determines whether a depth charge is waiting under the battleship, which
+         * is whenever another charge can be falling.
+         * @return Boolean - Returns true, if a charge is attached to the battleship.
+         */
+        boolean isAttached() {return count < capacity;}
+    }//end of the nested class DepthChargePool
+    /**
+     * SubmarinePool Class - This nested class holds the state of all the submarines in pooled
+     * primitive arrays.  The direction of each submarine is the sign of its velocity.  The grid
+     * is the broad phase of the collisions with the depth charges.
+     */
+    final class SubmarinePool {
+        //Instance Variables
+        static final int submarineWidth = 264;
+        static final int submarineHeight = 72;
+        static final int speed = 5;//the pixels a submarine moves each frame
+        static final int rowSpacing = 90;//the pixels between the rows of submarines
+        static final int gridCellSize = 256;//the width and height of a cell of the grid in pixels
+        static final int gridThreshold = 32;//the fewest submarines for which the grid is faster
+        final int count;
+        final int[] centerX, centerY; //Current position of the center of each submarine.
+        final int[] velocityX; //The pixels each submarine moves each frame, negative to the left
+        final boolean[] isExploding;  //Set to true when the submarine is hit by a DepthCharge.
+        //If a submarine is exploding, this is the number of frames since the explosion started
+        final int[] explosionFrameNumber;
+        int explodingCount;//The number of submarines that are exploding
+        final SpatialGrid grid;
+        boolean isGridUsed;//Set to true when the grid holds the current positions of the submarines
+        double impactTime;//The fraction of the tick at which the last sweep hit a submarine
+
+        /**
+         * SubmarinePool Constructor - Creates the submarines at random locations along the bottom of
+         * the world.
+         * @param count - the number of submarines
+         */
+        SubmarinePool(int count) {
+            this.count = count;
+            centerX = new int[count];
+            centerY = new int[count];
+            velocityX = new int[count];
+            isExploding = new boolean[count];
+            explosionFrameNumber = new int[count];
+            grid = new SpatialGrid(screenWidth, screenHeight, gridCellSize, count, submarineWidth, submarineHeight);
+            reset();
+
+        }//end of the SubmarinePool Constructor
+        /**
+         * reset Method - Places every submarine at a random location, none of them exploding.
+         */
+        void reset() {
+            explodingCount = 0;
+            isGridUsed = false;
+            for (int i = 0; i < count; i++) {
+                explosionFrameNumber[i] = 0;
+                spawn(i);
+            }
+        }//end of the reset Method
+        /**
+         * spawn Method - Places a submarine at a random location in its row, 72 pixels from the
+         * bottom of the world for the first row, and moving in a random direction.
+         * @param i - the index of the submarine
+         */
+        void spawn(int i) {
+            centerX[i] = (int)(screenWidth * random.nextDouble());
+            centerY[i] = screenHeight - 72 - (i % 3) * rowSpacing;
+            isExploding[i] = false;
+            velocityX[i] = (random.nextDouble() < 0.5) ? -speed : speed;
+
+        }//end of the spawn Method
+        /**
+         * updateNewFrame Method - Updates every submarine.  For example, this method moves a
+         * submarine; or when exploding, it increases its explosionFrameNumber.
+         */
+        void updateNewFrame() {
+            for (int i = 0; i < count; i++) {
+                if (isExploding[i]) {
+                    /*
+                     * If the submarine is exploding, add 1 to explosionFrameNumber.  When the number
+                     * reaches 15, the explosion ends and the submarine reappears in a random position.
+                     */
+                    if (++explosionFrameNumber[i] == 15) {
+                        explodingCount--;
+                        spawn(i);
+                    }
+                } else { //Move the submarine.
+                    if (random.nextDouble() < 0.04) {
+                        //In one frame out of every 25, on average, the submarine reverses its direction.
+                        velocityX[i] = -velocityX[i];
+                    }
+                    centerX[i] += velocityX[i];
+                    if (velocityX[i] < 0) {
+                        //Turn the submarine around at the left edge.
+                        if (centerX[i] <= 40) {
+                            centerX[i] = 40;
+                            velocityX[i] = speed;
+                        }
+                    } else if (centerX[i] > (screenWidth - 200)) {
+                        //Turn the submarine around at the right edge.
+                        centerX[i] = screenWidth - 200;
+                        velocityX[i] = -speed;
+                    }
+                }
+            }
+        }//end of the updateNewFrame Method for the SubmarinePool
+        /**
+         * explode Method - Starts the explosion of a submarine.
+         * @param i - the index of the submarine
+         */
+        void explode(int i) {
+            if (!isExploding[i])
+                explodingCount++;
+            isExploding[i] = true;
+            explosionFrameNumber[i] = 1;
+            if (listener != null)
+                listener.submarineExploded(centerX[i], centerY[i]);
+
+        }//end of the explode Method
+        /**
+         * prepareCollisions Method - Places every submarine into the grid at its current position,
+         * if there are enough submarines for the grid to be faster than testing each one of them.
+         * It must be called again after the submarines have moved, before the next sweep.
+         */
+        void prepareCollisions() {
+            isGridUsed = count >= gridThreshold;
+            if (isGridUsed)
+                grid.build(centerX, centerY, count);
+
+        }//end of the prepareCollisions Method
+        /**
+         * sweep Method - Finds the submarine that a rectangle falling during a tick overlaps first,
+         * and sets the impactTime to the fraction of the tick at which it does.  When the grid is
+         * used, only the submarines that share a cell of it with the whole fall are tested.
+         * @param x - the x position of the rectangle
+         * @param y - the y position of the rectangle at the start of the tick
+         * @param width - the width of the rectangle
+         * @param height - the height of the rectangle
+         * @param dy - the pixels that the rectangle falls during the tick
+         * @return Int - Returns the index of the submarine, or -1 if there is no collision.
+         */
+        int sweep(int x, int y, int width, int height, int dy) {
+            if (isGridUsed) {
+                int found = grid.sweep(x, y, width, height, 0, dy);
+                impactTime = grid.getImpactTime();
+                return found;
+            }
+            int found = -1;
+            impactTime = SpatialGrid.NO_IMPACT;
+            for (int i = 0; i < count; i++) {
+                double time = SpatialGrid.timeOfImpact(x, y, width, height, 0, dy,
+                        centerX[i], centerY[i], submarineWidth, submarineHeight);
+                if (time < impactTime) {
+                    impactTime = time;
+                    found = i;
+                }
+            }
+            return found;
+
+        }//end of the sweep Method
+    } // end of the SubmarinePool Nested Class
+    /**
+     * Wave Class - The nested class that holds the scrolling position of the waves.
+     */
+    final class Wave {
+        //Instance Variable
+        int centerX;
+
+        /**
+         * Default Wave Constructor - Creates an instance of the Wave.
+         */
+        Wave() {
+            reset();
+
+        }//end of the Default Wave Constructor
+        /**
+         * reset Method - Places the waves at the right edge of the world.
+         */
+        void reset() {
+            centerX = screenWidth;
+
+        }//end of the reset Method
+        /**
+         * updateNewFrame Method - Updates the centerX position of the drawn arcs that moves them across
+         * the world.
+         */
+        void updateNewFrame() {
+            if (centerX < 0) {
+                centerX = screenWidth;
+            } else {
+                centerX -= 1;
+                if (centerX < screenWidth)
+                    centerX += 20;
+            }
+        }//end of the updateNewFrame Method
+    }//end of the Wave Class
+    /**
+     * CloudOne Class - The nested class that holds the position of the group of clouds in the
+     * foreground.
+     */
+    final class CloudOne {
+        //Instance Variables
+        double centerX, centerY;
+
+        /**
+         * Default CloudOne Constructor - Creates an instance of CloudOne class
+         */
+        CloudOne() {
+            reset();
+
+        }//end of the CloudOne Constructor
+        /**
+         * reset Method - Places CloudOne at its initial position.
+         */
+        void reset() {
+            centerX = screenWidth / 1.3091;
+            centerY = screenHeight / 18;
+
+        }//end of the reset Method
+        /**
+         * updateNewFrame Method - Updates the centerX position of CloudOne that moves it across
+         * the world.
+         */
+        void updateNewFrame() {
+            if (centerX < 0) {
+                centerX = screenWidth + 700;
+            } else {
+                centerX -= 2;
+            }
+        }//end of the updateNewFrame Method for the CloudOne
+    }//end of the CloudOne Class
+    /**
+     * CloudTwo Class - The nested class that holds the position of the group of clouds behind
+     * the sun.
+     */
+    final class CloudTwo {
+        //Instance Variables
+        double centerX, centerY;
+
+        /**
+         * Default CloudTwo Constructor - Creates an instance CloudTwo class.
+         */
+        CloudTwo() {
+            reset();
+
+        }//end of the Default CloudTwo Constructor
+        /**
+         * reset Method - Places CloudTwo at its initial position.
+         */
+        void reset() {
+            centerX = screenWidth / 1.1520;
+            centerY = screenHeight / 23.0769;
+
+        }//end of the reset Method
+        /**
+         * updateNewFrame Method - Updates the centerX position of CloudTwo that moves it across the
+         * world.
+         */
+        void updateNewFrame() {
+            if (centerX < 0) {
+                centerX = screenWidth + 180;
+            } else {
+                centerX -= 3;
+            }
+        }//end of the updateNewFrame Method for CloudTwo
+    }//end of the CloudTwo Class
+    /**
+     * Sun Class - The nested class that holds the position of the Sun.
+     */
+    final class Sun {
+        //Instance Variables
+        double centerX;
+        double centerY;
+        static final int sunDiameter = 50;
+
+        /**
+         * Default Sun Constructor - Creates an instance of the Sun Class.
+         */
+        Sun() {
+            reset();
+
+        }//end of the Default Sun Constructor
+        /**
+         * reset Method - Places the Sun at its position.
+         */
+        void reset() {
+            centerX = screenWidth/1.200;
+            centerY = screenHeight/45.0;
+
+        }//end of the reset Method
+        /**
+         * updateNewFrame Method - Updates the sun.  The sun does not move, and its color has
+         * always stayed the same from frame to frame, so there is nothing to update.
+         */
+        void updateNewFrame() {
+        }//end of the updateNewFrame Method for the Sun
+    }//end of the Sun Class
+} // end of the GameWorld Class
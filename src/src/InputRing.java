@@ -0,0 +1,99 @@
+
+package src;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The InputRing Class carries the key events of the game from the event dispatch thread to the
+ * simulation.  It is a single-producer, single-consumer ring buffer: the key listener offers each
+ * event with the time it happened, and the world polls every event at the start of its next
+ * tick, so the state of the world is only ever changed by the thread that ticks it.  The events
+ * and their times are kept in primitive arrays, and the producer and the consumer each advance
+ * their own AtomicLong with an ordered write, so neither side takes a lock or allocates.  When
+ * the ring is full, an event is dropped and counted.
+ */
+final class InputRing {
+    //Class Variables
+    /*
+     * The keys of the game.  An event is a key, with the RELEASED bit set when the key goes up.
+     */
+    static final int LEFT = 0;
+    static final int RIGHT = 1;
+    static final int DROP = 2;
+    static final int RELEASED = 8;
+
+    //Instance Variables
+    private final int mask;
+    private final int[] events;
+    private final long[] times;
+    /** The number of events that have been polled, which is only advanced by the consumer */
+    private final AtomicLong head = new AtomicLong();
+    /** The number of events that have been offered, which is only advanced by the producer */
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long droppedCount;
+    private int event;//The last event that was polled
+    private long nanos;//The time of the last event that was polled
+
+    /**
+     * InputRing Constructor - Creates an empty ring.
+     * @param capacity - the number of events that the ring holds, which must be a power of two
+     */
+    InputRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+        mask = capacity - 1;
+        events = new int[capacity];
+        times = new long[capacity];
+
+    }//end of the InputRing Constructor
+    /**
+     * offer Method - Adds an event to the ring.  This must only be called by the producer.
+     * @param event - the key of the event, with the RELEASED bit set if the key went up
+     * @param nanos - the time of the event, from System.nanoTime
+     * @return Boolean - Returns true, if the event was added; otherwise, the ring is full and it
+     * returns false.
+     */
+    boolean offer(int event, long nanos) {
+        long t = tail.get();
+        if (t - head.get() == events.length) {
+            droppedCount++;
+            return false;
+        }
+        events[(int)t & mask] = event;
+        times[(int)t & mask] = nanos;
+        tail.lazySet(t + 1);//Publishes the event after its contents
+        return true;
+
+    }//end of the offer Method
+    /**
+     * poll Method - Takes the oldest event from the ring, which is then read with getEvent and
+     * getNanos.  This must only be called by the consumer.
+     * @return Boolean - Returns true, if an event was taken; otherwise, the ring is empty and it
+     * returns false.
+     */
+    boolean poll() {
+        long h = head.get();
+        if (h == tail.get())
+            return false;
+        event = events[(int)h & mask];
+        nanos = times[(int)h & mask];
+        head.lazySet(h + 1);//Frees the slot after it has been read
+        return true;
+
+    }//end of the poll Method
+    /**
+     * getEvent Method - Gets the last event that was polled.
+     * @return Int - Returns the key of the event, with the RELEASED bit set if the key went up.
+     */
+    int getEvent() {return event;}
+    /**
+     * getNanos Method - Gets the time of the last event that was polled.
+     * @return long - Returns the time of the event, from System.nanoTime.
+     */
+    long getNanos() {return nanos;}
+    /**
+     * getDroppedCount Method - Gets the number of events that were dropped because the ring was full.
+     * @return long - Returns the number of dropped events.
+     */
+    long getDroppedCount() {return droppedCount;}
+} // end of the InputRing Class
@@ -0,0 +1,115 @@
+
+package src;
+
+/**
+ * The Level Class holds the settings of a level of the game: the number of depth charges of a
+ * game, how many of them can be falling at once, how many submarines move along the bottom, and
+ * how many pixels a depth charge falls each tick.
+ * The CLASSIC level is the original game with 25 charges, one charge at a time, and one
+ * submarine.  The BARRAGE level lets the battleship keep hundreds of charges falling at once at
+ * a group of submarines.
+ */
+public final class Level {
+    //Class Variables
+    public static final Level CLASSIC = new Level("Classic", 25, 1, 1);
+    public static final Level BARRAGE = new Level("Barrage", 2000, 400, 12);
+    /** The pixels a depth charge falls each tick in the original game */
+    public static final int DEFAULT_CHARGE_SPEED = 10;
+
+    //Instance Variables
+    private final String name;
+    private final int numberOfCharges;
+    private final int maxLiveCharges;
+    private final int numberOfSubmarines;
+    private final int chargeSpeed;
+
+    /**
+     * Level Constructor - Creates an instance of the Level, whose depth charges fall at the
+     * DEFAULT_CHARGE_SPEED.
+     * @param name - the name of the level
+     * @param numberOfCharges - the number of depth charges of a game
+     * @param maxLiveCharges - the number of depth charges that can be falling at once
+     * @param numberOfSubmarines - the number of submarines
+     */
+    public Level(String name, int numberOfCharges, int maxLiveCharges, int numberOfSubmarines) {
+        this(name, numberOfCharges, maxLiveCharges, numberOfSubmarines, DEFAULT_CHARGE_SPEED);
+
+    }//end of the Level Constructor
+    /**
+     * Level Constructor - Creates an instance of the Level.
+     * @param name - the name of the level
+     * @param numberOfCharges - the number of depth charges of a game
+     * @param maxLiveCharges - the number of depth charges that can be falling at once
+     * @param numberOfSubmarines - the number of submarines
+     * @param chargeSpeed - the pixels a depth charge falls each tick
+     */
+    public Level(String name, int numberOfCharges, int maxLiveCharges, int numberOfSubmarines, int chargeSpeed) {
+        if (numberOfCharges < 1 || maxLiveCharges < 1 || numberOfSubmarines < 1)
+            throw new IllegalArgumentException("A level needs at least one charge and one submarine");
+        if (chargeSpeed < 1)
+            throw new IllegalArgumentException("A depth charge must fall at least one pixel each tick");
+        this.name = name;
+        this.numberOfCharges = numberOfCharges;
+        this.maxLiveCharges = maxLiveCharges;
+        this.numberOfSubmarines = numberOfSubmarines;
+        this.chargeSpeed = chargeSpeed;
+
+    }//end of the Level Constructor
+    /**
+     * withNumberOfCharges Method - Creates a copy of this level with a different number of depth
+     * charges.
+     * @param charges - the number of depth charges of a game
+     * @return Level - Returns the new level.
+     */
+    public Level withNumberOfCharges(int charges) {
+        return new Level(name, charges, maxLiveCharges, numberOfSubmarines, chargeSpeed);
+
+    }//end of the withNumberOfCharges Method
+    /**
+     * withChargeSpeed Method - Creates a copy of this level whose depth charges fall at a different
+     * speed.  Since the collisions of the depth charges are swept over their whole fall in a tick,
+     * a charge that falls further than the height of a submarine each tick still hits it, so the
+     * speed can be raised, or the ticks made longer, without losing any hit.
+     * @param speed - the pixels a depth charge falls each tick
+     * @return Level - Returns the new level.
+     */
+    public Level withChargeSpeed(int speed) {
+        return new Level(name, numberOfCharges, maxLiveCharges, numberOfSubmarines, speed);
+
+    }//end of the withChargeSpeed Method
+    /**
+     * getName Method - Gets the name of the level.
+     * @return String - Returns the name of the level.
+     */
+    public String getName() {return name;}
+    /**
+     * getNumberOfCharges Method - Gets the number of depth charges of a game.
+     * @return Int - Returns the number of depth charges.
+     */
+    public int getNumberOfCharges() {return numberOfCharges;}
+    /**
+     * getMaxLiveCharges Method - Gets the number of depth charges that can be falling at once.
+     * @return Int - Returns the number of live depth charges.
+     */
+    public int getMaxLiveCharges() {return maxLiveCharges;}
+    /**
+     * getNumberOfSubmarines Method - Gets the number of submarines.
+     * @return Int - Returns the number of submarines.
+     */
+    public int getNumberOfSubmarines() {return numberOfSubmarines;}
+    /**
+     * getChargeSpeed Method - Gets the speed of the depth charges.
+     * @return Int - Returns the pixels a depth charge falls each tick.
+     */
+    public int getChargeSpeed() {return chargeSpeed;}
+    /**
+     * toString Method - Describes the level.
+     * @return String - Returns the description of the level.
+     */
+    @Override
+    public String toString() {
+        return name + " (" + numberOfCharges + " charges, " + maxLiveCharges + " live, "
+                + numberOfSubmarines + " submarines" + (chargeSpeed == DEFAULT_CHARGE_SPEED ? ")" : ", " + chargeSpeed + " px/tick)");
+
+    }//end of the toString Method
+} // end of the Level Class
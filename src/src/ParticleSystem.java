@@ -0,0 +1,452 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParticleSystem Class holds the particles of the effects of the game: the fire of the
+ * explosions, the spray of the depth charges, the wake of the battleship, and the bubbles of the
+ * submarines.  The particles are kept in pooled primitive arrays of a fixed capacity, packed at the
+ * front of the arrays, so that emitting, updating, and drawing them never allocates, and a particle
+ * that dies is replaced by the last live particle.  When the pool is full, new particles are
+ * dropped and counted.  The positions are moved in chunks on a ForkJoinPool when there are enough
+ * particles for that to pay off.  The particles are not drawn one fillRect at a time, which costs
+ * the Graphics context far more than the few pixels of a particle, but written straight into the
+ * pixels of a translucent layer the size of the frame, once per update, and the layer is drawn in
+ * a batch of one drawImage per run of its tiles that hold particles.  The velocities are in pixels
+ * per tick of the world.  It must be updated and drawn by the same thread.
+ */
+final class ParticleSystem {
+    /**
+     * Kind Enum - The kinds of particles, with the range of their speed, direction, and lifetime in
+     * ticks, the gravity and drag that change their velocity every tick, their size in pixels, and
+     * the colors that they fade through over their lifetime.
+     */
+    enum Kind {
+        FIRE(0.5, 6, 0, 2 * Math.PI, 12, 30, -0.04, 0.88, 3,
+                new Color(255, 255, 190), Color.YELLOW, Color.ORANGE, new Color(200, 40, 20, 200)),
+        SPRAY(1.5, 5, -Math.PI / 2 - 0.6, -Math.PI / 2 + 0.6, 10, 22, 0.35, 0.97, 2,
+                Color.WHITE, new Color(230, 245, 255), new Color(190, 225, 250, 200), new Color(160, 210, 245, 110)),
+        WAKE(0, 0.8, 0, 2 * Math.PI, 20, 40, 0, 0.94, 3,
+                new Color(255, 255, 255, 210), new Color(240, 250, 255, 160), new Color(220, 240, 255, 110), new Color(200, 230, 255, 60)),
+        BUBBLE(0.2, 0.8, -Math.PI / 2 - 1, -Math.PI / 2 + 1, 20, 40, -0.03, 0.95, 2,
+                new Color(220, 240, 255, 200), new Color(200, 230, 255, 150), new Color(180, 220, 255, 100), new Color(160, 210, 255, 50));
+
+        //Instance Variables
+        final float minSpeed, maxSpeed;
+        final double minAngle, maxAngle;//the range of the direction in radians, where -PI/2 is up
+        final int minLife, maxLife;
+        final float gravity;//the pixels per tick that are added to the downward velocity every tick
+        final float drag;//the fraction of the velocity that is kept every tick
+        final int size;
+        final Color[] ramp;
+
+        /**
+         * Kind Constructor - Creates a kind of particle.
+         */
+        Kind(double minSpeed, double maxSpeed, double minAngle, double maxAngle, int minLife, int maxLife,
+                double gravity, double drag, int size, Color... ramp) {
+            this.minSpeed = (float)minSpeed;
+            this.maxSpeed = (float)maxSpeed;
+            this.minAngle = minAngle;
+            this.maxAngle = maxAngle;
+            this.minLife = minLife;
+            this.maxLife = maxLife;
+            this.gravity = (float)gravity;
+            this.drag = (float)drag;
+            this.size = size;
+            this.ramp = ramp;
+
+        }//end of the Kind Constructor
+    }//end of the Kind Enum
+
+    //Class Variables
+    static final int DEFAULT_CAPACITY = 65_536;
+    /** The number of colors that each kind fades through, which is the length of its ramp */
+    static final int RAMP_STEPS = 4;
+    /** The fewest particles for which the update is divided among the threads of the pool */
+    static final int PARALLEL_THRESHOLD = 8_192;
+    /** The width and height of a tile of the layer in pixels */
+    static final int TILE_SIZE = 64;
+    private static final Kind[] KINDS = Kind.values();
+    /*
+     * The GRAVITY, DRAG, and SIZE are the gravity, drag, and size of every kind by its ordinal, so
+     * that the loops over the particles read them from arrays instead of from the enum.
+     */
+    private static final float[] GRAVITY = new float[KINDS.length];
+    private static final float[] DRAG = new float[KINDS.length];
+    private static final int[] SIZE = new int[KINDS.length];
+    /** The PIXELS are the premultiplied ARGB pixels of the ramp of every kind, by kind and step */
+    private static final int[] PIXELS = new int[KINDS.length * RAMP_STEPS];
+    static {
+        for (Kind kind : KINDS) {
+            GRAVITY[kind.ordinal()] = kind.gravity;
+            DRAG[kind.ordinal()] = kind.drag;
+            SIZE[kind.ordinal()] = kind.size;
+            for (int step = 0; step < RAMP_STEPS; step++) {
+                Color color = kind.ramp[step];
+                int alpha = color.getAlpha();
+                PIXELS[kind.ordinal() * RAMP_STEPS + step] = alpha << 24 | (color.getRed() * alpha / 255) << 16
+                        | (color.getGreen() * alpha / 255) << 8 | color.getBlue() * alpha / 255;
+            }
+        }
+    }
+
+    //Instance Variables
+    final int capacity;
+    /*
+     * The x, y, vx, and vy are the position and the velocity of each particle, the age and the life
+     * are the number of ticks that it has lived and will live, and the kind is the ordinal of its
+     * Kind.  Only the first count particles are alive.
+     */
+    final float[] x, y, vx, vy;
+    final int[] age, life;
+    final byte[] kind;
+    int count;
+    private long dropped;//The number of particles that did not fit into the pool
+    /** The random places the new particles, apart from the GameRandom of the world */
+    private final GameRandom random;
+    /*
+     * The layer holds the particles of the last update as premultiplied ARGB pixels, which are
+     * written into its pixels array directly.  It is divided into tiles of TILE_SIZE pixels, and
+     * the isTileUsed is set for every tile that a particle was written into, which is all of the
+     * layer that is cleared and drawn.  The isRasterized is set once the particles of the last
+     * update have been written into the layer, so that the frames that are painted one dirty
+     * rectangle at a time write them only once.
+     */
+    private BufferedImage layer;
+    private int[] pixels;
+    private int layerWidth, layerHeight, tileColumns, tileRows;
+    private boolean[] isTileUsed;
+    private boolean isRasterized;
+    /*
+     * The left, top, right, and bottom are the bounds of the live particles of each kind, which are
+     * found when the dead particles are removed.
+     */
+    private final int[] left = new int[KINDS.length];
+    private final int[] top = new int[KINDS.length];
+    private final int[] right = new int[KINDS.length];
+    private final int[] bottom = new int[KINDS.length];
+    /*
+     * The pool moves the particles in parallel, if it is not null, with the update task that
+     * invokes every one of the chunks, which are created once and reinitialized every tick.
+     */
+    private final ForkJoinPool pool;
+    private final Chunk[] chunks;
+    private final Update update = new Update();
+
+    /**
+     * ParticleSystem Constructor - Creates an empty system.
+     * @param capacity - the largest number of live particles
+     * @param seed - the long seed of the GameRandom that places the particles
+     * @param pool - the ForkJoinPool that moves the particles in parallel, or null to move them on
+     * the thread that updates the system
+     */
+    ParticleSystem(int capacity, long seed, ForkJoinPool pool) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new int[capacity];
+        life = new int[capacity];
+        kind = new byte[capacity];
+        random = new GameRandom(seed);
+        this.pool = pool;
+        chunks = new Chunk[pool == null ? 0 : pool.getParallelism() * 4];
+        for (int i = 0; i < chunks.length; i++)
+            chunks[i] = new Chunk(i);
+        clear();
+
+    }//end of the ParticleSystem Constructor
+    /**
+     * emit Method - Emits particles of a kind from a point, each with a random speed, direction, and
+     * lifetime of its kind, and with the velocity of what emitted them added.
+     * @param particleKind - the Kind of the particles
+     * @param centerX - the x position to emit from
+     * @param centerY - the y position to emit from
+     * @param number - the number of particles to emit
+     * @param baseVx - the horizontal velocity that is added to each particle
+     * @param baseVy - the vertical velocity that is added to each particle
+     */
+    void emit(Kind particleKind, float centerX, float centerY, int number, float baseVx, float baseVy) {
+        byte ordinal = (byte)particleKind.ordinal();
+        for (int n = 0; n < number; n++) {
+            if (count == capacity) {
+                dropped += number - n;
+                return;
+            }
+            double angle = particleKind.minAngle + (particleKind.maxAngle - particleKind.minAngle) * random.nextDouble();
+            float speed = particleKind.minSpeed + (particleKind.maxSpeed - particleKind.minSpeed) * (float)random.nextDouble();
+            int i = count++;
+            x[i] = centerX;
+            y[i] = centerY;
+            vx[i] = baseVx + speed * (float)Math.cos(angle);
+            vy[i] = baseVy + speed * (float)Math.sin(angle);
+            age[i] = 0;
+            life[i] = particleKind.minLife + (int)((particleKind.maxLife - particleKind.minLife + 1) * random.nextDouble());
+            kind[i] = ordinal;
+            expand(ordinal, centerX, centerY);
+            isRasterized = false;
+        }
+    }//end of the emit Method
+    /**
+     * update Method - Moves every particle by one tick, and removes the particles that have lived
+     * their lifetime.  The particles are moved in parallel when there are enough of them and the
+     * system has a pool, and removed on the thread that updates the system.
+     */
+    void update() {
+        if (pool != null && count >= PARALLEL_THRESHOLD) {
+            for (Chunk chunk : chunks)
+                chunk.reinitialize();
+            update.reinitialize();
+            pool.invoke(update);
+        } else {
+            move(0, count);
+        }
+        isRasterized = false;
+        for (int k = 0; k < KINDS.length; k++)
+            resetBounds(k);
+        int i = 0;
+        while (i < count) {
+            if (age[i] >= life[i]) {
+                remove(i);
+            } else {
+                expand(kind[i], x[i], y[i]);
+                i++;
+            }
+        }
+    }//end of the update Method
+    /**
+     * move Method - Moves a range of the particles by one tick, and ages them.
+     * @param from - the index of the first particle
+     * @param to - the index after the last particle
+     */
+    void move(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int k = kind[i];
+            float drag = DRAG[k];
+            vx[i] *= drag;
+            vy[i] = vy[i] * drag + GRAVITY[k];
+            x[i] += vx[i];
+            y[i] += vy[i];
+            age[i]++;
+        }
+    }//end of the move Method
+    /**
+     * remove Method - Returns a particle to the pool, by moving the last live particle into its place.
+     * @param i - the index of the particle
+     */
+    private void remove(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        vx[i] = vx[count];
+        vy[i] = vy[count];
+        age[i] = age[count];
+        life[i] = life[count];
+        kind[i] = kind[count];
+
+    }//end of the remove Method
+    /**
+     * draw Method - Draws every particle as a square of the size of its kind, in the color of the
+     * step of its ramp that its age has reached.  The particles are written into the layer the
+     * first time that they are drawn after an update, and the blits of the runs of the used tiles
+     * of each row of tiles from the layer are recorded into the DisplayList.
+     * @param list - the DisplayList of the frame
+     * @param width - the width of the frame
+     * @param height - the height of the frame
+     */
+    void draw(DisplayList list, int width, int height) {
+        if (layer == null || width != layerWidth || height != layerHeight)
+            createLayer(width, height);
+        if (!isRasterized)
+            rasterize();
+        for (int row = 0; row < tileRows; row++) {
+            int column = 0;
+            while (column < tileColumns) {
+                if (!isTileUsed[row * tileColumns + column]) {
+                    column++;
+                    continue;
+                }
+                int first = column;
+                while (column < tileColumns && isTileUsed[row * tileColumns + column])
+                    column++;
+                int x0 = first * TILE_SIZE, y0 = row * TILE_SIZE;
+                int x1 = Math.min(layerWidth, column * TILE_SIZE), y1 = Math.min(layerHeight, y0 + TILE_SIZE);
+                list.region(layer, "particles", x0, y0, x1, y1);
+            }
+        }
+    }//end of the draw Method
+    /**
+     * createLayer Method - Creates the layer of the given size, which only happens again when the
+     * size of the frame changes.
+     */
+    private void createLayer(int width, int height) {
+        layerWidth = Math.max(1, width);
+        layerHeight = Math.max(1, height);
+        layer = new BufferedImage(layerWidth, layerHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        tileColumns = (layerWidth + TILE_SIZE - 1) / TILE_SIZE;
+        tileRows = (layerHeight + TILE_SIZE - 1) / TILE_SIZE;
+        isTileUsed = new boolean[tileColumns * tileRows];
+        isRasterized = false;
+
+    }//end of the createLayer Method
+    /**
+     * rasterize Method - Clears the tiles of the layer that were used, and writes the square of
+     * every particle that is inside the layer into its pixels, marking the tiles that it covers.
+     * A particle that is written later covers the particles under it.
+     */
+    private void rasterize() {
+        for (int t = 0; t < isTileUsed.length; t++) {
+            if (isTileUsed[t]) {
+                int x0 = (t % tileColumns) * TILE_SIZE, y0 = (t / tileColumns) * TILE_SIZE;
+                int x1 = Math.min(layerWidth, x0 + TILE_SIZE), y1 = Math.min(layerHeight, y0 + TILE_SIZE);
+                for (int py = y0; py < y1; py++)
+                    Arrays.fill(pixels, py * layerWidth + x0, py * layerWidth + x1, 0);
+                isTileUsed[t] = false;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int k = kind[i];
+            int size = SIZE[k];
+            int x0 = (int)x[i] - size / 2, y0 = (int)y[i] - size / 2;
+            int x1 = Math.min(layerWidth, x0 + size), y1 = Math.min(layerHeight, y0 + size);
+            x0 = Math.max(0, x0);
+            y0 = Math.max(0, y0);
+            if (x0 >= x1 || y0 >= y1)
+                continue;
+            int pixel = PIXELS[k * RAMP_STEPS + Math.min(RAMP_STEPS - 1, age[i] * RAMP_STEPS / life[i])];
+            for (int py = y0; py < y1; py++) {
+                int offset = py * layerWidth;
+                for (int px = x0; px < x1; px++)
+                    pixels[offset + px] = pixel;
+            }
+            int left = x0 / TILE_SIZE, right = (x1 - 1) / TILE_SIZE;
+            int top = y0 / TILE_SIZE * tileColumns, bottom = (y1 - 1) / TILE_SIZE * tileColumns;
+            isTileUsed[top + left] = true;
+            isTileUsed[top + right] = true;
+            isTileUsed[bottom + left] = true;
+            isTileUsed[bottom + right] = true;
+        }
+        isRasterized = true;
+
+    }//end of the rasterize Method
+    /**
+     * addBounds Method - Adds the bounds of the live particles of each kind to a region.
+     * @param region - the DirtyRegion to add the bounds to
+     */
+    void addBounds(DirtyRegion region) {
+        for (int k = 0; k < KINDS.length; k++) {
+            if (right[k] > left[k]) {
+                int half = SIZE[k] / 2 + 1;//The squares reach half their size past the position, plus its rounding.
+                region.add(left[k] - half, top[k] - half, right[k] - left[k] + 2 * half, bottom[k] - top[k] + 2 * half);
+            }
+        }
+    }//end of the addBounds Method
+    /**
+     * expand Method - Grows the bounds of a kind to include a position.
+     */
+    private void expand(int k, float px, float py) {
+        int ix = (int)px, iy = (int)py;
+        if (right[k] <= left[k]) {
+            left[k] = ix;
+            top[k] = iy;
+            right[k] = ix + 1;
+            bottom[k] = iy + 1;
+            return;
+        }
+        if (ix < left[k]) left[k] = ix;
+        if (iy < top[k]) top[k] = iy;
+        if (ix >= right[k]) right[k] = ix + 1;
+        if (iy >= bottom[k]) bottom[k] = iy + 1;
+
+    }//end of the expand Method
+    /**
+     * resetBounds Method - Empties the bounds of a kind.
+     */
+    private void resetBounds(int k) {
+        left[k] = top[k] = right[k] = bottom[k] = 0;
+
+    }//end of the resetBounds Method
+    /**
+     * clear Method - Removes every particle.
+     */
+    void clear() {
+        count = 0;
+        isRasterized = false;
+        for (int k = 0; k < KINDS.length; k++)
+            resetBounds(k);
+
+    }//end of the clear Method
+    /**
+     * getCount Method - Gets the number of live particles.
+     * @return Int - Returns the number of particles.
+     */
+    int getCount() {return count;}
+    /**
+     * getDropped Method - Gets the number of particles that were not emitted because the pool was
+     * full.
+     * @return long - Returns the number of particles.
+     */
+    long getDropped() {return dropped;}
+    /**
+     * isParallel Method - Determines whether the system moves its particles in parallel once there
+     * are enough of them.
+     * @return Boolean - Returns true, if the system has a pool; otherwise, it returns false.
+     */
+    boolean isParallel() {return pool != null;}
+    /**
+     * Update Class - This nested class is the RecursiveAction that moves all the particles, by
+     * invoking every chunk.
+     */
+    private final class Update extends RecursiveAction {
+        //Class Variables
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * compute Method - Invokes the chunks and waits for all of them.
+         */
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(chunks);
+
+        }//end of the compute Method for the Update Class
+    }//end of the Update Class
+    /**
+     * Chunk Class - This nested class is the RecursiveAction that moves one of the equal ranges of
+     * the live particles.
+     */
+    private final class Chunk extends RecursiveAction {
+        //Class Variables
+        private static final long serialVersionUID = 1L;
+
+        //Instance Variables
+        private final int index;
+
+        /**
+         * Chunk Constructor - Creates the chunk of the given index.
+         * @param index - the index of the chunk
+         */
+        Chunk(int index) {
+            this.index = index;
+
+        }//end of the Chunk Constructor
+        /**
+         * compute Method - Moves the range of the particles of the chunk.
+         */
+        @Override
+        protected void compute() {
+            int n = chunks.length;
+            move((int)((long)count * index / n), (int)((long)count * (index + 1) / n));
+
+        }//end of the compute Method for the Chunk Class
+    }//end of the Chunk Class
+} // end of the ParticleSystem Class
@@ -0,0 +1,105 @@
+
+package src;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The PhaseHistogram Class records the durations of a phase of a frame in nanoseconds.  Each
+ * power of two is divided into SUB_BUCKETS buckets, so every recorded duration falls into a
+ * bucket whose width is at most one eighth of its value, and the percentiles are read from the
+ * counts of the buckets.  Recording only increments an AtomicLongArray and raises the maximum
+ * with a compare-and-set, so it takes no lock and does not allocate, and the histogram can be
+ * read from another thread, such as the thread of a JMX client, while a frame is recorded.
+ */
+final class PhaseHistogram {
+    //Class Variables
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    //Instance Variables
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * record Method - Adds a duration to the histogram.  A negative duration is recorded as zero.
+     * @param nanos - the duration in nanoseconds
+     */
+    void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        counts.incrementAndGet(bucketIndex(nanos));
+        count.incrementAndGet();
+        long previous;
+        while (nanos > (previous = max.get()) && !max.compareAndSet(previous, nanos)) {
+            //Another thread raised the maximum first, so it is compared again.
+        }
+    }//end of the record Method
+    /**
+     * getPercentile Method - Gets the duration that the given fraction of the recorded durations
+     * do not exceed, which is the upper edge of its bucket, and never more than the maximum.
+     * @param fraction - the fraction of the durations, from 0 to 1
+     * @return long - Returns the duration in nanoseconds, or 0 if nothing has been recorded.
+     */
+    long getPercentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += counts.get(i);
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long)Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(bucketUpperEdge(i), max.get());
+        }
+        return max.get();
+
+    }//end of the getPercentile Method
+    /**
+     * getCount Method - Gets the number of recorded durations.
+     * @return long - Returns the number of durations.
+     */
+    long getCount() {return count.get();}
+    /**
+     * getMax Method - Gets the longest recorded duration.
+     * @return long - Returns the duration in nanoseconds.
+     */
+    long getMax() {return max.get();}
+    /**
+     * reset Method - Removes every recorded duration.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.set(0);
+        max.set(0);
+
+    }//end of the reset Method
+    /**
+     * bucketIndex Method - Gets the bucket of a duration.  The durations below SUB_BUCKETS have a
+     * bucket each, and every larger power of two is divided into SUB_BUCKETS buckets.
+     */
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int)nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int)(nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+
+    }//end of the bucketIndex Method
+    /**
+     * bucketUpperEdge Method - Gets the longest duration of a bucket.
+     */
+    private static long bucketUpperEdge(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long)(SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+
+    }//end of the bucketUpperEdge Method
+} // end of the PhaseHistogram Class
@@ -0,0 +1,208 @@
+
+package src;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The ReplayPlayer Class plays a game that was recorded by the ReplayRecorder again, headless and
+ * as fast as the CPU allows.  It creates the world from the seed, size, and level in the log,
+ * applies every recorded input before the tick it was applied in, and ticks the world until the
+ * tick of the END record.  Then it checks the hits and misses of the world against the score in
+ * the log, so that a recording both reproduces a game and tests that the simulation still plays
+ * it the same way.  It is run with "java src.ReplayPlayer replay...", and it exits with a failure
+ * if any replay does not match.
+ */
+public final class ReplayPlayer {
+    //Instance Variables
+    private final Path file;
+    private GameWorld world;
+    private boolean isEndRecorded;
+    private int expectedHits, expectedMisses;
+    private boolean isGameOverExpected;
+    private long ticks;
+    private long elapsedNanos;
+
+    /**
+     * ReplayPlayer Constructor - Creates a player of a log.
+     * @param file - the Path of the log
+     */
+    public ReplayPlayer(Path file) {
+        this.file = file;
+
+    }//end of the ReplayPlayer Constructor
+    /**
+     * play Method - Reads the log, and plays its game from the first tick to the last.
+     * @return Boolean - Returns true, if the game ended with the recorded score; otherwise, it
+     * returns false.
+     * @throws IOException - if the log cannot be read, or is not a replay
+     */
+    public boolean play() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long start = System.nanoTime();
+            try {
+                world = readHeader(log);
+                playRecords(log);
+            } catch (BufferUnderflowException e) {
+                throw new IOException("The replay " + file + " is cut off", e);
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+        return matches();
+
+    }//end of the play Method
+    /**
+     * readHeader Method - Reads the header of the log, and creates the world that it describes.
+     * @param log - the log, positioned at its beginning
+     * @return GameWorld - Returns the world of the recorded game.
+     * @throws IOException - if the log is not a replay of this version
+     */
+    private GameWorld readHeader(MappedByteBuffer log) throws IOException {
+        if (log.remaining() < 4 || log.getInt() != ReplayRecorder.MAGIC)
+            throw new IOException(file + " is not a replay");
+        short version = log.getShort();
+        if (version != ReplayRecorder.VERSION)
+            throw new IOException("The replay " + file + " has the unknown version " + version);
+        long seed = log.getLong();
+        int width = log.getInt();
+        int height = log.getInt();
+        byte[] name = new byte[log.getShort()];
+        log.get(name);
+        Level level = new Level(new String(name, StandardCharsets.UTF_8), log.getInt(), log.getInt(), log.getInt(), log.getInt());
+        return new GameWorld(width, height, new GameRandom(seed), level);
+
+    }//end of the readHeader Method
+    /**
+     * playRecords Method - Applies each record of the log, ticking the world up to the tick of
+     * each record first.
+     * @param log - the log, positioned after its header
+     * @throws IOException - if the log holds an unknown record
+     */
+    private void playRecords(MappedByteBuffer log) throws IOException {
+        long tick = 0;
+        while (log.hasRemaining()) {
+            int action = log.get() & 0xFF;
+            if (action == 0)
+                break;//The game did not end, so the rest of the log was never written.
+            tick += getVarint(log);
+            tickUntil(tick);
+            if (action == ReplayRecorder.END) {
+                expectedHits = (int)getVarint(log);
+                expectedMisses = (int)getVarint(log);
+                isGameOverExpected = log.get() != 0;
+                isEndRecorded = true;
+                if (isGameOverExpected)
+                    tickOnce();//The tick that finds the game over does not count as a tick.
+                return;
+            } else if (action == ReplayRecorder.MOVE) {
+                int zigzag = (int)getVarint(log);
+                world.moveBattleship((zigzag >>> 1) ^ -(zigzag & 1));
+            } else if (action == ReplayRecorder.DROP) {
+                world.dropDepthCharge();
+            } else if (action >= ReplayRecorder.KEY && action <= ReplayRecorder.KEY + (InputRing.DROP | InputRing.RELEASED)) {
+                world.applyKey(action - ReplayRecorder.KEY);
+            } else {
+                throw new IOException("The replay " + file + " has the unknown record " + action);
+            }
+        }
+    }//end of the playRecords Method
+    /**
+     * tickUntil Method - Ticks the world until it has counted the given tick, or the game is over.
+     */
+    private void tickUntil(long tick) {
+        while (world.getTickCount() < tick && !world.isGameOver())
+            tickOnce();
+
+    }//end of the tickUntil Method
+    /**
+     * tickOnce Method - Ticks the world once, and counts the tick.
+     */
+    private void tickOnce() {
+        world.tick();
+        ticks++;
+
+    }//end of the tickOnce Method
+    /**
+     * getVarint Method - Reads a number that was written by the ReplayRecorder in 7 bit groups.
+     */
+    private static long getVarint(MappedByteBuffer log) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = log.get();
+            value |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+
+    }//end of the getVarint Method
+    /**
+     * matches Method - Determines whether the game ended with the score in the log.  A log without
+     * an END record was cut off by a crash, so it cannot be checked, and it does not match.
+     * @return Boolean - Returns true, if the score matches; otherwise, it returns false.
+     */
+    public boolean matches() {
+        return isEndRecorded && world.getScore() == expectedHits && world.getMisses() == expectedMisses
+                && world.isGameOver() == isGameOverExpected;
+
+    }//end of the matches Method
+    /**
+     * getWorld Method - Gets the world that the replay was played in.
+     * @return GameWorld - Returns the world, or null if the replay has not been played.
+     */
+    public GameWorld getWorld() {return world;}
+    /**
+     * getTicks Method - Gets the number of ticks that were played.
+     * @return long - Returns the number of ticks.
+     */
+    public long getTicks() {return ticks;}
+    /**
+     * getElapsedNanos Method - Gets the time that playing the replay took.
+     * @return long - Returns the time in nanoseconds.
+     */
+    public long getElapsedNanos() {return elapsedNanos;}
+    /**
+     * toString Method - Describes the result of the replay.
+     * @return String - Returns the description of the result.
+     */
+    @Override
+    public String toString() {
+        if (world == null)
+            return file + ": not played";
+        String score = world.getScore() + " hits, " + world.getMisses() + " misses";
+        String recorded = isEndRecorded ? expectedHits + " hits, " + expectedMisses + " misses" : "no END record";
+        return String.format("%s: %s (%s) in %d ticks, %.0f ticks/s", file, matches() ? "MATCH" : "MISMATCH",
+                matches() ? score : score + " instead of " + recorded, ticks,
+                elapsedNanos == 0 ? 0.0 : ticks * 1e9 / elapsedNanos);
+
+    }//end of the toString Method
+    /**
+     * main Method - Plays every replay given as an argument, and exits with a failure if any of
+     * them does not match.
+     * @param args - String[] the paths of the replays
+     */
+    public static void main(String[] args) {
+        boolean isEveryReplayMatched = true;
+        for (String arg : args) {
+            ReplayPlayer player = new ReplayPlayer(Paths.get(arg));
+            try {
+                player.play();
+                System.out.println(player);
+                isEveryReplayMatched &= player.matches();
+            } catch (IOException e) {
+                System.out.println(arg + ": " + e.getMessage());
+                isEveryReplayMatched = false;
+            }
+        }
+        if (!isEveryReplayMatched)
+            System.exit(1);
+    }//end of the main Method
+} // end of the ReplayPlayer Class
@@ -0,0 +1,180 @@
+
+package src;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The ReplayRecorder Class records a game into a compact, append-only binary log, so that the
+ * game can be played again exactly by the ReplayPlayer.  Since all the randomness of a GameWorld
+ * comes from its seed, the log only holds the seed, the size and level of the world, and every
+ * input that the world applied, with the tick it was applied in.  The log is written through a
+ * memory-mapped FileChannel, one region of REGION_SIZE bytes at a time, so that recording an
+ * input is a few puts into memory, and the log survives a crash of the game.
+ *
+ * The log begins with the header: the MAGIC int, the VERSION short, the seed long, the width and
+ * height ints, the name of the level as a short length and UTF-8 bytes, and the number of charges,
+ * live charges, and submarines, and the speed of the charges of the level as ints.  Then each
+ * record is an action byte, the number of ticks since the previous record as a varint, and the data
+ * of the action:
+ * <ul>
+ *   <li>1 + an InputRing event, for a key that went down or up, with no data.</li>
+ *   <li>MOVE, for a call of moveBattleship, with the pixels as a zigzag varint.</li>
+ *   <li>DROP, for a call of dropDepthCharge, with no data.</li>
+ *   <li>END, with the hits and misses as varints and the game over flag as a byte.</li>
+ * </ul>
+ * The log ends at the END record, or at the first zero action byte if the game did not end.
+ */
+final class ReplayRecorder implements Closeable {
+    //Class Variables
+    static final int MAGIC = 0x534B5250;//"SKRP"
+    /** The version 2 added the speed of the charges, whose collisions are swept since then */
+    static final short VERSION = 2;
+    static final int KEY = 1;
+    static final int MOVE = 0x40;
+    static final int DROP = 0x41;
+    static final int END = 0x7F;
+    static final int REGION_SIZE = 64 * 1024;
+    /** The largest number of bytes of a record */
+    private static final int MAX_RECORD_SIZE = 1 + 10 + 5 + 5 + 1;
+
+    //Instance Variables
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long lastTick;
+    private boolean isClosed;
+
+    /**
+     * ReplayRecorder Constructor - Creates the log of a world that has not ticked yet, and writes
+     * its header.
+     * @param file - the Path of the log, which is replaced if it exists
+     * @param world - the GameWorld to record
+     * @throws IOException - if the log cannot be created
+     */
+    ReplayRecorder(Path file, GameWorld world) throws IOException {
+        if (world.getTickCount() != 0)
+            throw new IllegalStateException("A world can only be recorded from its first tick");
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        region = channel.map(FileChannel.MapMode.READ_WRITE, 0, REGION_SIZE);
+        Level level = world.getLevel();
+        byte[] name = level.getName().getBytes(StandardCharsets.UTF_8);
+        region.putInt(MAGIC);
+        region.putShort(VERSION);
+        region.putLong(world.getSeed());
+        region.putInt(world.getScreenWidth());
+        region.putInt(world.getScreenHeight());
+        region.putShort((short)name.length);
+        region.put(name);
+        region.putInt(level.getNumberOfCharges());
+        region.putInt(level.getMaxLiveCharges());
+        region.putInt(level.getNumberOfSubmarines());
+        region.putInt(level.getChargeSpeed());
+
+    }//end of the ReplayRecorder Constructor
+    /**
+     * recordKey Method - Records a key event that the world applied.
+     * @param tick - the tick the event was applied in
+     * @param event - the InputRing event
+     */
+    void recordKey(long tick, int event) {
+        begin(KEY + event, tick);
+
+    }//end of the recordKey Method
+    /**
+     * recordMove Method - Records a call of moveBattleship.
+     * @param tick - the tick that the call came before
+     * @param dx - the pixels that the battleship was moved
+     */
+    void recordMove(long tick, int dx) {
+        if (begin(MOVE, tick))
+            putVarint((dx << 1) ^ (dx >> 31));
+
+    }//end of the recordMove Method
+    /**
+     * recordDrop Method - Records a call of dropDepthCharge.
+     * @param tick - the tick that the call came before
+     */
+    void recordDrop(long tick) {
+        begin(DROP, tick);
+
+    }//end of the recordDrop Method
+    /**
+     * begin Method - Writes the action and the ticks since the previous record, after mapping the
+     * next region of the log if the record might not fit into the current one.
+     * @return Boolean - Returns true, if the record was begun; otherwise, the log is closed.
+     */
+    private boolean begin(int action, long tick) {
+        if (isClosed)
+            return false;
+        if (region.remaining() < MAX_RECORD_SIZE) {
+            try {
+                regionStart += region.position();
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+            } catch (IOException e) {
+                System.err.println("The replay " + file + " could not be written: " + e);
+                isClosed = true;
+                return false;
+            }
+        }
+        region.put((byte)action);
+        putVarint(tick - lastTick);
+        lastTick = tick;
+        return true;
+
+    }//end of the begin Method
+    /**
+     * putVarint Method - Writes a non-negative number in 7 bit groups, lowest first, with the high
+     * bit of each byte set when more groups follow.
+     */
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            region.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        region.put((byte)value);
+
+    }//end of the putVarint Method
+    /**
+     * finish Method - Records the end of the game with its score, and closes the log.
+     * @param world - the GameWorld that was recorded
+     * @throws IOException - if the log cannot be completed
+     */
+    void finish(GameWorld world) throws IOException {
+        if (begin(END, world.getTickCount())) {
+            putVarint(world.getScore());
+            putVarint(world.getMisses());
+            region.put((byte)(world.isGameOver() ? 1 : 0));
+        }
+        close();
+
+    }//end of the finish Method
+    /**
+     * close Method - Writes the log to the disk, and cuts off the unused end of its last region.
+     * @throws IOException - if the log cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (!isClosed) {
+            isClosed = true;
+            region.force();
+        }
+        if (channel.isOpen()) {
+            channel.truncate(regionStart + region.position());
+            channel.close();
+        }
+    }//end of the close Method
+    /**
+     * getFile Method - Gets the path of the log.
+     * @return Path - Returns the path of the log.
+     */
+    Path getFile() {return file;}
+} // end of the ReplayRecorder Class
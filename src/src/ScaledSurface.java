@@ -0,0 +1,256 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * The ScaledSurface Class draws the game at a logical resolution that does not depend on the size
+ * of the panel.  The frame is rendered into an offscreen image of the logical size, and the image
+ * is upscaled onto the panel once per frame with the chosen interpolation, so the cost of filling
+ * the frame follows the logical resolution instead of the display.  The logical size is either a
+ * fraction of the panel, the render scale, or a fixed resolution, which is scaled evenly to fit the
+ * panel with black bars at its sides.  Only the part of the image under the clip of the panel is
+ * rendered and upscaled, so the dirty region of a frame stays small at any scale.  When the panel
+ * is drawn on a screen, the image is an accelerated VolatileImage that is rendered again when its
+ * contents are lost; when it is drawn into an image, the image is a compatible BufferedImage.
+ */
+final class ScaledSurface {
+    /**
+     * Interpolation Enum - The filters that the image can be upscaled with.
+     */
+    enum Interpolation {
+        NEAREST(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR),
+        BILINEAR(RenderingHints.VALUE_INTERPOLATION_BILINEAR),
+        BICUBIC(RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+
+        final Object hint;
+
+        Interpolation(Object hint) {
+            this.hint = hint;
+        }
+    }//end of the Interpolation Enum
+    /**
+     * Painter Interface - Renders a frame of the given logical size.
+     */
+    interface Painter {
+        void paint(Graphics2D g2d, int width, int height);
+    }//end of the Painter Interface
+
+    //Class Variables
+    private static final Color BAR_COLOR = Color.BLACK;
+
+    //Instance Variables
+    private final double renderScale;//The fraction of the panel, or 0 for a fixed resolution
+    private final int fixedWidth, fixedHeight;
+    private final Interpolation interpolation;
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private Graphics2D bufferedGraphics;//Kept with the BufferedImage, so a frame does not allocate one
+    /** Set to false when the image no longer holds the last frame, so it is rendered whole */
+    private boolean isImageValid;
+    /*
+     * The width and height are the logical size, and the image is upscaled into the rectangle of
+     * the panel from targetX, targetY to targetX + targetWidth, targetY + targetHeight.
+     */
+    private int width, height;
+    private int panelWidth, panelHeight;
+    private int targetX, targetY, targetWidth, targetHeight;
+    private final Rectangle clip = new Rectangle();
+
+    /**
+     * ScaledSurface Constructor - Creates a surface of a render scale or of a fixed resolution.
+     */
+    private ScaledSurface(double renderScale, int fixedWidth, int fixedHeight, Interpolation interpolation) {
+        this.renderScale = renderScale;
+        this.fixedWidth = fixedWidth;
+        this.fixedHeight = fixedHeight;
+        this.interpolation = interpolation;
+
+    }//end of the ScaledSurface Constructor
+    /**
+     * ofScale Method - Creates a surface whose logical size is a fraction of the size of the panel.
+     * @param renderScale - the fraction, such as 0.5, or 1 to render at the size of the panel
+     * @param interpolation - the Interpolation of the upscale
+     * @return ScaledSurface - Returns the surface.
+     */
+    static ScaledSurface ofScale(double renderScale, Interpolation interpolation) {
+        if (!(renderScale > 0 && renderScale <= 1))
+            throw new IllegalArgumentException("The render scale must be above 0 and at most 1: " + renderScale);
+        return new ScaledSurface(renderScale, 0, 0, interpolation);
+
+    }//end of the ofScale Method
+    /**
+     * ofResolution Method - Creates a surface of a fixed logical resolution.
+     * @param width - the logical width in pixels
+     * @param height - the logical height in pixels
+     * @param interpolation - the Interpolation of the upscale
+     * @return ScaledSurface - Returns the surface.
+     */
+    static ScaledSurface ofResolution(int width, int height, Interpolation interpolation) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The resolution must be positive: " + width + "x" + height);
+        return new ScaledSurface(0, width, height, interpolation);
+
+    }//end of the ofResolution Method
+    /**
+     * layout Method - Computes the logical size and the target rectangle for a size of the panel.
+     * @param newPanelWidth - the width of the panel
+     * @param newPanelHeight - the height of the panel
+     */
+    void layout(int newPanelWidth, int newPanelHeight) {
+        if (newPanelWidth == panelWidth && newPanelHeight == panelHeight && width > 0)
+            return;
+        panelWidth = newPanelWidth;
+        panelHeight = newPanelHeight;
+        if (renderScale > 0) {
+            width = Math.max(1, (int)Math.round(panelWidth * renderScale));
+            height = Math.max(1, (int)Math.round(panelHeight * renderScale));
+            targetX = 0;
+            targetY = 0;
+            targetWidth = panelWidth;
+            targetHeight = panelHeight;
+        } else {
+            width = fixedWidth;
+            height = fixedHeight;
+            double scale = Math.min(panelWidth / (double)width, panelHeight / (double)height);
+            targetWidth = (int)Math.round(width * scale);
+            targetHeight = (int)Math.round(height * scale);
+            targetX = (panelWidth - targetWidth) / 2;
+            targetY = (panelHeight - targetHeight) / 2;
+        }
+        isImageValid = false;
+
+    }//end of the layout Method
+    /**
+     * isNative Method - Determines whether the logical size is the size of the panel, so that the
+     * frame can be drawn onto the panel directly.
+     * @return Boolean - Returns true, if the frame is not scaled; otherwise, it returns false.
+     */
+    boolean isNative() {
+        return width == panelWidth && height == panelHeight;
+
+    }//end of the isNative Method
+    /**
+     * getWidth Method - Gets the logical width.
+     * @return Int - Returns the logical width in pixels.
+     */
+    int getWidth() {return width;}
+    /**
+     * getHeight Method - Gets the logical height.
+     * @return Int - Returns the logical height in pixels.
+     */
+    int getHeight() {return height;}
+    /**
+     * draw Method - Renders the part of the frame under the clip of the panel into the image, and
+     * upscales it onto the panel.  The whole frame is rendered when the image does not hold the
+     * last frame.
+     * @param g2d - the Graphics context of the panel
+     * @param painter - the Painter of the frame
+     */
+    void draw(Graphics2D g2d, Painter painter) {
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (gc == null || gc.getDevice().getType() == GraphicsDevice.TYPE_IMAGE_BUFFER) {
+            if (bufferedImage == null || bufferedImage.getWidth() != width || bufferedImage.getHeight() != height) {
+                if (bufferedImage != null) {
+                    bufferedGraphics.dispose();
+                    bufferedImage.flush();
+                }
+                bufferedImage = gc != null ? gc.createCompatibleImage(width, height)
+                        : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                bufferedGraphics = bufferedImage.createGraphics();
+                isImageValid = false;
+            }
+            bufferedGraphics.setClip(null);
+            render(bufferedGraphics, g2d, painter);
+            upscale(g2d, bufferedImage);
+        } else {
+            if (volatileImage == null || volatileImage.getWidth() != width || volatileImage.getHeight() != height) {
+                if (volatileImage != null)
+                    volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(width, height);
+                isImageValid = false;
+            }
+            do {
+                int status = volatileImage.validate(gc);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    volatileImage.flush();
+                    volatileImage = gc.createCompatibleVolatileImage(width, height);
+                }
+                if (status != VolatileImage.IMAGE_OK)
+                    isImageValid = false;
+                Graphics2D g = volatileImage.createGraphics();
+                render(g, g2d, painter);
+                g.dispose();
+                upscale(g2d, volatileImage);
+                if (volatileImage.contentsLost())
+                    isImageValid = false;
+            } while (!isImageValid);
+        }
+    }//end of the draw Method
+    /**
+     * render Method - Renders the part of the frame that is under the clip of the panel, grown by
+     * a logical pixel on every side for the filter of the upscale, or the whole frame.
+     */
+    private void render(Graphics2D g, Graphics2D panel, Painter painter) {
+        clip.setBounds(0, 0, panelWidth, panelHeight);//This stays, if the panel has no clip.
+        Rectangle panelClip = panel.getClipBounds(clip);
+        if (isImageValid) {
+            int x0 = Math.max(0, (int)Math.floor((double)(panelClip.x - targetX) * width / targetWidth) - 1);
+            int y0 = Math.max(0, (int)Math.floor((double)(panelClip.y - targetY) * height / targetHeight) - 1);
+            int x1 = Math.min(width, (int)Math.ceil((double)(panelClip.x + panelClip.width - targetX) * width / targetWidth) + 1);
+            int y1 = Math.min(height, (int)Math.ceil((double)(panelClip.y + panelClip.height - targetY) * height / targetHeight) + 1);
+            if (x1 <= x0 || y1 <= y0)
+                return;
+            g.clipRect(x0, y0, x1 - x0, y1 - y0);
+        }
+        painter.paint(g, width, height);
+        isImageValid = true;
+
+    }//end of the render Method
+    /**
+     * upscale Method - Draws the image into the target rectangle of the panel, and fills the bars
+     * around it.
+     */
+    private void upscale(Graphics2D g2d, Image image) {
+        if (targetWidth < panelWidth || targetHeight < panelHeight) {
+            g2d.setColor(BAR_COLOR);
+            g2d.fillRect(0, 0, panelWidth, targetY);
+            g2d.fillRect(0, targetY + targetHeight, panelWidth, panelHeight - targetY - targetHeight);
+            g2d.fillRect(0, targetY, targetX, targetHeight);
+            g2d.fillRect(targetX + targetWidth, targetY, panelWidth - targetX - targetWidth, targetHeight);
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation.hint);
+        g2d.drawImage(image, targetX, targetY, targetX + targetWidth, targetY + targetHeight, 0, 0, width, height, null);
+
+    }//end of the upscale Method
+    /**
+     * toPanel Method - Gets the rectangle of the panel that a rectangle of the logical frame is
+     * upscaled into, grown by a logical pixel on every side, because the filter of the upscale
+     * blends each pixel of the panel with its neighbors.
+     * @param x - the logical x position of the rectangle
+     * @param y - the logical y position of the rectangle
+     * @param w - the logical width of the rectangle
+     * @param h - the logical height of the rectangle
+     * @param bounds - the Rectangle that is set to the rectangle of the panel
+     */
+    void toPanel(int x, int y, int w, int h, Rectangle bounds) {
+        int x0 = targetX + (int)Math.floor((double)(x - 1) * targetWidth / width);
+        int y0 = targetY + (int)Math.floor((double)(y - 1) * targetHeight / height);
+        int x1 = targetX + (int)Math.ceil((double)(x + w + 1) * targetWidth / width);
+        int y1 = targetY + (int)Math.ceil((double)(y + h + 1) * targetHeight / height);
+        bounds.setBounds(x0, y0, x1 - x0, y1 - y0);
+
+    }//end of the toPanel Method
+    /**
+     * toString Method - Describes the logical size and the interpolation.
+     * @return String - Returns the description of the surface.
+     */
+    @Override
+    public String toString() {
+        return (renderScale > 0 ? "scale " + renderScale : "resolution " + fixedWidth + "x" + fixedHeight)
+                + ", " + interpolation.name().toLowerCase();
+
+    }//end of the toString Method
+} // end of the ScaledSurface Class
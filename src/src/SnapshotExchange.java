@@ -0,0 +1,56 @@
+
+package src;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The SnapshotExchange Class hands the WorldSnapshot of each tick from the simulation to the
+ * painting, without taking any monitor and without allocating.  It is a triple buffer: the
+ * writer fills its back snapshot and swaps it with the ready one in a single atomic exchange,
+ * and the reader swaps its front snapshot with the ready one only when a newer snapshot has been
+ * published.  There must be only one writer thread and one reader thread at a time.
+ */
+final class SnapshotExchange {
+    //Class Variables
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    //Instance Variables
+    private final WorldSnapshot[] snapshots;
+    /** The index of the ready snapshot, with the FRESH bit set when it has not been acquired yet */
+    private final AtomicInteger ready = new AtomicInteger(0);
+    private int back = 1;//Owned by the writer
+    private int front = 2;//Owned by the reader
+
+    /**
+     * SnapshotExchange Constructor - Creates the three snapshots of the exchange.
+     * @param chargeCapacity - the number of depth charges that can be falling at once
+     * @param submarineCapacity - the number of submarines
+     */
+    SnapshotExchange(int chargeCapacity, int submarineCapacity) {
+        snapshots = new WorldSnapshot[3];
+        for (int i = 0; i < snapshots.length; i++)
+            snapshots[i] = new WorldSnapshot(chargeCapacity, submarineCapacity);
+
+    }//end of the SnapshotExchange Constructor
+    /**
+     * publish Method - Copies the world into the back snapshot and makes it the ready one.
+     * @param world - the GameWorld to publish
+     */
+    void publish(GameWorld world) {
+        snapshots[back].copyFrom(world);
+        back = ready.getAndSet(back | FRESH) & INDEX_MASK;
+
+    }//end of the publish Method
+    /**
+     * acquire Method - Gets the latest published snapshot.  The snapshot stays valid until the
+     * reader acquires again.
+     * @return WorldSnapshot - Returns the latest snapshot.
+     */
+    WorldSnapshot acquire() {
+        if ((ready.get() & FRESH) != 0)
+            front = ready.getAndSet(front) & INDEX_MASK;
+        return snapshots[front];
+
+    }//end of the acquire Method
+} // end of the SnapshotExchange Class
@@ -0,0 +1,219 @@
+
+package src;
+
+import java.util.Arrays;
+
+/**
+ * The SpatialGrid Class is the broad phase of the collision detection between the depth charges
+ * and the submarines.  It divides the world into square cells, and it is rebuilt from the
+ * positions of a group of equally sized boxes whenever they move, so that a query only tests the
+ * boxes that share a cell with it instead of every box of the world.  The cells are stored
+ * compressed in two flat arrays, cellStart and cellItems, which are filled with a counting sort,
+ * so neither building nor querying the grid allocates.  Positions outside of the world are
+ * clamped into its border cells.  Besides the boxes that a rectangle overlaps, the grid finds the
+ * first box that a moving rectangle sweeps into during a tick, and its time of impact, so that a
+ * rectangle that moves further than the size of a box in one tick cannot pass through it.
+ */
+final class SpatialGrid {
+    //Class Variables
+    /** The time of impact of a rectangle that does not hit a box during the tick */
+    static final double NO_IMPACT = Double.POSITIVE_INFINITY;
+
+    //Instance Variables
+    private final int cellSize;
+    private final int columns, rows;
+    /** The items of cell c are cellItems[cellStart[c]] to cellItems[cellStart[c + 1] - 1] */
+    private final int[] cellStart;
+    private final int[] cellItems;
+    /** The boxes of the last build, which are read again by the narrow phase of a query */
+    private int[] boxX, boxY;
+    private final int boxWidth, boxHeight;
+    /** The time of impact of the box that the last sweep found, as a fraction of the tick */
+    private double impactTime = NO_IMPACT;
+
+    /**
+     * SpatialGrid Constructor - Creates the cells of the grid for boxes of a given size.
+     * @param worldWidth - the width of the world in pixels
+     * @param worldHeight - the height of the world in pixels
+     * @param cellSize - the width and height of a cell in pixels
+     * @param capacity - the largest number of boxes of a build
+     * @param boxWidth - the width of the boxes in pixels
+     * @param boxHeight - the height of the boxes in pixels
+     */
+    SpatialGrid(int worldWidth, int worldHeight, int cellSize, int capacity, int boxWidth, int boxHeight) {
+        this.cellSize = cellSize;
+        this.boxWidth = boxWidth;
+        this.boxHeight = boxHeight;
+        columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+        rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+        cellStart = new int[columns * rows + 1];
+        int cellsPerBox = (Math.min(columns, boxWidth / cellSize + 2)) * (Math.min(rows, boxHeight / cellSize + 2));
+        cellItems = new int[capacity * cellsPerBox];
+
+    }//end of the SpatialGrid Constructor
+    /**
+     * build Method - Places the boxes into the cells that they overlap.  The grid keeps the arrays
+     * and reads them again in each query, so they must not change until the next build.
+     * @param x - the x position of the top left corner of each box
+     * @param y - the y position of the top left corner of each box
+     * @param count - the number of boxes
+     */
+    void build(int[] x, int[] y, int count) {
+        boxX = x;
+        boxY = y;
+        Arrays.fill(cellStart, 0);
+        //Count the boxes of each cell, shifted by one so that the prefix sum gives the starts.
+        for (int i = 0; i < count; i++) {
+            int firstColumn = column(x[i]), lastColumn = column(x[i] + boxWidth - 1);
+            int firstRow = row(y[i]), lastRow = row(y[i] + boxHeight - 1);
+            for (int r = firstRow; r <= lastRow; r++)
+                for (int c = firstColumn; c <= lastColumn; c++)
+                    cellStart[r * columns + c + 1]++;
+        }
+        for (int c = 1; c < cellStart.length; c++)
+            cellStart[c] += cellStart[c - 1];
+        //Fill the cells in the order of the boxes, moving each start forward as its cell fills.
+        for (int i = 0; i < count; i++) {
+            int firstColumn = column(x[i]), lastColumn = column(x[i] + boxWidth - 1);
+            int firstRow = row(y[i]), lastRow = row(y[i] + boxHeight - 1);
+            for (int r = firstRow; r <= lastRow; r++)
+                for (int c = firstColumn; c <= lastColumn; c++)
+                    cellItems[cellStart[r * columns + c]++] = i;
+        }
+        //Every start has moved to the end of its cell, which is the start of the next one.
+        for (int c = cellStart.length - 1; c > 0; c--)
+            cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+
+    }//end of the build Method
+    /**
+     * query Method - Finds the box with the lowest index whose bounds intersect with the given
+     * rectangle, which is the same box that testing every box in order would find.
+     * @param x - the x position of the rectangle
+     * @param y - the y position of the rectangle
+     * @param width - the width of the rectangle
+     * @param height - the height of the rectangle
+     * @return Int - Returns the index of the box, or -1 if there is no intersection.
+     */
+    int query(int x, int y, int width, int height) {
+        int found = -1;
+        int lastColumn = column(x + width - 1), lastRow = row(y + height - 1);
+        for (int r = row(y); r <= lastRow; r++) {
+            for (int c = column(x); c <= lastColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int i = cellItems[k];
+                    if ((found < 0 || i < found) && x < boxX[i] + boxWidth && boxX[i] < x + width
+                            && y < boxY[i] + boxHeight && boxY[i] < y + height)
+                        found = i;
+                }
+            }
+        }
+        return found;
+
+    }//end of the query Method
+    /**
+     * sweep Method - Finds the box that a rectangle moving in a straight line during a tick
+     * overlaps first, and the time of its impact, which getImpactTime returns.  Only the boxes in
+     * the cells of the bounds of the whole movement are tested, and of the boxes that are hit at
+     * the same time, the one with the lowest index is found.
+     * @param x - the x position of the rectangle at the start of the tick
+     * @param y - the y position of the rectangle at the start of the tick
+     * @param width - the width of the rectangle
+     * @param height - the height of the rectangle
+     * @param dx - the pixels that the rectangle moves to the right during the tick
+     * @param dy - the pixels that the rectangle moves down during the tick
+     * @return Int - Returns the index of the box, or -1 if the rectangle hits no box.
+     */
+    int sweep(int x, int y, int width, int height, int dx, int dy) {
+        int found = -1;
+        double earliest = NO_IMPACT;
+        int left = Math.min(x, x + dx), top = Math.min(y, y + dy);
+        int right = left + width + Math.abs(dx), bottom = top + height + Math.abs(dy);
+        int lastColumn = column(right - 1), lastRow = row(bottom - 1);
+        for (int r = row(top); r <= lastRow; r++) {
+            for (int c = column(left); c <= lastColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int i = cellItems[k];
+                    //A box outside of the bounds of the whole movement cannot be hit.
+                    if (left >= boxX[i] + boxWidth || boxX[i] >= right || top >= boxY[i] + boxHeight || boxY[i] >= bottom)
+                        continue;
+                    double time = timeOfImpact(x, y, width, height, dx, dy, boxX[i], boxY[i], boxWidth, boxHeight);
+                    if (time < earliest || (time == earliest && time != NO_IMPACT && i < found)) {
+                        earliest = time;
+                        found = i;
+                    }
+                }
+            }
+        }
+        impactTime = earliest;
+        return found;
+
+    }//end of the sweep Method
+    /**
+     * getImpactTime Method - Gets the time of impact that the last sweep found.
+     * @return double - Returns the fraction of the tick from 0 to 1 at which the rectangle first
+     * overlapped the box, or NO_IMPACT if it hit no box.
+     */
+    double getImpactTime() {return impactTime;}
+    /**
+     * timeOfImpact Method - Finds when a rectangle that moves in a straight line during a tick
+     * first overlaps a box that stands still, with the swept separating axes: on each axis the
+     * rectangle overlaps the box between an entry and an exit time, and it overlaps the box while
+     * both axes do.  Touching edges do not overlap, as in the query.
+     * @param x - the x position of the rectangle at the start of the tick
+     * @param y - the y position of the rectangle at the start of the tick
+     * @param width - the width of the rectangle
+     * @param height - the height of the rectangle
+     * @param dx - the pixels that the rectangle moves to the right during the tick
+     * @param dy - the pixels that the rectangle moves down during the tick
+     * @param boxX - the x position of the box
+     * @param boxY - the y position of the box
+     * @param boxWidth - the width of the box
+     * @param boxHeight - the height of the box
+     * @return double - Returns the fraction of the tick from 0 to 1 at which the rectangle first
+     * overlaps the box, which is 0 if it already does, or NO_IMPACT if it does not during the tick.
+     */
+    static double timeOfImpact(int x, int y, int width, int height, int dx, int dy,
+            int boxX, int boxY, int boxWidth, int boxHeight) {
+        double entry = 0, exit = 1;
+        if (dx == 0) {
+            if (x >= boxX + boxWidth || boxX >= x + width)
+                return NO_IMPACT;
+        } else {
+            double near = (double)(boxX - x - width) / dx, far = (double)(boxX + boxWidth - x) / dx;
+            entry = Math.max(entry, Math.min(near, far));
+            exit = Math.min(exit, Math.max(near, far));
+        }
+        if (dy == 0) {
+            if (y >= boxY + boxHeight || boxY >= y + height)
+                return NO_IMPACT;
+        } else {
+            double near = (double)(boxY - y - height) / dy, far = (double)(boxY + boxHeight - y) / dy;
+            entry = Math.max(entry, Math.min(near, far));
+            exit = Math.min(exit, Math.max(near, far));
+        }
+        //The overlap is open at both ends, so a rectangle that only touches the box at the end of the tick misses it.
+        return entry < exit && entry < 1 ? entry : NO_IMPACT;
+
+    }//end of the timeOfImpact Method
+    /**
+     * column Method - Gets the column of the cell of an x position, clamped into the grid.
+     * @param x - the x position in pixels
+     * @return Int - Returns the column.
+     */
+    private int column(int x) {
+        return x < 0 ? 0 : Math.min(columns - 1, x / cellSize);
+
+    }//end of the column Method
+    /**
+     * row Method - Gets the row of the cell of a y position, clamped into the grid.
+     * @param y - the y position in pixels
+     * @return Int - Returns the row.
+     */
+    private int row(int y) {
+        return y < 0 ? 0 : Math.min(rows - 1, y / cellSize);
+
+    }//end of the row Method
+} // end of the SpatialGrid Class
@@ -0,0 +1,189 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SpriteCache Class holds the pre-rendered images of the static composites of the game, such as
+ * the clouds, the battleship, and the submarine.  Each composite is rasterized once into a
+ * translucent image that is compatible with the surface it is drawn on, and every frame just
+ * records the blit of the image at the center of the entity into its DisplayList.  The cache is
+ * invalidated when the GraphicsConfiguration of the panel changes, and the sprites are rasterized
+ * again on their next draw.  The sprites do not depend on the size of the panel, so they can be
+ * warmed up before the panel is laid out.  A sprite may have art, an asset of the AssetLoader,
+ * which is scaled into its image in place of the composite once it is loaded; until then the
+ * composite is painted as its fallback.
+ */
+final class SpriteCache {
+    //Instance Variables
+    private final List<Sprite> sprites = new ArrayList<>();
+    private GraphicsConfiguration configuration;
+
+    /**
+     * Painter Interface - Paints a composite with its center at the given position.
+     */
+    interface Painter {
+        void paint(Graphics2D g2d, int centerX, int centerY);
+    }//end of the Painter Interface
+    /**
+     * Sprite Class - A composite and its cached image.  The left and top are the offsets of the
+     * upper left corner of the image from the center of the composite.
+     */
+    final class Sprite {
+        //Instance Variables
+        private final String name;//The name that the blits of the sprite are written with
+        private final Painter painter;
+        private final AssetLoader.Asset art;
+        private final int left, top, spriteWidth, spriteHeight;
+        private BufferedImage image;
+        /** Set to true when the image holds the composite while the art is not loaded yet */
+        private boolean isFallback;
+
+        /**
+         * Sprite Constructor - Creates a sprite of the given bounds around the center.
+         */
+        private Sprite(String name, Painter painter, AssetLoader.Asset art, int left, int top, int spriteWidth, int spriteHeight) {
+            this.name = name;
+            this.painter = painter;
+            this.art = art;
+            this.left = left;
+            this.top = top;
+            this.spriteWidth = spriteWidth;
+            this.spriteHeight = spriteHeight;
+
+        }//end of the Sprite Constructor
+        /**
+         * draw Method - Records the blit of the image of the sprite with its center at the given
+         * position, and rasterizes the image first if it is not cached, or if it is the fallback of
+         * art that has been loaded since.  Nothing is recorded if the sprite is outside of the clip
+         * of the list.
+         * @param list - the DisplayList of the frame
+         * @param centerX - the x position of the center of the composite
+         * @param centerY - the y position of the center of the composite
+         */
+        void draw(DisplayList list, int centerX, int centerY) {
+            if (!list.hitClip(centerX + left, centerY + top, spriteWidth, spriteHeight))
+                return;
+            if (image == null || (isFallback && art.isLoaded())) {
+                if (image != null)
+                    image.flush();
+                image = rasterize();
+            }
+            list.image(image, name, centerX + left, centerY + top, spriteWidth, spriteHeight);
+
+        }//end of the draw Method
+        /**
+         * invalidate Method - Discards the cached image of the sprite.
+         */
+        void invalidate() {
+            if (image != null) {
+                image.flush();
+                image = null;
+            }
+        }//end of the invalidate Method
+        /**
+         * addBounds Method - Adds the bounds of the sprite with its center at the given position to
+         * a region.
+         * @param region - the DirtyRegion to add the bounds to
+         * @param centerX - the x position of the center of the composite
+         * @param centerY - the y position of the center of the composite
+         */
+        void addBounds(DirtyRegion region, int centerX, int centerY) {
+            region.add(centerX + left, centerY + top, spriteWidth, spriteHeight);
+
+        }//end of the addBounds Method
+        /**
+         * rasterize Method - Paints the composite, or scales the art if it is loaded, once into a
+         * new translucent image that is compatible with the GraphicsConfiguration of the cache.
+         * @return BufferedImage - Returns the image of the composite.
+         */
+        private BufferedImage rasterize() {
+            GraphicsConfiguration gc = configuration;
+            BufferedImage result = gc != null
+                    ? gc.createCompatibleImage(spriteWidth, spriteHeight, Transparency.TRANSLUCENT)
+                    : new BufferedImage(spriteWidth, spriteHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = result.createGraphics();
+            BufferedImage artImage = art != null ? art.getImage() : null;
+            if (artImage != null) {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(artImage, 0, 0, spriteWidth, spriteHeight, null);
+            } else {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                painter.paint(g2d, -left, -top);
+            }
+            g2d.dispose();
+            isFallback = art != null && artImage == null;
+            return result;
+
+        }//end of the rasterize Method
+    }//end of the Sprite Class
+    /**
+     * define Method - Adds a composite to the cache.
+     * @param name - the name of the composite
+     * @param painter - the Painter of the composite
+     * @param left - the offset of the left edge of the composite from its center
+     * @param top - the offset of the top edge of the composite from its center
+     * @param spriteWidth - the width of the composite in pixels
+     * @param spriteHeight - the height of the composite in pixels
+     * @return Sprite - Returns the sprite that draws the composite.
+     */
+    Sprite define(String name, Painter painter, int left, int top, int spriteWidth, int spriteHeight) {
+        Sprite sprite = new Sprite(name, painter, null, left, top, spriteWidth, spriteHeight);
+        sprites.add(sprite);
+        return sprite;
+
+    }//end of the define Method
+    /**
+     * define Method - Adds a composite with art to the cache.  The composite is painted until the
+     * art is loaded, and it is named after the file of the art.
+     * @param painter - the Painter of the composite, which is the fallback of the art
+     * @param art - the Asset of the art
+     * @param left - the offset of the left edge of the composite from its center
+     * @param top - the offset of the top edge of the composite from its center
+     * @param spriteWidth - the width of the composite in pixels
+     * @param spriteHeight - the height of the composite in pixels
+     * @return Sprite - Returns the sprite that draws the composite.
+     */
+    Sprite define(Painter painter, AssetLoader.Asset art, int left, int top, int spriteWidth, int spriteHeight) {
+        String resource = art.getResource();
+        String name = resource.substring(resource.lastIndexOf('/') + 1, resource.lastIndexOf('.'));
+        Sprite sprite = new Sprite(name, painter, art, left, top, spriteWidth, spriteHeight);
+        sprites.add(sprite);
+        return sprite;
+
+    }//end of the define Method
+    /**
+     * validate Method - Invalidates every sprite when the GraphicsConfiguration it is drawn on has
+     * changed since the last call.
+     * @param gc - the GraphicsConfiguration of the surface, or null if it is not known
+     */
+    void validate(GraphicsConfiguration gc) {
+        if (gc != configuration) {
+            configuration = gc;
+            invalidate();
+        }
+    }//end of the validate Method
+    /**
+     * warmUp Method - Rasterizes every sprite that is not cached for a GraphicsConfiguration, in
+     * parallel, before the first frame is drawn.  It must not be called while a frame is drawn.
+     * @param gc - the GraphicsConfiguration that the sprites will be drawn on, or null to use
+     * premultiplied ARGB images
+     */
+    void warmUp(GraphicsConfiguration gc) {
+        validate(gc);
+        sprites.parallelStream().filter(sprite -> sprite.image == null)
+                .forEach(sprite -> sprite.image = sprite.rasterize());
+
+    }//end of the warmUp Method
+    /**
+     * invalidate Method - Discards the cached image of every sprite.
+     */
+    void invalidate() {
+        for (Sprite sprite : sprites)
+            sprite.invalidate();
+
+    }//end of the invalidate Method
+} // end of the SpriteCache Class
@@ -0,0 +1,328 @@
+
+package src;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.*;
+
+/**
+ * The Startup Class launches the game from the arguments of the command line.  The slow parts of
+ * a cold start run in parallel off the event dispatch thread: the fonts are resolved and their
+ * glyphs warmed up, the panel and its entities are constructed and its sprites rasterized, while
+ * the event dispatch thread creates and shows the frame.  The world is created once the size of
+ * the frame is known, and the panel is added to the frame on the event dispatch thread, so the
+ * first frame only copies what was prepared.  With --startup-probe, the time from the start of
+ * the JVM to the first painted frame is printed and the JVM exits; when there is no display, the
+ * first frame is painted into an image of PROBE_WIDTH by PROBE_HEIGHT instead of a frame, and
+ * nothing but the probe can run.  With --serial-startup, everything is done one step after
+ * another on the event dispatch thread, as the game used to start, so that the two can be compared.
+ */
+final class Startup {
+    //Class Variables
+    static final int PROBE_WIDTH = 1920;
+    static final int PROBE_HEIGHT = 1080;
+    /** The line that the startup probe prints, followed by the milliseconds since the JVM started */
+    static final String FIRST_FRAME = "First frame after ms:";
+
+    //Instance Variables
+    private boolean isActive;
+    private int targetFps = 60;
+    private Level level = Level.CLASSIC;
+    private Path replayDirectory;
+    private ScaledSurface surface;
+    private int renderThreads;//The threads of the BandedSurface, or 0 to render on the thread that paints
+    private Path captureDirectory;
+    private FrameCapture.Format captureFormat = FrameCapture.Format.PNG;
+    private boolean isCaptureBlocking;
+    private boolean isStartupProbe;
+    private boolean isSerialStartup;
+    private JFrame frame;
+    private Canvas canvas;
+
+    /**
+     * Startup Constructor - Creates a startup with the default options.
+     */
+    private Startup() {
+    }//end of the Startup Constructor
+    /**
+     * parse Method - Reads the options of the command line, which are described by the main
+     * method of the SubmarineKiller.  An option that is not known, or whose value is missing or
+     * cannot be used, is reported in one line, and the JVM exits.
+     * @param args - String[] representing the command line arguments
+     * @return Startup - Returns the startup of the options.
+     */
+    static Startup parse(String[] args) {
+        Startup startup = new Startup();
+        double renderScale = 1;
+        int[] resolution = null;
+        int chargeSpeed = 0;
+        ScaledSurface.Interpolation interpolation = ScaledSurface.Interpolation.BILINEAR;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            try {
+                if ("--active".equals(option))
+                    startup.isActive = true;
+                else if ("--fps".equals(option))
+                    startup.targetFps = Integer.parseInt(getValue(args, ++i));
+                else if ("--barrage".equals(option))
+                    startup.level = Level.BARRAGE;
+                else if ("--charge-speed".equals(option))
+                    chargeSpeed = Integer.parseInt(getValue(args, ++i));
+                else if ("--record".equals(option))
+                    startup.replayDirectory = Paths.get(getValue(args, ++i));
+                else if ("--scale".equals(option))
+                    renderScale = Double.parseDouble(getValue(args, ++i));
+                else if ("--resolution".equals(option)) {
+                    String[] size = getValue(args, ++i).split("x");
+                    if (size.length != 2)
+                        throw new IllegalArgumentException("the resolution is not WIDTHxHEIGHT: " + args[i]);
+                    resolution = new int[] {Integer.parseInt(size[0]), Integer.parseInt(size[1])};
+                } else if ("--interpolation".equals(option))
+                    interpolation = getConstant(ScaledSurface.Interpolation.class, getValue(args, ++i));
+                else if ("--render-threads".equals(option))
+                    startup.renderThreads = Integer.parseInt(getValue(args, ++i));
+                else if ("--capture".equals(option))
+                    startup.captureDirectory = Paths.get(getValue(args, ++i));
+                else if ("--capture-format".equals(option))
+                    startup.captureFormat = getConstant(FrameCapture.Format.class, getValue(args, ++i));
+                else if ("--capture-blocking".equals(option))
+                    startup.isCaptureBlocking = true;
+                else if ("--startup-probe".equals(option))
+                    startup.isStartupProbe = true;
+                else if ("--serial-startup".equals(option))
+                    startup.isSerialStartup = true;
+                else
+                    fail("the option " + option + " is not known");
+            } catch (IllegalArgumentException e) {
+                fail("the option " + option + " is not valid: " + e.getMessage());
+            }
+        }
+        try {
+            if (chargeSpeed != 0)
+                startup.level = startup.level.withChargeSpeed(chargeSpeed);
+            if (resolution != null)
+                startup.surface = ScaledSurface.ofResolution(resolution[0], resolution[1], interpolation);
+            else if (renderScale != 1)
+                startup.surface = ScaledSurface.ofScale(renderScale, interpolation);
+        } catch (IllegalArgumentException e) {
+            fail(e.getMessage());
+        }
+        return startup;
+
+    }//end of the parse Method
+    /**
+     * getValue Method - Gets the value of an option, which is the argument after it.
+     * @param args - String[] representing the command line arguments
+     * @param i - the index of the value
+     * @return String - Returns the value.
+     */
+    private static String getValue(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("it needs a value");
+        return args[i];
+
+    }//end of the getValue Method
+    /**
+     * getConstant Method - Gets the constant of an Enum that a value names, in any case.
+     * @param type - the Class of the Enum
+     * @param value - the name of the constant
+     * @return E - Returns the constant.
+     */
+    private static <E extends Enum<E>> E getConstant(Class<E> type, String value) {
+        for (E constant : type.getEnumConstants())
+            if (constant.name().equalsIgnoreCase(value))
+                return constant;
+        throw new IllegalArgumentException(value + " is not one of "
+                + Arrays.toString(type.getEnumConstants()).toLowerCase());
+
+    }//end of the getConstant Method
+    /**
+     * fail Method - Prints in one line why the game could not be started, and exits.
+     * @param reason - the String that describes what went wrong
+     */
+    private static void fail(String reason) {
+        System.err.println("The game could not be started: " + reason);
+        System.exit(1);
+
+    }//end of the fail Method
+    /**
+     * launch Method - Starts the game.  It returns at once, and the game starts on other threads.
+     * Without a display, there is nothing to play the game on, so only the startup probe starts.
+     */
+    void launch() {
+        if (GraphicsEnvironment.isHeadless() && !isStartupProbe)
+            fail("there is no display, and without one only --startup-probe can run");
+        if (isSerialStartup) {
+            SwingUtilities.invokeLater(() -> {
+                createFrame();
+                show(createGame());
+            });
+            return;
+        }
+        CompletableFuture<GameFonts> fonts = CompletableFuture.supplyAsync(() ->
+                GameFonts.resolve(SubmarineKiller.SMALL_TEXTS, SubmarineKiller.LARGE_TEXTS));
+        CompletableFuture<SubmarineKiller> game = CompletableFuture.supplyAsync(() -> {
+            SubmarineKiller newGame = createGame();
+            //The sprites need neither the size nor the fonts, so they rasterize while the fonts resolve.
+            newGame.warmUp(getDefaultConfiguration());
+            return newGame;
+        });
+        CompletableFuture<Dimension> size = new CompletableFuture<>();
+        if (GraphicsEnvironment.isHeadless()) {
+            size.complete(new Dimension(PROBE_WIDTH, PROBE_HEIGHT));
+        } else {
+            SwingUtilities.invokeLater(() -> {
+                createFrame();
+                size.complete(isActive ? canvas.getSize() : frame.getContentPane().getSize());
+            });
+        }
+        game.thenCombine(size, (newGame, panelSize) -> {
+            newGame.setSize(panelSize);
+            newGame.createWorld(System.nanoTime());
+            return newGame;
+        }).thenCombine(fonts, (newGame, newFonts) -> {
+            newGame.setFonts(newFonts);
+            //What is left needed them: the text sprites that the fonts invalidated, and the background.
+            newGame.warmUp(getDefaultConfiguration());
+            return newGame;
+        }).thenAccept(newGame -> SwingUtilities.invokeLater(() -> show(newGame))).exceptionally(e -> {
+            //The stages wrap what failed in a CompletionException, so the message names its cause.
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            fail(cause.toString());
+            return null;
+        });
+    }//end of the launch Method
+    /**
+     * createGame Method - Creates the panel of the game with the options.
+     * @return SubmarineKiller - Returns the panel.
+     */
+    private SubmarineKiller createGame() {
+        SubmarineKiller game = new SubmarineKiller(level);
+        game.setReplayDirectory(replayDirectory);
+        game.setSurface(surface);
+        if (renderThreads > 0)
+            game.setBandedSurface(new BandedSurface(new ForkJoinPool(renderThreads), SubmarineKiller.BAND_EDGES));
+        if (captureDirectory != null)
+            game.setFrameCapture(createCapture());
+        game.setFirstFrameListener(() -> firstFramePainted(game));
+        return game;
+
+    }//end of the createGame Method
+    /**
+     * createCapture Method - Creates the capture of the frames, which writes the frames that are
+     * left and prints its counts when the JVM exits.
+     * @return FrameCapture - Returns the capture, or null if its directory cannot be created.
+     */
+    private FrameCapture createCapture() {
+        final FrameCapture capture;
+        try {
+            capture = new FrameCapture(captureDirectory, captureFormat, FrameCapture.DEFAULT_POOL_SIZE, isCaptureBlocking);
+        } catch (IOException e) {
+            System.err.println("The frames could not be captured to " + captureDirectory + ": " + e);
+            return null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                capture.close();
+            } catch (IOException e) {
+                //The encoder has already reported it.
+            }
+            System.out.println("Frame capture: " + capture);
+        }));
+        return capture;
+
+    }//end of the createCapture Method
+    /**
+     * createFrame Method - Creates the frame at the size of the screen, with a Canvas for active
+     * rendering, and shows it.  It must be called from the event dispatch thread, and it does
+     * nothing when there is no display.
+     */
+    private void createFrame() {
+        if (GraphicsEnvironment.isHeadless())
+            return;
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        frame = new JFrame("Submarine Killer");
+        if (isActive) {
+            canvas = new Canvas();
+            frame.add(canvas);
+        }
+        frame.setBounds(0, 0, (int)screenSize.getWidth(), (int)screenSize.getHeight());
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(true);
+        frame.setVisible(true);
+
+    }//end of the createFrame Method
+    /**
+     * show Method - Shows the panel in the frame, or starts to draw it onto the Canvas, or paints
+     * it into an image when there is no display.  It must be called from the event dispatch thread.
+     * @param game - the SubmarineKiller panel
+     */
+    private void show(SubmarineKiller game) {
+        if (isSerialStartup)
+            FrameStats.register(game.getFrameStats());
+        if (frame == null) {
+            BufferedImage image = new BufferedImage(PROBE_WIDTH, PROBE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            game.setSize(PROBE_WIDTH, PROBE_HEIGHT);
+            game.paintComponent(g2d);
+            g2d.dispose();
+            return;
+        }
+        game.setIconWindow(frame);
+        if (isActive) {
+            final ActiveRenderer renderer = new ActiveRenderer(game, canvas, targetFps);
+            renderer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    System.out.println("Active rendering: " + renderer)));
+        } else {
+            game.setFrameRate(targetFps);
+            frame.setContentPane(game);
+            frame.validate();
+        }
+    }//end of the show Method
+    /**
+     * getDefaultConfiguration Method - Gets the GraphicsConfiguration that the first frame is drawn
+     * on, which is the one of the default screen, or the one of an RGB image without a display.
+     * @return GraphicsConfiguration - Returns the configuration.
+     */
+    static GraphicsConfiguration getDefaultConfiguration() {
+        if (!GraphicsEnvironment.isHeadless())
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        g2d.dispose();
+        return gc;
+
+    }//end of the getDefaultConfiguration Method
+    /**
+     * firstFramePainted Method - Registers the FrameStats of the panel over JMX once the first frame
+     * has been painted, on another thread, because starting the platform MBean server takes as long
+     * as the rest of the first frame.  The startup probe reports the first frame instead.
+     * @param game - the SubmarineKiller panel
+     */
+    private void firstFramePainted(SubmarineKiller game) {
+        if (isStartupProbe)
+            reportFirstFrame();
+        else if (!isSerialStartup)
+            CompletableFuture.runAsync(() -> FrameStats.register(game.getFrameStats()));
+
+    }//end of the firstFramePainted Method
+    /**
+     * reportFirstFrame Method - Prints the milliseconds from the start of the JVM to now, when the
+     * first frame has been painted, and exits.
+     */
+    private static void reportFirstFrame() {
+        long now = System.currentTimeMillis();
+        System.out.println(FIRST_FRAME + " " + (now - ManagementFactory.getRuntimeMXBean().getStartTime()));
+        System.exit(0);
+
+    }//end of the reportFirstFrame Method
+} // end of the Startup Class
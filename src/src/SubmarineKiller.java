@@ -4,7 +4,10 @@ package src;
 import java.awt.*;        
 import java.awt.event.*;
 import javax.swing.*;
-import javax.swing.JOptionPane;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
 
 /**
  * The SubmarineKiller Class implements a simple arcade game in which the user tries 
@@ -23,10 +26,58 @@ public class SubmarineKiller extends JPanel {
     //Instance Variables
     /*
      * The fonts of the game are font1 and font2, which respectively keeps the score and instructs
-     * the user to click the frame to begin the game.
+     * the user to click the frame to begin the game.  They are replaced by the GameFonts that are
+     * resolved at startup, which fall back to the Dialog family when Bookman Old Style is missing.
      */
-    protected Font font1 = new Font("Bookman Old Sytle", Font.BOLD, 16);
-    protected Font font2 = new Font("Bookman Old Sytle", Font.BOLD, 40);
+    protected Font font1 = new Font(GameFonts.FAMILY, Font.BOLD, GameFonts.SMALL_SIZE);
+    protected Font font2 = new Font(GameFonts.FAMILY, Font.BOLD, GameFonts.LARGE_SIZE);
+    /*
+     * The text that is drawn in the large font, and the text whose glyphs are warmed up when the
+     * fonts are resolved, in the small font and in the large font.
+     */
+    private static final String TITLE_TEXT = "CLICK TO BEGIN";
+    private static final String GAME_OVER_TEXT = "G A M E  O V E R";
+    private static final String PLAY_AGAIN_TEXT = "Press Enter or click to play again";
+    static final String[] SMALL_TEXTS = {"SCORE:  0123456789", "MISSES: ", "Your score is and your percentage is %",
+            PLAY_AGAIN_TEXT};
+    static final String[] LARGE_TEXTS = {TITLE_TEXT, GAME_OVER_TEXT};
+    /*
+     * The colors of the text are created once, so that drawing a frame does not allocate them.
+     */
+    private static final Color TITLE_COLOR = new Color(112, 3, 34);
+    private static final Color SCORE_COLOR = new Color(6, 52, 69);
+    /*
+     * The score is drawn inside of the SCORE_BOUNDS.  When the dirty region of a frame covers more
+     * than the FULL_REPAINT_FRACTION of the panel, the whole panel is painted instead.
+     */
+    private static final Rectangle SCORE_BOUNDS = new Rectangle(0, 0, 240, 48);
+    static final double FULL_REPAINT_FRACTION = 0.5;
+    /*
+     * The timing of the phases of a frame is drawn inside of the HUD_BOUNDS, next to the score, and
+     * its text is formatted again every HUD_REFRESH_NANOS.
+     */
+    private static final Rectangle HUD_BOUNDS = new Rectangle(250, 0, 640, 280);
+    private static final long HUD_REFRESH_NANOS = 250_000_000L;
+    /** The number of blits and of texts that the display list holds before it grows */
+    static final int DISPLAY_LIST_CAPACITY = 128;
+    /** The largest number of rectangles of the dirty region of a frame */
+    static final int DIRTY_REGION_CAPACITY = 32;
+    /*
+     * The results of a game that is over are drawn in a box of GAME_OVER_WIDTH by GAME_OVER_HEIGHT
+     * under the top of the panel, and after GAME_OVER_TICKS, which is 10 seconds, the panel goes
+     * back to attracting players.
+     */
+    private static final int GAME_OVER_WIDTH = 640;
+    private static final int GAME_OVER_HEIGHT = 150;
+    static final int GAME_OVER_TICKS = 400;
+
+    /**
+     * GameState Enum - The states of the panel.  The panel attracts players with a game that a bot
+     * plays, until a player starts a game.  When the game is over, its results are shown, until the
+     * player starts another game, or the panel goes back to attracting players.  Every state reuses
+     * the same world, timer, and buffers.
+     */
+    enum GameState {ATTRACT, PLAYING, GAME_OVER}
     
     /** The timer drives this animation */
     private Timer timer;
@@ -37,26 +88,166 @@ public class SubmarineKiller extends JPanel {
      * be altered.
      */
     private int screenWidth, screenHeight;
+    /*
+     * The world is the headless simulation of the game.  It holds the state of all the entities,
+     * and it is created the first time the paintComponent method is called.
+     */
+    private volatile GameWorld world;
+    /*
+     * The snapshot is the state of the world that the current frame is drawn from.  It is only
+     * used by the thread that draws, and it is acquired at the beginning of every frame.
+     */
+    private WorldSnapshot snapshot;
+    /*
+     * The timestep runs the ticks of the world that are due each time the timer fires, however
+     * often it fires, and the interpolation is the fraction of the next tick that has passed when a
+     * frame is drawn.  The previousTick is the state of the world before its last tick, if
+     * isPreviousTickValid, and a frame between two ticks is drawn from the interpolatedView.
+     */
+    private final FixedTimestep timestep = new FixedTimestep();
+    private double interpolation = 1;
+    private final WorldSnapshot previousTick;
+    private boolean isPreviousTickValid;
+    private final WorldSnapshot interpolatedView;
     /*
      * The Battleship, DepthCharge, Submarine, Waves, Sun, Cloud1, and Cloud2 classes are defined
-     * with nested classes, which are described later in this class.  All these objects, except
-     * the sun are animated in the game.
-     */
-    private Battleship battleship; 
-    private DepthCharge depthCharge;      
-    private Submarine submarine;      
-    private Wave waves; 
-    private Sun sun;         
-    private CloudOne cloudOne;            
-    private CloudTwo cloudTwo;
+     * with nested classes, which are described later in this class.  They draw the entities of
+     * the world, and all these objects, except the sun are animated in the game.
+     */
+    Battleship battleship; 
+    DepthCharge depthCharge;      
+    Submarine submarine;      
+    Wave waves; 
+    Sun sun;         
+    CloudOne cloudOne;            
+    CloudTwo cloudTwo;
     /*
-     * The hits are the number times the user hit the submarine, and the misses are the number of
-     * times the user miss the submarine.  The numberOfCharges is set to 25 in the SubmarineKiller
-     * Constructor.
+     * The assets are the images that are decoded in the background: the icon of the frame, and the
+     * art of the sprites, which are painted procedurally until it arrives.  The iconWindow is the
+     * window that the icon is set on once it is loaded.
      */
-    private int hits;          
-    private int misses;
-    private final int numberOfCharges;
+    private final AssetLoader assets = new AssetLoader(this::assetLoaded);
+    private final AssetLoader.Asset icon = assets.define("/img/Submarine.png");
+    private Window iconWindow;
+    /*
+     * The isFramePainted is set when the first frame has been painted, which starts to load the
+     * assets, so that decoding them never competes with the first frame, and runs the
+     * firstFrameListener.
+     */
+    private boolean isFramePainted;
+    private Runnable firstFrameListener;
+    /** The spriteCache holds the pre-rendered images of the clouds, battleship, and submarine */
+    private final SpriteCache spriteCache = new SpriteCache();
+    /*
+     * The titleSprite holds the text that instructs the user to click the frame to begin the game,
+     * and the gameOverSprite the title of the results of a game that is over.  Drawing them from
+     * sprites keeps the Graphics context on font1, because switching between the two fonts every
+     * frame makes the Graphics context rebuild its font information.
+     */
+    private final SpriteCache.Sprite titleSprite = spriteCache.define("title", this::paintTitle, 0, -48, 480, 64);
+    private final SpriteCache.Sprite gameOverSprite = spriteCache.define("game-over", this::paintGameOver, 0, -48, 480, 64);
+    /*
+     * The particles hold the fire, spray, wake, and bubbles that the effects emit from the events
+     * of the world and the movement of its entities.  They are moved on the common pool when it
+     * has more than one thread.
+     */
+    private final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY, 0,
+            ForkJoinPool.getCommonPoolParallelism() > 1 ? ForkJoinPool.commonPool() : null);
+    private final Effects effects = new Effects();
+    /*
+     * The displayList holds the blits and the text of the frame, which are recorded once per frame
+     * and replayed, and the gameOverBounds is the box of the results of a game that is over.
+     */
+    private final DisplayList displayList = new DisplayList(DISPLAY_LIST_CAPACITY);
+    private final Rectangle gameOverBounds = new Rectangle();
+    /** The background caches the gradient of the sky and the water */
+    private final BackgroundLayer background = new BackgroundLayer();
+    /** The level holds the number of depth charges and submarines, 25 and 1 for the classic game */
+    private final Level level;
+    /*
+     * The scoreText and missesText hold the text of the score for every number of hits and
+     * misses of a game, so that the score is not built again each frame.
+     */
+    private final String[] scoreText;
+    private final String[] missesText;
+    /** The keyListener moves the battleship and drops the depth charge */
+    final KeyListener keyListener;
+    /*
+     * The previousBounds and currentBounds hold the bounds of every entity in the previous frame and
+     * in the current one, and the dirtyRegion is the union of both, which is all that the timer
+     * paints of a frame.  The boundsWorld is the world that the previousBounds were taken from, and
+     * the pixelsRepainted is the number of pixels that the timer painted in the last frame.
+     */
+    private DirtyRegion previousBounds = new DirtyRegion(DIRTY_REGION_CAPACITY);
+    private DirtyRegion currentBounds = new DirtyRegion(DIRTY_REGION_CAPACITY);
+    private final DirtyRegion dirtyRegion = new DirtyRegion(DIRTY_REGION_CAPACITY);
+    private GameWorld boundsWorld;
+    private long pixelsRepainted;
+    /*
+     * The isDirtyFrame is set while the rectangles of the dirty region of a frame are painted, and
+     * the isDirtyFrameRecorded once the first of them has recorded the whole frame into the
+     * display list, which the other rectangles only replay under their clips.
+     */
+    private boolean isDirtyFrame;
+    private boolean isDirtyFrameRecorded;
+    /*
+     * The frameStats times the update, the painting, and the draw of each entity of every frame.
+     * The F3 key shows and hides the timing over the game, and turns the timing on and off.  The
+     * repaintRequestNanos is the time the last frame was requested at, which is 0 after it has
+     * been painted, and the hudText holds the name, p50, p99, and maximum of each phase, which are
+     * drawn in HUD_COLUMNS columns.
+     */
+    private final FrameStats frameStats = new FrameStats();
+    private volatile boolean isHudVisible;
+    private long repaintRequestNanos;
+    private long reportedInputNanos;//The time of the last key whose latency has been recorded
+    private static final int HUD_COLUMNS = 4;
+    private final String[] hudText = new String[FrameStats.Phase.values().length * HUD_COLUMNS];
+    private long hudTextNanos;
+    /** The replayDirectory is where every game is recorded for the ReplayPlayer, if it is not null */
+    private Path replayDirectory;
+    /*
+     * The surface renders the frame at its logical resolution and upscales it onto the panel, if it
+     * is not null.  The framePainter renders a frame into the surface, with the focus of the panel
+     * in isFrameFocused, and the panelBounds is a rectangle of the dirty region on the panel.
+     */
+    private ScaledSurface surface;
+    private boolean isFrameFocused;
+    private final ScaledSurface.Painter framePainter = (g2d, width, height) -> renderFrame(g2d, width, height, isFrameFocused);
+    private final Rectangle panelBounds = new Rectangle();
+    /*
+     * The bandedSurface renders the frame in slices on several threads, if it is not null.  Its
+     * bands are split at the BAND_EDGES: the top of the battleship, which is at 182, and the bottom
+     * of the second roll of waves, which is at 274, so that the sky, the line of the battleship and
+     * the waves, and the deep water are separate bands.  The bandPainter replays the display list
+     * of the frame into a slice.
+     */
+    static final int[] BAND_EDGES = {182, 274};
+    private BandedSurface bandedSurface;
+    private final ScaledSurface.Painter bandPainter = (g2d, width, height) -> drawLayers(g2d, width, height, false);
+    /*
+     * The frameCapture records every whole frame by replaying its display list into an image of
+     * its pool, if it is not null.  While it records, the frames are painted whole.
+     */
+    private FrameCapture frameCapture;
+    /*
+     * The state is the GameState of the panel, which is only changed by the thread that ticks the
+     * world, and the requestedState is the state that a listener has asked for, which is entered at
+     * the start of the next tick.  The attractBot plays the game of the attract state, and sees the
+     * world through the attractView.  The gameOverTicks counts the ticks of the game over state, and
+     * the isRepaintNeeded is set when the state or the world changes, so that the next frame is
+     * painted whole.
+     */
+    private volatile GameState state = GameState.ATTRACT;
+    private volatile GameState requestedState;
+    private BotTournament.Tracker attractBot;
+    private final WorldSnapshot attractView;
+    private int gameOverTicks;
+    private boolean isRepaintNeeded;
+    /** The seeds supply the seed of the world of every state that starts a game, which is the time by default */
+    private LongSupplier seeds = System::nanoTime;
+    /** The resultText holds the results of a game that is over for every number of hits */
+    private final String[] resultText;
 
     /**
      * SubmarineKiller Constructor - Creates an instance of the SubmarineKiller.  That is, it
@@ -65,11 +256,40 @@ public class SubmarineKiller extends JPanel {
      * ActionListener for the timer are defined by Anonymous Inner Classes.  The timer will 
      * run only when the panel has the input focus.
      */
-    @SuppressWarnings("OverridableMethodCallInConstructor")
     public SubmarineKiller() {
+        this(Level.CLASSIC);
+
+    }//end of the SubmarineKiller Constructor
+    /**
+     * SubmarineKiller Constructor - Creates an instance of the SubmarineKiller that plays the
+     * given level.
+     * @param level - the Level of the game
+     */
+    @SuppressWarnings("OverridableMethodCallInConstructor")
+    public SubmarineKiller(Level level) {
     	screenWidth = (int) getWidth();
     	screenHeight = (int) getHeight();
-    	numberOfCharges = 25;
+    	this.level = level;
+        scoreText = new String[level.getNumberOfCharges() + 1];
+        missesText = new String[level.getNumberOfCharges() + 1];
+        for (int i = 0; i <= level.getNumberOfCharges(); i++) {
+            scoreText[i] = "SCORE:  " + i;
+            missesText[i] = "MISSES: " + i;
+        }
+        resultText = new String[level.getNumberOfCharges() + 1];
+        for (int i = 0; i <= level.getNumberOfCharges(); i++)
+            resultText[i] = "Your score is " + i + " and your percentage is "
+                    + (int)(i / (double)level.getNumberOfCharges() * 100) + "%";
+        attractView = new WorldSnapshot(level.getMaxLiveCharges(), level.getNumberOfSubmarines());
+        previousTick = new WorldSnapshot(level.getMaxLiveCharges(), level.getNumberOfSubmarines());
+        interpolatedView = new WorldSnapshot(level.getMaxLiveCharges(), level.getNumberOfSubmarines());
+        sun = new Sun();
+        cloudOne = new CloudOne();
+        cloudTwo = new CloudTwo();
+        battleship = new Battleship();
+        depthCharge = new DepthCharge();
+        waves = new Wave();
+        submarine = new Submarine();
     	/*
     	 * actionListener - Responds to and defines the action taken each time the timer fires
     	 */
@@ -78,37 +298,35 @@ public class SubmarineKiller extends JPanel {
         	/**
         	 * actionPerformed Method - Overrides the actionPerformed method of the ActionListener
                  * Interface, and redefines it for the action taken each time the timer fires, which
-        	 * is updating the different objects of the game and repainting them.
+        	 * is running the ticks of the world that are due and repainting the regions of the
+        	 * panel where the objects of the game were and where they are now.
         	 * @param ae - the ActionEvent of the timer firing
         	 */
                 @Override
-        	synchronized public void actionPerformed(ActionEvent ae) {
-                    if (battleship != null) {
-                        battleship.updateNewFrame();
-                        depthCharge.updateNewFrame();
-                        submarine.updateNewFrame();
-                        waves.updateNewFrame();
-                        cloudTwo.updateNewFrame();
-                        sun.updateNewFrame();
-                        cloudOne.updateNewFrame();
+        	public void actionPerformed(ActionEvent ae) {
+                    if (world != null) {
+                        advanceFrame(System.nanoTime());
+                        markRepaintRequested();
+                        repaintDirtyRegion();
+                        return;
                     }
                     repaint();
                 }
         };
-        timer = new Timer(25, actionListener);//Fires every 25 milliseconds.
+        timer = new Timer(25, actionListener);//Fires every 25 milliseconds, until the frame rate is set.
         /**
          * Anonymous MouseAdapter Class responds to the mouse event of the game.  It has only 
          * one method, mousePressed.
          */
         addMouseListener(new MouseAdapter() {
         	/**
-        	 * mousePressed Method - Requests focus, stops the Battle Time Theme, begins
-        	 * the submarine sonar, and ocean waves sounds
+        	 * mousePressed Method - Requests focus, and starts a game, unless one is played.
         	 * @param me - the MouseEvent of pressing the mouse
         	 */  
                 @Override
-        	synchronized public void mousePressed(MouseEvent me) {
+        	public void mousePressed(MouseEvent me) {
                     requestFocus();
+                    requestStart();
                
             }//end of the mousePressed Method
         } );//end of the Anonymous MouseAdapter Class
@@ -124,150 +342,899 @@ public class SubmarineKiller extends JPanel {
              */
             @Override
             public void focusGained(FocusEvent fe) {
-                timer.start();
+                startTimer();
                 repaint();
             }//end of the focusGained Method
             /**
-             * focusLost Method - Stops the timer when the panel looses input focus and repaints
-             * the panel.
+             * focusLost Method - Stops the timer when the panel looses input focus during a game,
+             * which pauses the game, and repaints the panel.
              * @param fe - the FocusEvent of loosing focus
              */
             @Override
             public void focusLost(FocusEvent fe) {
-                timer.stop();
+                if (state == GameState.PLAYING)
+                    timer.stop();
                 repaint();
             }//end of the focusLost Method
         });//end of the Anonymous FocusListener Class
         /**
-         * Anonymous KeyAdapter Class responds to the key events of the game.  It has only one
-         * method, keyPressed.
+         * Anonymous KeyAdapter Class responds to the key events of the game.  It has two methods,
+         * keyPressed and keyReleased.  The keys of the game are not applied here, but offered to
+         * the input of the world, which applies them at the start of its next tick.
          */
-        addKeyListener(new KeyAdapter() {
+        keyListener = new KeyAdapter() {
         	/**
-        	 * keyPressed Method - Responds to the key pressed events of the panel.  Only the left,
-        	 * right, and down arrow keys have any effect.  The left and right arrow keys move the
-        	 * battleship, while the down arrow key releases the depthCharge.
+        	 * keyPressed Method - Responds to the key pressed events of the panel.  During a game,
+        	 * only the left, right, and down arrow keys, and the F3 key have any effect.  The left
+        	 * and right arrow keys move the battleship while they are held, while the down arrow key
+        	 * releases a depthCharge.  The F3 key shows or hides the timing of the frames.  When no
+        	 * game is played, the Enter key, the space bar, or an arrow key starts one, and the
+        	 * Escape key quits when a game is over.
         	 * @param ke - the KeyEvent of pressing the key
         	 */
             @Override
             public void keyPressed(KeyEvent ke) {
                 int code = ke.getKeyCode();//Determine which key was pressed
-                if (code == KeyEvent.VK_LEFT) {//If it is the left arrow key,
-                   /*Move the battleship left.  (If this moves the battleship out of the frame, its
-                    * position will be adjusted in the battleship.updateNewFrame method
-                    */
-                    battleship.centerX -= 15;
-                } else if (code == KeyEvent.VK_RIGHT) {//If it is the right arrow key,  
-                	/*Move the battleship right.  (If this moves battleship out of the frame, its
-                	 * position will be adjusted in the battleship.updateNewFrame method.
-                	 */
-                	battleship.centerX += 15;
-                } else if (code == KeyEvent.VK_DOWN) {//If it is the down arrow key
-                	//Start the depthCharge falling, if it is not already falling.
-                    if (depthCharge.isFalling == false)
-                    	depthCharge.isFalling = true;
+                if (code == KeyEvent.VK_F3) {//If it is the F3 key, toggle the timing.
+                    isHudVisible = !isHudVisible;
+                    frameStats.setEnabled(isHudVisible);
+                    repaint();
+                } else if (state == GameState.PLAYING) {
+                    offerInput(getInputKey(code), ke);
+                } else if (code == KeyEvent.VK_ESCAPE && state == GameState.GAME_OVER) {
+                    System.exit(0);
+                } else if (code == KeyEvent.VK_ENTER || code == KeyEvent.VK_SPACE || getInputKey(code) >= 0) {
+                    requestStart();
                 }
-                
             }//end of the keyPressed Method
-        } );//end of the Anonymous KeyAdapter Class
+        	/**
+        	 * keyReleased Method - Responds to the key released events of the panel, which stop the
+        	 * battleship when an arrow key is no longer held.
+        	 * @param ke - the KeyEvent of releasing the key
+        	 */
+            @Override
+            public void keyReleased(KeyEvent ke) {
+                int key = getInputKey(ke.getKeyCode());
+                if (key >= 0 && state == GameState.PLAYING)
+                    offerInput(key | InputRing.RELEASED, ke);
+
+            }//end of the keyReleased Method
+        };//end of the Anonymous KeyAdapter Class
+        addKeyListener(keyListener);
     }//end of the SubmarineKiller Constructor
+    /**
+     * addNotify Method - Starts the timer when the panel is added to a frame, so that players are
+     * attracted before the panel has the input focus.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        startTimer();
+
+    }//end of the addNotify Method
+    /**
+     * removeNotify Method - Stops the timer and ends the replay when the panel is removed from its
+     * frame, so that a panel that is no longer shown leaves no timer running.
+     */
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        if (world != null)
+            finishReplay();
+        super.removeNotify();
+
+    }//end of the removeNotify Method
+    /**
+     * startTimer Method - Starts the timer, unless it is running.  The time that the timer was
+     * stopped for is not caught up on, so a paused game goes on where it was paused.
+     */
+    private void startTimer() {
+        if (timer.isRunning())
+            return;
+        timestep.reset();
+        timer.start();
+
+    }//end of the startTimer Method
+    /**
+     * setFrameRate Method - Sets how often the timer fires, and so how many frames are drawn each
+     * second.  The world is ticked at the same rate, whatever the frame rate is.
+     * @param targetFps - the number of frames per second, or 0 to fire as often as possible
+     */
+    void setFrameRate(int targetFps) {
+        if (targetFps < 0)
+            throw new IllegalArgumentException("targetFps must not be negative: " + targetFps);
+        int delay = targetFps == 0 ? 1 : Math.max(1, 1000 / targetFps);
+        timer.setDelay(delay);
+        timer.setInitialDelay(delay);
+
+    }//end of the setFrameRate Method
+    /**
+     * getInputKey Method - Gets the key of the game of a key code.
+     * @param code - the key code of a KeyEvent
+     * @return Int - Returns the key of the InputRing, or -1 if the key has no effect on the game.
+     */
+    private static int getInputKey(int code) {
+        switch (code) {
+            case KeyEvent.VK_LEFT:
+                return InputRing.LEFT;
+            case KeyEvent.VK_RIGHT:
+                return InputRing.RIGHT;
+            case KeyEvent.VK_DOWN:
+                return InputRing.DROP;
+            default:
+                return -1;
+        }
+    }//end of the getInputKey Method
+    /**
+     * offerInput Method - Offers a key event to the input of the world.  The time of the event is
+     * taken from when it happened, rather than from when it was dispatched, so that the latency of
+     * a key includes the time the event waited to be dispatched.
+     * @param event - the key of the event, with the RELEASED bit set if the key went up, or -1
+     * @param ke - the KeyEvent
+     */
+    private void offerInput(int event, KeyEvent ke) {
+        GameWorld current = world;
+        if (event < 0 || current == null)
+            return;
+        long ageMillis = Math.max(0, System.currentTimeMillis() - ke.getWhen());
+        current.getInput().offer(event, System.nanoTime() - ageMillis * 1_000_000L);
+
+    }//end of the offerInput Method
     /**
      * paintComponent Method - Draws the current state of the game.  It draws the battleship, 
      * submarine, and DepthCharge by calling their respective draw methods.
      * @param g - the Graphic context
      */
     @Override
-    synchronized public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D)g;
+    public void paintComponent(Graphics g) {
+        paintFrame((Graphics2D)g, getWidth(), getHeight(), hasFocus());
+
+    } //end paintComponent Method
+    /**
+     * paintFrame Method - Draws the current state of the game onto a surface of the given size.  When
+     * the panel has a ScaledSurface, the frame is rendered at its logical resolution and upscaled;
+     * otherwise, it is rendered at the size of the surface.
+     * @param g2d - the Graphics context
+     * @param width - the width of the surface
+     * @param height - the height of the surface
+     * @param isFocused - true, if the game has the input focus
+     */
+    void paintFrame(Graphics2D g2d, int width, int height, boolean isFocused) {
+        if (surface != null)
+            surface.layout(width, height);
+        if (surface != null && !surface.isNative()) {
+            isFrameFocused = isFocused;
+            surface.draw(g2d, framePainter);
+        } else {
+            renderFrame(g2d, width, height, isFocused);
+        }
+        if (!isFramePainted) {
+            isFramePainted = true;
+            assets.start();
+            if (firstFrameListener != null)
+                firstFrameListener.run();
+        }
+    }//end of the paintFrame Method
+    /**
+     * renderFrame Method - Draws the current state of the game into the Graphics context.  This is
+     * shared by the paintComponent method of the panel and by the ActiveRenderer, which draws the
+     * game onto a Canvas, and the width and height are the logical size of the frame.  It reads
+     * only from the latest snapshot of the world, and it takes no monitor, so it never waits for
+     * the simulation.  The frame is recorded into the display list on this thread, and then
+     * replayed, or, with a BandedSurface, replayed by every slice of the surface at once, without
+     * the timing of each entity.  A whole frame is then replayed once more into the FrameCapture,
+     * if there is one.
+     * @param g2d - the Graphics context
+     * @param width - the width of the surface
+     * @param height - the height of the surface
+     * @param isFocused - true, if the game has the input focus
+     */
+    void renderFrame(Graphics2D g2d, int width, int height, boolean isFocused) {
+        /*
+         * The frame is timed only if the timing was enabled when the frame began, so that a
+         * disabled FrameStats costs a single read of its flag.
+         */
+        boolean isTimed = frameStats.isEnabled();
+        long frameStart = 0, time;
+        if (isTimed) {
+            frameStart = System.nanoTime();
+            if (repaintRequestNanos != 0) {
+                frameStats.getHistogram(FrameStats.Phase.LATENCY).record(frameStart - repaintRequestNanos);
+                repaintRequestNanos = 0;
+            }
+        }
+        if (world == null) {
+            /** The first time that a frame is drawn, it assigns values to the instance variables. */
+            createWorld(width, height, System.nanoTime());
+        }
+        //A rectangle of the dirty region after the first one replays the frame that the first recorded.
+        boolean isRecorded = isDirtyFrame && isDirtyFrameRecorded;
+        if (!isRecorded)
+            snapshot = acquireSnapshot();
+        if (bandedSurface != null) {
+            GraphicsConfiguration gc = bandedSurface.layout(g2d, width, height);
+            spriteCache.validate(gc);
+            background.prepare(gc, width, height);
+            if (!isRecorded)
+                recordFrame(g2d, width, height, isFocused, isTimed);
+            bandedSurface.draw(g2d, bandPainter);
+        } else {
+            spriteCache.validate(g2d.getDeviceConfiguration());
+            if (!isRecorded)
+                recordFrame(g2d, width, height, isFocused, isTimed);
+            drawLayers(g2d, width, height, isTimed);
+        }
+        isDirtyFrameRecorded = isDirtyFrame;
+        if (frameCapture != null && !isRecorded && displayList.isWhole(width, height))
+            frameCapture.capture(bandPainter, width, height);
+        if (isTimed) {
+            time = frameStats.record(FrameStats.Phase.PAINT, frameStart);
+            if (snapshot.inputNanos != 0 && snapshot.inputNanos != reportedInputNanos) {
+                //This is the first frame that shows the key, which ends its key-to-photon latency.
+                frameStats.getHistogram(FrameStats.Phase.INPUT).record(time - snapshot.inputNanos);
+                reportedInputNanos = snapshot.inputNanos;
+            }
+        }
+
+    } //end renderFrame Method
+    /**
+     * recordFrame Method - Records the entities and the text of the frame from the snapshot into
+     * the display list, from the back to the front, under the clip of the Graphics context.
+     * @param g2d - the Graphics context
+     * @param width - the width of the surface
+     * @param height - the height of the surface
+     * @param isFocused - true, if the game has the input focus
+     * @param isTimed - true, if the recording is timed
+     */
+    private void recordFrame(Graphics2D g2d, int width, int height, boolean isFocused, boolean isTimed) {
+        long time = isTimed ? System.nanoTime() : 0;
+        DisplayList list = displayList;
+        if (isDirtyFrame)
+            list.begin(width, height);//The whole frame is recorded once for every rectangle of the dirty region.
+        else
+            list.begin(g2d);
+        list.setPhase(FrameStats.Phase.CLOUD_TWO);
+        cloudTwo.draw(list);
+        list.setPhase(FrameStats.Phase.SUN);
+        sun.draw(list);
+        list.setPhase(FrameStats.Phase.CLOUD_ONE);
+        cloudOne.draw(list);
+        if (isTitleShown(isFocused)) {
+            list.setPhase(null);
+            titleSprite.draw(list, ((screenWidth/2) - 140), screenHeight/10);
+        }
+        list.setPhase(FrameStats.Phase.BATTLESHIP);
+        battleship.draw(list);
+        list.setPhase(FrameStats.Phase.SUBMARINE);
+        submarine.draw(list);
+        list.setPhase(FrameStats.Phase.DEPTH_CHARGE);
+        depthCharge.draw(list);
+        list.setPhase(FrameStats.Phase.PARTICLES);
+        particles.draw(list, width, height);
+        list.setPhase(FrameStats.Phase.WAVES);
+        waves.draw(list);
+        list.setPhase(null);
+        /**Display the score number of the hits and number of misses of the submarine */
+        list.text(getText(scoreText, "SCORE:  ", snapshot.hits), 15, 22, font1, SCORE_COLOR, SCORE_BOUNDS);
+        list.text(getText(missesText, "MISSES: ", snapshot.misses), 15, 40, font1, SCORE_COLOR, SCORE_BOUNDS);
+        if (state == GameState.GAME_OVER)
+            drawGameOver(list);
+        if (isHudVisible)
+            drawHud(list);
+        if (isTimed) frameStats.record(FrameStats.Phase.RECORD, time);
+
+    }//end of the recordFrame Method
+    /**
+     * drawLayers Method - Draws the background and replays the display list of the frame.  It only
+     * reads the state of the panel, so it can draw the slices of a BandedSurface at once when it is
+     * not timed.
+     * @param g2d - the Graphics context
+     * @param width - the width of the surface
+     * @param height - the height of the surface
+     * @param isTimed - true, if the draw of each entity is timed
+     */
+    private void drawLayers(Graphics2D g2d, int width, int height, boolean isTimed) {
+        long time = isTimed ? System.nanoTime() : 0;
 	g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		
-	/**Beginning of drawing the gradient colors of the background */
-        Color color1 = new Color(252, 252, 164);//the yellowish color of the sky
-        Color color2 = new Color(6, 52, 69);//the bluish color of the water
-        GradientPaint gp = new GradientPaint(0, 150, color1, 0, getHeight(), color2);//
-        g2d.setPaint(gp);
-        g2d.fillRect(0, 0, getWidth(), getHeight());//Fill the rectangle the dimension of the screen
-        
-        if (battleship == null) {
-            /** The first time that paintComponent is called, it assigns values to the instance variables. */
-            screenWidth = getWidth();
-            screenHeight = getHeight();
-            sun = new Sun();
-            cloudOne = new CloudOne();
-            cloudTwo = new CloudTwo();
-            battleship = new Battleship();
-            depthCharge = new DepthCharge();
-            waves = new Wave();
-            submarine = new Submarine();
-            
+	/**
+	 * Draw the gradient colors of the background from its cache.  The background covers the whole
+	 * panel, so the panel does not fill itself with its background color first.
+	 */
+        background.draw(g2d, width, height);
+        if (isTimed) frameStats.record(FrameStats.Phase.BACKGROUND, time);
+        displayList.replay(g2d, isTimed ? frameStats : null);
+
+    }//end of the drawLayers Method
+    /**
+     * isTitleShown Method - Determines whether the title that instructs the user to click the frame
+     * is drawn, which is while players are attracted, and while a game is paused.
+     * @param isFocused - true, if the game has the input focus
+     * @return Boolean - Returns true, if the title is drawn; otherwise, it returns false.
+     */
+    private boolean isTitleShown(boolean isFocused) {
+        return state == GameState.ATTRACT
+                || (state == GameState.PLAYING && !isFocused && (snapshot.hits + snapshot.misses) != 10);
+
+    }//end of the isTitleShown Method
+    /**
+     * drawGameOver Method - Records the results of the game that is over, and how to play again.
+     * @param list - the DisplayList of the frame
+     */
+    private void drawGameOver(DisplayList list) {
+        int x = getGameOverX();
+        int y = getGameOverY();
+        gameOverBounds.setBounds(x, y, GAME_OVER_WIDTH, GAME_OVER_HEIGHT);
+        gameOverSprite.draw(list, x + 130, y + 48);
+        list.text(getText(resultText, "Your score is ", snapshot.hits), x + 140, y + 90, font1, SCORE_COLOR, gameOverBounds);
+        list.text(PLAY_AGAIN_TEXT, x + 175, y + 120, font1, SCORE_COLOR, gameOverBounds);
+
+    }//end of the drawGameOver Method
+    /**
+     * getGameOverX Method - Gets the left edge of the results of a game that is over.
+     * @return Int - Returns the x position in pixels.
+     */
+    private int getGameOverX() {return screenWidth/2 - GAME_OVER_WIDTH/2;}
+    /**
+     * getGameOverY Method - Gets the top edge of the results of a game that is over.
+     * @return Int - Returns the y position in pixels.
+     */
+    private int getGameOverY() {return screenHeight/10 - 48;}
+    /**
+     * drawHud Method - Records the timing of each phase of the frames next to the score.  The text
+     * is formatted again only a few times a second, so that it can be read while it changes.
+     * @param list - the DisplayList of the frame
+     */
+    private void drawHud(DisplayList list) {
+        if (!list.hitClip(HUD_BOUNDS.x, HUD_BOUNDS.y, HUD_BOUNDS.width, HUD_BOUNDS.height))
+            return;
+        long now = System.nanoTime();
+        if (hudText[0] == null || now - hudTextNanos >= HUD_REFRESH_NANOS) {
+            FrameStats.Phase[] phases = FrameStats.Phase.values();
+            for (int i = 0; i < phases.length; i++) {
+                PhaseHistogram histogram = frameStats.getHistogram(phases[i]);
+                hudText[i * HUD_COLUMNS] = phases[i].name();
+                hudText[i * HUD_COLUMNS + 1] = String.format("p50 %.3f", histogram.getPercentile(0.50) / 1e6);
+                hudText[i * HUD_COLUMNS + 2] = String.format("p99 %.3f", histogram.getPercentile(0.99) / 1e6);
+                hudText[i * HUD_COLUMNS + 3] = String.format("max %.3f ms", histogram.getMax() / 1e6);
+            }
+            hudTextNanos = now;
+        }
+        for (int i = 0; i < hudText.length; i++)
+            list.text(hudText[i], HUD_BOUNDS.x + 10 + 150 * (i % HUD_COLUMNS), 22 + 18 * (i / HUD_COLUMNS), font1,
+                    SCORE_COLOR, HUD_BOUNDS);
+
+    }//end of the drawHud Method
+    /**
+     * markRepaintRequested Method - Notes the time at which a frame was requested, so that the
+     * latency from the request to the painting of the frame is timed.
+     */
+    void markRepaintRequested() {
+        if (frameStats.isEnabled())
+            repaintRequestNanos = System.nanoTime();
+
+    }//end of the markRepaintRequested Method
+    /**
+     * getFrameStats Method - Gets the timing of the frames of the panel.
+     * @return FrameStats - Returns the FrameStats of the panel.
+     */
+    public FrameStats getFrameStats() {return frameStats;}
+    /**
+     * setFrameCapture Method - Sets the capture that records every whole frame that is painted.
+     * It must be called from the thread that draws, or before the panel is shown.
+     * @param newCapture - the FrameCapture, or null to stop recording the frames
+     */
+    void setFrameCapture(FrameCapture newCapture) {
+        frameCapture = newCapture;
+        isRepaintNeeded = true;
+
+    }//end of the setFrameCapture Method
+    /**
+     * getDisplayList Method - Gets the list of the blits and the text of the last frame.
+     * @return DisplayList - Returns the DisplayList of the panel.
+     */
+    DisplayList getDisplayList() {return displayList;}
+    /**
+     * repaintDirtyRegion Method - Paints the dirty region of the frame, one rectangle at a time,
+     * or the whole panel when the dirty region is too large.  The rectangles are painted with the
+     * paintImmediately method, because the RepaintManager would merge several repaint requests
+     * into their bounding rectangle, which spans the panel from the clouds to the submarine.  The
+     * dirty region is in the logical pixels of the frame, so on a ScaledSurface each rectangle is
+     * painted where it is upscaled to.
+     */
+    void repaintDirtyRegion() {
+        if (!updateDirtyRegion()) {
+            repaint();
+            return;
+        }
+        isDirtyFrame = true;
+        isDirtyFrameRecorded = false;
+        try {
+            for (int i = 0; i < dirtyRegion.getCount(); i++) {
+                getDirtyBounds(i, panelBounds);
+                paintImmediately(panelBounds);
+            }
+        } finally {
+            isDirtyFrame = false;
+        }
+    }//end of the repaintDirtyRegion Method
+    /**
+     * paintDirtyRegion Method - Paints the dirty region that the updateDirtyRegion method set into
+     * a Graphics context, one rectangle at a time with the clip set to it, as the repaintDirtyRegion
+     * method does with paintImmediately, so that the path can be run without a display.
+     * @param g2d - the Graphics context of the panel, whose clip is removed afterward
+     */
+    void paintDirtyRegion(Graphics2D g2d) {
+        isDirtyFrame = true;
+        isDirtyFrameRecorded = false;
+        try {
+            for (int i = 0; i < dirtyRegion.getCount(); i++) {
+                getDirtyBounds(i, panelBounds);
+                g2d.setClip(panelBounds.x, panelBounds.y, panelBounds.width, panelBounds.height);
+                paintComponent(g2d);
+            }
+        } finally {
+            isDirtyFrame = false;
+            g2d.setClip(null);
+        }
+    }//end of the paintDirtyRegion Method
+    /**
+     * updateDirtyRegion Method - Sets the dirty region of the frame at the logical size of the panel.
+     * @return Boolean - Returns true, if painting the dirty region is enough; otherwise, it returns
+     * false, and the whole panel has to be painted.
+     */
+    boolean updateDirtyRegion() {
+        if (isScaled())
+            return updateDirtyRegion(surface.getWidth(), surface.getHeight());
+        return updateDirtyRegion(getWidth(), getHeight());
+
+    }//end of the updateDirtyRegion Method
+    /**
+     * getDirtyBounds Method - Gets the rectangle of the panel that a rectangle of the dirty region
+     * is painted in.
+     * @param i - the index of the rectangle of the dirty region
+     * @param bounds - the Rectangle that is set to the rectangle of the panel
+     */
+    void getDirtyBounds(int i, Rectangle bounds) {
+        if (isScaled())
+            surface.toPanel(dirtyRegion.getX(i), dirtyRegion.getY(i), dirtyRegion.getWidth(i), dirtyRegion.getHeight(i), bounds);
+        else
+            bounds.setBounds(dirtyRegion.getX(i), dirtyRegion.getY(i), dirtyRegion.getWidth(i), dirtyRegion.getHeight(i));
+
+    }//end of the getDirtyBounds Method
+    /**
+     * isScaled Method - Determines whether the frames are upscaled from a logical resolution that
+     * differs from the size of the panel.
+     * @return Boolean - Returns true, if the frames are upscaled; otherwise, it returns false.
+     */
+    private boolean isScaled() {
+        if (surface == null)
+            return false;
+        surface.layout(getWidth(), getHeight());
+        return !surface.isNative();
+
+    }//end of the isScaled Method
+    /**
+     * updateDirtyRegion Method - Acquires the latest snapshot of the world, and sets the dirty
+     * region to the bounds of every entity in the previous frame and in this one, and to the
+     * bounds of the score.  This runs on the thread that draws, before the frame is painted.
+     * @param width - the width of the panel
+     * @param height - the height of the panel
+     * @return Boolean - Returns true, if painting the dirty region is enough; otherwise, it returns
+     * false, and the whole panel has to be painted.
+     */
+    boolean updateDirtyRegion(int width, int height) {
+        snapshot = acquireSnapshot();
+        DirtyRegion bounds = previousBounds;
+        previousBounds = currentBounds;
+        currentBounds = bounds;
+        currentBounds.clear();
+        currentBounds.add(SCORE_BOUNDS.x, SCORE_BOUNDS.y, SCORE_BOUNDS.width, SCORE_BOUNDS.height);
+        if (isHudVisible)
+            currentBounds.add(HUD_BOUNDS.x, HUD_BOUNDS.y, HUD_BOUNDS.width, HUD_BOUNDS.height);
+        if (isTitleShown(hasFocus()))
+            titleSprite.addBounds(currentBounds, (screenWidth/2) - 140, screenHeight/10);
+        if (state == GameState.GAME_OVER)
+            currentBounds.add(getGameOverX(), getGameOverY(), GAME_OVER_WIDTH, GAME_OVER_HEIGHT);
+        cloudTwo.addBounds(currentBounds);
+        sun.addBounds(currentBounds);
+        cloudOne.addBounds(currentBounds);
+        battleship.addBounds(currentBounds);
+        submarine.addBounds(currentBounds);
+        depthCharge.addBounds(currentBounds);
+        particles.addBounds(currentBounds);
+        waves.addBounds(currentBounds);
+        dirtyRegion.clear();
+        dirtyRegion.addAll(previousBounds);
+        dirtyRegion.addAll(currentBounds);
+
+        long fullArea = (long)width * height;
+        long dirtyArea = dirtyRegion.getArea(width, height);
+        boolean isDirtyRegionEnough = boundsWorld == world && !isRepaintNeeded && frameCapture == null && width == screenWidth
+                && height == screenHeight && dirtyArea <= FULL_REPAINT_FRACTION * fullArea;
+        boundsWorld = world;
+        isRepaintNeeded = false;
+        pixelsRepainted = isDirtyRegionEnough ? dirtyArea : fullArea;
+        return isDirtyRegionEnough;
+
+    }//end of the updateDirtyRegion Method
+    /**
+     * getDirtyRegion Method - Gets the dirty region of the last frame.
+     * @return DirtyRegion - Returns the dirty region.
+     */
+    DirtyRegion getDirtyRegion() {return dirtyRegion;}
+    /**
+     * getPixelsRepainted Method - Gets the number of pixels that the timer painted in the last
+     * frame, which is the area of the panel when it painted the whole panel.
+     * @return long - Returns the number of pixels.
+     */
+    public long getPixelsRepainted() {return pixelsRepainted;}
+    /**
+     * paintTitle Method - Paints the text that instructs the user to click the frame to begin the
+     * game into its sprite.
+     * @param g2d - the Graphics context of the sprite
+     * @param x - the x position of the text
+     * @param y - the y position of the baseline of the text
+     */
+    private void paintTitle(Graphics2D g2d, int x, int y) {
+        g2d.setColor(TITLE_COLOR);
+        g2d.setFont(font2);
+        g2d.drawString(TITLE_TEXT, x, y);
+
+    }//end of the paintTitle Method
+    /**
+     * paintGameOver Method - Paints the title of the results of a game that is over into its sprite.
+     * @param g2d - the Graphics context of the sprite
+     * @param x - the x position of the text
+     * @param y - the y position of the baseline of the text
+     */
+    private void paintGameOver(Graphics2D g2d, int x, int y) {
+        g2d.setColor(TITLE_COLOR);
+        g2d.setFont(font2);
+        g2d.drawString(GAME_OVER_TEXT, x, y);
+
+    }//end of the paintGameOver Method
+    /**
+     * getText Method - Gets the text of a number of the score from its cache.
+     * @param cache - the String[] of the text of every number of a game
+     * @param label - the label of the text, for a number that is not in the cache
+     * @param number - the number of the score
+     * @return String - Returns the text of the number.
+     */
+    private static String getText(String[] cache, String label, int number) {
+        return number >= 0 && number < cache.length ? cache[number] : label + number;
+
+    }//end of the getText Method
+    /**
+     * createWorld Method - Creates the world at the current size of the panel, or at the logical
+     * size of its ScaledSurface.
+     * @param seed - the long seed of the GameRandom of the world
+     */
+    void createWorld(long seed) {
+        if (surface != null) {
+            surface.layout(getWidth(), getHeight());
+            createWorld(surface.getWidth(), surface.getHeight(), seed);
+            return;
         }
-        if (hasFocus()) {
-            cloudTwo.draw(g);
-            sun.draw(g);
-            cloudOne.draw(g);
-       	 
-        } else if (!hasFocus() && (hits + misses) == 10) {
-                   cloudTwo.draw(g);
-                   sun.draw(g);
-                   cloudOne.draw(g);
-           	 
-    	} else {
-                cloudTwo.draw(g);
-                sun.draw(g);
-                cloudOne.draw(g);
-                g.setColor(new Color(112, 3, 34));
-                g.setFont(font2);
-                g.drawString("CLICK TO BEGIN", ((screenWidth/2) - 140), screenHeight/10);
-            
+        createWorld(getWidth(), getHeight(), seed);
+
+    }//end of the createWorld Method
+    /**
+     * createWorld Method - Creates the world of the given size, or resets the world of the panel to
+     * the new seed, if it already has that size.
+     * @param width - the width of the world in pixels
+     * @param height - the height of the world in pixels
+     * @param seed - the long seed of the GameRandom of the world
+     */
+    void createWorld(int width, int height, long seed) {
+        screenWidth = width;
+        screenHeight = height;
+        if (world != null && world.getScreenWidth() == width && world.getScreenHeight() == height) {
+            finishReplay();
+            world.reset(seed);
+        } else {
+            if (world != null)
+                finishReplay();
+            world = new GameWorld(screenWidth, screenHeight, new GameRandom(seed), level);
+            world.setListener(effects);
         }
+        effects.reset();
+        isPreviousTickValid = false;
+        snapshot = world.getSnapshots().acquire();
+        isRepaintNeeded = true;
 
-        battleship.draw(g);
-        submarine.draw(g);
-        depthCharge.draw(g);
-        waves.draw(g);
-        /**Display the score number of the hits and number of misses of the submarine */
-        g2d.setColor(new Color(6, 52, 69));
-        g2d.setFont(font1);
-        g2d.drawString("SCORE:  " + hits, 15, 22);
-        g2d.drawString("MISSES: " + misses, 15, 40);
+    }//end of the createWorld Method
+    /**
+     * startGame Method - Starts a game of the given seed, which is recorded if the panel has a
+     * replay directory.  It must be called from the thread that ticks the world.
+     * @param seed - the long seed of the GameRandom of the world
+     */
+    void startGame(long seed) {
+        createWorld(seed);
+        if (replayDirectory != null) {
+            Path file = replayDirectory.resolve("game-" + Long.toHexString(seed) + ".skr");
+            try {
+                world.setRecorder(new ReplayRecorder(file, world));
+            } catch (IOException e) {
+                System.err.println("The replay " + file + " could not be created: " + e);
+            }
+        }
+        state = GameState.PLAYING;
 
-    } //end paintComponent Method
+    }//end of the startGame Method
+    /**
+     * enterState Method - Changes the state of the panel.  Attracting players starts a game that a
+     * bot plays, playing starts a game of a new seed, and a game that is over ends its replay, and
+     * begins to count down to attracting players again.
+     * @param newState - the GameState to enter
+     */
+    private void enterState(GameState newState) {
+        switch (newState) {
+            case ATTRACT:
+                createWorld(seeds.getAsLong());
+                if (attractBot != null)
+                    attractBot.reset();
+                state = GameState.ATTRACT;
+                break;
+            case PLAYING:
+                startGame(seeds.getAsLong());
+                break;
+            default:
+                finishReplay();
+                gameOverTicks = 0;
+                state = GameState.GAME_OVER;
+                isRepaintNeeded = true;
+                break;
+        }
+    }//end of the enterState Method
+    /**
+     * requestStart Method - Asks for a game to be started at the next tick, unless one is played.
+     */
+    void requestStart() {
+        if (state != GameState.PLAYING)
+            requestedState = GameState.PLAYING;
+
+    }//end of the requestStart Method
+    /**
+     * isRunning Method - Determines whether the world is ticked.  A game that is played pauses
+     * while the panel does not have the input focus, and the other states always run.
+     * @param isFocused - true, if the game has the input focus
+     * @return Boolean - Returns true, if the world is ticked; otherwise, it returns false.
+     */
+    boolean isRunning(boolean isFocused) {
+        return isFocused || state != GameState.PLAYING;
+
+    }//end of the isRunning Method
+    /**
+     * getState Method - Gets the state of the panel.
+     * @return GameState - Returns the state.
+     */
+    GameState getState() {return state;}
     /**
-     * Battleship Class - This nested class defines the Battleship.  Note that its constructor 
-     * cannot be called until the screenWidth of the panel is known!
+     * setReplayDirectory Method - Sets the directory that every game that is created from now on
+     * is recorded into, or stops recording if the directory is null.
+     * @param replayDirectory - the Path of the directory, or null
      */
-    private class Battleship {
+    void setReplayDirectory(Path replayDirectory) {this.replayDirectory = replayDirectory;}
+    /**
+     * setSeeds Method - Sets what supplies the seed of every game that the states start from now
+     * on, so that a run of the panel through its states can be repeated.
+     * @param seeds - the LongSupplier of the seeds
+     */
+    void setSeeds(LongSupplier seeds) {this.seeds = seeds;}
+    /**
+     * setSurface Method - Sets the ScaledSurface that the frames are rendered into, or renders them
+     * at the size of the panel if the surface is null.  A surface must only be used by one panel.
+     * @param surface - the ScaledSurface, or null
+     */
+    void setSurface(ScaledSurface surface) {this.surface = surface;}
+    /**
+     * setBandedSurface Method - Sets the BandedSurface that renders the frames in slices on several
+     * threads, or renders them on the thread that paints if the surface is null.  A surface must
+     * only be used by one panel.
+     * @param bandedSurface - the BandedSurface, or null
+     */
+    void setBandedSurface(BandedSurface bandedSurface) {this.bandedSurface = bandedSurface;}
+    /**
+     * setIconWindow Method - Sets the window whose icon is the icon of the game, once it is loaded.
+     * It must be called from the event dispatch thread.
+     * @param window - the Window of the panel
+     */
+    void setIconWindow(Window window) {
+        iconWindow = window;
+        if (icon.isLoaded())
+            window.setIconImage(icon.getImage());
+
+    }//end of the setIconWindow Method
+    /**
+     * assetLoaded Method - Responds to an asset that has been loaded on the thread of the loader,
+     * by setting the icon of the window, or by painting the whole panel again, so that the art of
+     * the sprites replaces their procedural painting.
+     * @param asset - the Asset that has been loaded
+     */
+    private void assetLoaded(AssetLoader.Asset asset) {
+        SwingUtilities.invokeLater(() -> {
+            if (asset == icon) {
+                if (iconWindow != null)
+                    iconWindow.setIconImage(asset.getImage());
+            } else {
+                repaint();
+            }
+        });
+    }//end of the assetLoaded Method
+    /**
+     * setFirstFrameListener Method - Sets what is run once, after the first frame has been painted.
+     * @param listener - the Runnable to run, or null
+     */
+    void setFirstFrameListener(Runnable listener) {firstFrameListener = listener;}
+    /**
+     * setFonts Method - Sets the fonts of the game, before it is shown.
+     * @param fonts - the GameFonts that were resolved at startup
+     */
+    void setFonts(GameFonts fonts) {
+        font1 = fonts.small;
+        font2 = fonts.large;
+        titleSprite.invalidate();
+        gameOverSprite.invalidate();
+
+    }//end of the setFonts Method
+    /**
+     * warmUp Method - Rasterizes the sprites that are not cached yet, and the background once the
+     * world has been created, before the panel is shown, so that the first frame only copies them.
+     * @param gc - the GraphicsConfiguration that the panel will be drawn on
+     */
+    void warmUp(GraphicsConfiguration gc) {
+        spriteCache.warmUp(gc);
+        if (world != null)
+            background.warmUp(gc, screenWidth, screenHeight);
+        warmUpText(gc);
+
+    }//end of the warmUp Method
+    /**
+     * warmUpText Method - Draws the results of every score once.  The glyphs of a text are laid
+     * out into buffers that the JDK shares and grows to the longest text drawn so far, so the first
+     * frame of a game over with a longer result than any text before it would allocate them.
+     * @param gc - the GraphicsConfiguration that the panel will be drawn on
+     */
+    private void warmUpText(GraphicsConfiguration gc) {
+        Image image = gc.createCompatibleImage(1, 1);
+        Graphics g = image.getGraphics();
+        g.setFont(font1);
+        for (String text : resultText)
+            g.drawString(text, 0, 0);
+        g.dispose();
+        image.flush();
+
+    }//end of the warmUpText Method
+    /**
+     * getAssets Method - Gets the loader of the assets of the panel.
+     * @return AssetLoader - Returns the loader.
+     */
+    AssetLoader getAssets() {return assets;}
+    /**
+     * finishReplay Method - Records the end of the game into its replay, if the game is recorded.
+     */
+    private void finishReplay() {
+        ReplayRecorder recorder = world.getRecorder();
+        if (recorder == null)
+            return;
+        world.setRecorder(null);
+        try {
+            recorder.finish(world);
+            System.out.println("Recorded the replay " + recorder.getFile());
+        } catch (IOException e) {
+            System.err.println("The replay " + recorder.getFile() + " could not be completed: " + e);
+        }
+    }//end of the finishReplay Method
+    /**
+     * advanceFrame Method - Runs the ticks of the world that are due at a time, and sets the
+     * interpolation of the next frame to the fraction of the next tick that has passed.  This is
+     * what runs each time the timer fires.
+     * @param now - the current time in nanoseconds
+     */
+    void advanceFrame(long now) {
+        for (int ticks = timestep.advance(now); ticks > 0; ticks--)
+            updateNewFrame();
+        interpolation = timestep.getAlpha();
+
+    }//end of the advanceFrame Method
+    /**
+     * setInterpolation Method - Sets the fraction of the way from the previous tick to the current
+     * one at which the next frames are drawn.  It must be called from the thread that draws.
+     * @param alpha - the fraction, where 1 draws the current tick as it is
+     */
+    void setInterpolation(double alpha) {interpolation = alpha;}
+    /**
+     * acquireSnapshot Method - Acquires the latest snapshot of the world, and interpolates it from
+     * the previous tick when the frame is drawn between two ticks.
+     * @return WorldSnapshot - Returns the snapshot that the frame is drawn from.
+     */
+    WorldSnapshot acquireSnapshot() {
+        WorldSnapshot current = world.getSnapshots().acquire();
+        if (interpolation >= 1 || !isPreviousTickValid || previousTick.tickCount + 1 != current.tickCount)
+            return current;
+        interpolatedView.interpolate(previousTick, current, interpolation, level.getChargeSpeed());
+        return interpolatedView;
+
+    }//end of the acquireSnapshot Method
+    /**
+     * updateNewFrame Method - Updates every entity of the world by one frame, and the state of the
+     * panel.  This is the update chain of every tick.  A state that was asked for is entered first,
+     * the world is copied into the previousTick, and the bot plays the game of the attract state.
+     * The particles of the effects are updated with the world.
+     */
+    void updateNewFrame() {
+        GameState requested = requestedState;
+        if (requested != null) {
+            requestedState = null;
+            enterState(requested);
+        }
+        previousTick.copyFrom(world);
+        isPreviousTickValid = true;
+        if (state == GameState.ATTRACT) {
+            if (attractBot == null)
+                attractBot = new BotTournament.Tracker(world);
+            attractView.copyFrom(world);
+            attractBot.control(world, attractView);
+        }
+        if (frameStats.isEnabled()) {
+            long start = System.nanoTime();
+            world.tick();
+            effects.update();
+            frameStats.record(FrameStats.Phase.UPDATE, start);
+        } else {
+            world.tick();
+            effects.update();
+        }
+        if (state == GameState.GAME_OVER) {
+            if (++gameOverTicks >= GAME_OVER_TICKS)
+                enterState(GameState.ATTRACT);
+        } else if (world.isGameOver()) {
+            enterState(state == GameState.PLAYING ? GameState.GAME_OVER : GameState.ATTRACT);
+        }
+    }//end of the updateNewFrame Method
+    /**
+     * getWorld Method - Gets the world of the panel, which is null until the first paint.
+     * @return GameWorld - Returns the world of the panel.
+     */
+    GameWorld getWorld() {return world;}
+    /**
+     * getParticles Method - Gets the particles of the effects of the panel.
+     * @return ParticleSystem - Returns the particles.
+     */
+    ParticleSystem getParticles() {return particles;}
+    /**
+     * Battleship Class - This nested class draws the Battleship of the world from its cached
+     * sprite.
+     */
+    class Battleship implements SpriteCache.Painter {
         //Instance Variables
-        int centerX, centerY;  // Current position of the center of the Battleship.
-        
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("battleship"), -134, -18, 284, 72);
+
         /**
-         * Battleship Constructor - Creates an instance of the Battleship.  The constructor centers
-         * the Battleship horizontally, 80 pixels from top.
+         * draw Method - Draws the Battleship at its location
+         * @param list - the DisplayList of the frame
          */
-        Battleship() {
-            centerX = screenWidth/2;
-            centerY = 200;
-            
-        }//end of the Battleship Constructor
+        void draw(DisplayList list) {
+            sprite.draw(list, snapshot.battleshipX, snapshot.battleshipY);
+
+        }//end of the draw Method for the Battleship
         /**
-         * updateNewFrame Method - Updates the Battleship frame, and makes sure it does not move
-         * off the screen.
+         * addBounds Method - Adds the bounds of the Battleship to a region.
+         * @param region - the DirtyRegion to add the bounds to
          */
-        synchronized void updateNewFrame() {
-            if (centerX < 130) {
-                centerX = 130;
-                
-            } else if (centerX > screenWidth - 145) {
-                centerX = screenWidth - 145;
-            } 
-        }//end of the updateNewFrame Method for the Battleship
+        void addBounds(DirtyRegion region) {
+            sprite.addBounds(region, snapshot.battleshipX, snapshot.battleshipY);
+
+        }//end of the addBounds Method for the Battleship
         /**
-         * draw Method - Draws the Battleship at its location
-         * @param g - the Graphics context
+         * paint Method - Paints the shapes of the Battleship into its sprite.
+         * @param g2d - the Graphics context of the sprite
+         * @param centerX - the x position of the center of the Battleship
+         * @param centerY - the y position of the center of the Battleship
          */
-        synchronized void draw(Graphics g) {
-            Graphics2D g2d = (Graphics2D)g;
+        @Override
+        public void paint(Graphics2D g2d, int centerX, int centerY) {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             g2d.setColor(new Color(107, 112, 120));//Beginning of the battleship
             g2d.fillArc(centerX-130, centerY -40, 275, 90, 0, -180);
@@ -276,183 +1243,142 @@ public class SubmarineKiller extends JPanel {
             g2d.fillRect(centerX +50, centerY, 40, 12);//right rectangle
             g2d.setStroke(new BasicStroke(4, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
             g2d.drawLine(centerX , centerY, centerX - 80, centerY - 10);
-            
-        }//end of the draw Method for the Battleship
+
+        }//end of the paint Method for the Battleship
     } //end the nested Battleship Class
     /**
-     * DepthCharge Class - This nested class defines the DepthCharge. 
+     * DepthCharge Class - This nested class draws the DepthCharge of the world.
      */
-    private class DepthCharge {
-    	//Instance Variables
-        int centerX, centerY;//The current position of the center of the DepthCharge.
-        boolean isFalling;//If true, the DepthCharge is falling; if false, it is attached to the battleship
-    	protected final int depthChargeWidth = 30;//the width in pixels
-    	protected final int depthChargeHeight = 15;//the height in pixels
-    	
-    	/**
-    	 * DepthCharge Constructor - Creates an object of the DepthCharge.  Initially, it is attached to
-    	 * the Battleship
-    	 */
-        DepthCharge() {
-        	isFalling = false;
-                
-        }//end of the DepthCharge Constructor
-        /**
-         * updateNewFrame Method - Updates the DepthCharge frame
-         */
-        synchronized void updateNewFrame() { 
-
-            if (((hits + misses) == numberOfCharges) && !submarine.isExploding)
-            	doGameOver();
-            if (isFalling) {// If DepthCharge is falling, take appropriate action.
-                if (centerY > screenHeight) {//If the depthCharge's centerY position is greater than screenHeight,
-                	//the DepthCharge has missed the submarine.  It is returned to its initial state
-                    isFalling = false;
-                    misses++;//The DepthCharge has missed.  Increment the number of misses.
-
-                } else if (getCollision()) {//If depthCharge rectangle has intersected with submarine rectangle,
-                	//there is an explosion occurring
-                	submarine.isExploding = true;
-                	submarine.explosionFrameNumber = 1;//The submarine enters the "isExploding" state
-                	//Sound.DEPTH_CHARGE_EXPLOSION.play();
-                	isFalling = false;//Return the DepthCharge's position back to the battleship
-                	hits++;//The DepthCharge has hit the submarine.  Increment the number of hits
-   
-                } else {//If the DepthCharge has not fallen from the Battleship or hit the submarine,
-                        //it is moved down 10 pixels.
-                    centerY += 10;
+    class DepthCharge implements SpriteCache.Painter {
+        //Instance Variables
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("depth-charge"), -9, -9, 32, 17);
 
-                }
-            }
-        }//end of the updateNewFrame Method for the DepthCharge Class
     	/**
-    	 * drawDepthCharge Method - Draws the depth charge under the center of the battleship, if the
-    	 * depth charge is NOT falling.  If the depth charge is falling, it moves the depth charge
-    	 * downwards.  And then, it verifies whether it has either hit or missed the submarine.  In
-    	 * either case, its state changes to not falling and reappears back under the battleshipCenterX
-    	 * position in the next frame.
-    	 * @param g - the Graphics context
-    	 * @return Void
+    	 * draw Method - Draws every falling depth charge at its location from its cached sprite, and
+    	 * the depth charge that is attached under the center of the battleship.
+    	 * @param list - the DisplayList of the frame
     	 */
-        synchronized void draw(Graphics g) {
-            if (!isFalling) {// If not falling,
-            	//set the centerX and centerY position to show the DepthCharge on the bottom of the battleship.
-                centerX = battleship.centerX;
-                centerY = battleship.centerY + 23;
-            }
-            /** Begin drawing the depth charge */
-    		Graphics2D g2d = (Graphics2D) g;
-    		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setColor(Color.BLACK);
-                g2d.fillOval(centerX - 8, centerY - 8, depthChargeWidth, depthChargeHeight);
+        void draw(DisplayList list) {
+            if (snapshot.isDepthChargeAttached)
+                sprite.draw(list, snapshot.attachedChargeX, snapshot.attachedChargeY);
+            for (int i = 0; i < snapshot.depthChargeCount; i++)
+                sprite.draw(list, snapshot.depthChargeX[i], snapshot.depthChargeY[i]);
 
         }//end of the draw Method for the DepthCharge Class
         /**
-         * getBounds Method - Gets the rectangular bounds of the depthCharge
-         * @return Rectangle - Returns the rectangular dimension of the depthCharge at the centerX and
-         * centerY position.
+         * addBounds Method - Adds the bounds of every depth charge to a region.
+         * @param region - the DirtyRegion to add the bounds to
          */
-        Rectangle getBounds() {
-        	return new Rectangle(centerX, centerY, depthChargeWidth, depthChargeHeight);
-        }//end of the getBounds Method
+        void addBounds(DirtyRegion region) {
+            if (snapshot.isDepthChargeAttached)
+                sprite.addBounds(region, snapshot.attachedChargeX, snapshot.attachedChargeY);
+            for (int i = 0; i < snapshot.depthChargeCount; i++)
+                sprite.addBounds(region, snapshot.depthChargeX[i], snapshot.depthChargeY[i]);
+
+        }//end of the addBounds Method for the DepthCharge Class
         /**
-         * getCollision Method - Determines whether or not the has collided with the submarine.
-         * @return Boolean - Returns true, if there is a collision with the submarine; otherwise, it returns
-         * false.
+         * paint Method - Paints the depth charge into its sprite.
+         * @param g2d - the Graphics context of the sprite
+         * @param centerX - the x position of the center of the depth charge
+         * @param centerY - the y position of the center of the depth charge
          */
-        boolean getCollision() {
-            return (submarine.getBounds().intersects(getBounds()));
-        	
-        }//end of the getCollision Method
+        @Override
+        public void paint(Graphics2D g2d, int centerX, int centerY) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillOval(centerX - 8, centerY - 8, GameWorld.DepthChargePool.depthChargeWidth,
+                    GameWorld.DepthChargePool.depthChargeHeight);
+
+        }//end of the paint Method for the DepthCharge Class
     }//end of the nested class DepthCharge
     /**
-     * Submarine Class - This nested class defines the submarine.  Note that its constructor is not
-     * be called until the screenWidth of the panel is known!
+     * Submarine Class - This nested class draws the submarines of the world.  The body of the
+     * submarine is drawn from its cached sprite.
      */
-    private class Submarine {
-    	//Instance Variables
-        int centerX, centerY; //Current position of the center of the submarine.
-        boolean isMovingLeft; //Tells whether the submarine is moving left or right
-        boolean isExploding;  //Set to true when the submarine is hit by the DepthCharge.
-        //If the submarine is exploding, this is the number of frames since the explosion started
-        int explosionFrameNumber;                
-        int submarineWidth = 264;
-        int submarineHeight = 72;
-        
+    class Submarine implements SpriteCache.Painter {
+        //Instance Variables
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("submarine"), -32, -86, 268, 146);
+        /** The explosion holds a sprite of the explosion for each of its frames */
+        final SpriteCache.Sprite[] explosion = new SpriteCache.Sprite[15];
+
         /**
-         * Submarine Constructor - Creates an object of the Submarine at a random location 72
-         * pixels from the bottom of the frame.
+         * Submarine Constructor - Creates the sprites of the submarine and of every frame of its
+         * explosion.
          */
         Submarine() {
-            centerX = (int)(screenWidth * Math.random());
-            centerY = screenHeight - 72;
-            isExploding = false;
-            isMovingLeft = (Math.random() < 0.5);
-            
+            for (int i = 1; i < explosion.length; i++) {
+                final int frameNumber = i;
+                explosion[i] = spriteCache.define("explosion-" + i, (g2d, centerX, centerY) ->
+                        paintExplosion(g2d, centerX, centerY, frameNumber),
+                        79 - 8 * i, -1 - 4 * i, 13 * i + 2, 5 * i + 2);
+            }
         }//end of the Submarine Constructor
         /**
-         * updateNewFrame Method - Updates the position of the submarine.  For example, this method
-         * moves the submarine; or when exploding, it increases the explosionFrameNumber.
+         * draw Method - Draws each submarine using its centerX and centerY positions as references.  If
+         * a submarine is exploding, it draws the frame of the explosion from its sprite.
+         * @param list - the DisplayList of the frame
          */
-        synchronized void updateNewFrame() { 
-            if (isExploding) {
-                /** 
-                 * If the submarine is exploding, add 1 to explosionFrameNumber.  When the number 
-                 * reaches 15, the explosion ends and the submarine reappears in a random position.
-                 */
-                explosionFrameNumber++;
-                if (explosionFrameNumber == 15) { 
-                    centerX = (int)(screenWidth * Math.random());
-                    centerY = screenHeight - 72;
-                    isExploding = false;
-                    isMovingLeft = (Math.random() < 0.5);
-                }
-            } else { //Move the submarine.
-                if (Math.random() < 0.04) {  
-                   /** 
-                    *  In one frame out of every 25, on average, the submarine reverses its direction 
-                    *  of motion.
-                    */ 
-                    isMovingLeft = ! isMovingLeft; 
+        void draw(DisplayList list) {
+            for (int i = 0; i < snapshot.submarineCount; i++) {
+                int centerX = snapshot.submarineX[i];
+                int centerY = snapshot.submarineY[i];
+                int explosionFrameNumber = snapshot.explosionFrameNumber[i];
+                sprite.draw(list, centerX, centerY);
+                if (snapshot.isSubmarineExploding[i] && explosionFrameNumber > 0
+                        && explosionFrameNumber < explosion.length) {
+                    explosion[explosionFrameNumber].draw(list, centerX, centerY);
                 }
-                if (isMovingLeft) { 
-                    /** Move the submarine 5 pixels to the left.  If it moves of the left edge of
-                     * the panel, move it back to the left edge and start it moving to the right.
-                     */
-                    centerX -= 5;  
-                    if (centerX <= 40) {  
-                        centerX = 40; 
-                        isMovingLeft = false; 
-                    }
-                } else {
-                    /**
-                     * Move the submarine 5 pixels to the right.  If it moves off
-                     * the right edge of the panel, move it back to the right 
-                     * edge and start it moving to the left.
-                     */
-                    centerX += 5;         
-                    if (centerX > (screenWidth - 200)) {  
-                        centerX = screenWidth - 200;   
-                        isMovingLeft = true; 
-                    }
+            }
+        }//end of the draw Method for the Submarine Class
+        /**
+         * addBounds Method - Adds the bounds of every submarine and of its explosion to a region.
+         * @param region - the DirtyRegion to add the bounds to
+         */
+        void addBounds(DirtyRegion region) {
+            for (int i = 0; i < snapshot.submarineCount; i++) {
+                int explosionFrameNumber = snapshot.explosionFrameNumber[i];
+                sprite.addBounds(region, snapshot.submarineX[i], snapshot.submarineY[i]);
+                if (snapshot.isSubmarineExploding[i] && explosionFrameNumber > 0
+                        && explosionFrameNumber < explosion.length) {
+                    explosion[explosionFrameNumber].addBounds(region, snapshot.submarineX[i], snapshot.submarineY[i]);
                 }
             }
-        }//end of the updateNewFrame Method for the Battleship
+        }//end of the addBounds Method for the Submarine Class
         /**
-         * draw Method - Draws the submarine using its centerX and centerY positions as references.  If
-         * the submarine is exploding, it draws the explosion with the graphics context fillOval
-         * method, setColor method to yellow and red.
-         * @param g - the Graphics context
+         * paintExplosion Method - Paints a frame of the explosion into its sprite, by drawing an
+         * explosion that grows in size as it increases with the fillOval method, and the setColor
+         * method to yellow and red.
+         * @param g - the Graphics context of the sprite
+         * @param centerX - the x position of the center of the submarine
+         * @param centerY - the y position of the center of the submarine
+         * @param explosionFrameNumber - the number of frames since the explosion started
          */
-        synchronized void draw(Graphics g) {
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        void paintExplosion(Graphics2D g, int centerX, int centerY, int explosionFrameNumber) {
+            g.setColor(Color.YELLOW);
+            g.fillOval((centerX + 80) - 8 * explosionFrameNumber,
+                    centerY - 4 * explosionFrameNumber,
+                    13 * explosionFrameNumber,
+                    5 * explosionFrameNumber);
+            g.setColor(Color.RED);
+            g.fillOval((centerX + 80) - 6 * explosionFrameNumber,
+                    centerY - 3 * explosionFrameNumber,
+                    8 * explosionFrameNumber,
+                    2 * explosionFrameNumber);
 
+        }//end of the paintExplosion Method
+        /**
+         * paint Method - Paints the body of the submarine into its sprite.
+         * @param g2d - the Graphics context of the sprite
+         * @param centerX - the x position of the center of the submarine
+         * @param centerY - the y position of the center of the submarine
+         */
+        @Override
+        public void paint(Graphics2D g2d, int centerX, int centerY) {
             /** Draw the black oval and rectangle that represents the main body of the submarine */
             g2d.setColor(Color.BLACK);
-            g2d.fillOval(centerX - 30, centerY - 15, submarineWidth, submarineHeight);
+            g2d.fillOval(centerX - 30, centerY - 15, GameWorld.SubmarinePool.submarineWidth,
+                    GameWorld.SubmarinePool.submarineHeight);
             g2d.fillRect(centerX + 70, centerY - 30, 50, 25);
-            
+
             /** Increase the size of the basic stroke to draw the periscope of the submarine */
             g2d.setStroke(new BasicStroke(8, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER));
             g2d.drawLine(centerX +90, centerY-80  , centerX+90, centerY-25);
@@ -463,324 +1389,353 @@ public class SubmarineKiller extends JPanel {
             g2d.fillOval(centerX + 30, centerY , 20, 20);
             g2d.fillOval(centerX + 80, centerY, 20, 20);
             g2d.fillOval(centerX + 130, centerY, 20, 20);
-            if (isExploding) {
-                /** Draw an explosion that grows in size as it increases */
-                g.setColor(Color.YELLOW);
-                g.fillOval((centerX + 80) - 8 * explosionFrameNumber,
-                        centerY - 4 * explosionFrameNumber,
-                        13 * explosionFrameNumber,
-                        5 * explosionFrameNumber);
-                g.setColor(Color.RED);
-                g.fillOval((centerX + 80) - 6 * explosionFrameNumber,
-                        centerY - 3 * explosionFrameNumber,
-                        8 * explosionFrameNumber,
-                        2 * explosionFrameNumber);
-            }
-        }//end of the draw Method for the Submarine Class
+
+        }//end of the paint Method for the Submarine Class
+    } // end of the Submarine Nested Class
+    /**
+     * Effects Class - The nested class that emits the particles of the effects: a burst of fire
+     * where a submarine explodes, and of spray where the depth charge hit it, a splash where a
+     * depth charge is dropped, the wake behind the battleship while it moves, and the bubbles
+     * behind every submarine.  It is told about the events by the world, and it emits the trails
+     * after every tick.
+     */
+    class Effects implements GameWorld.Listener {
+        //Instance Variables
+        static final int FIRE_PARTICLES = 160;
+        static final int HIT_SPRAY_PARTICLES = 40;
+        static final int SPLASH_PARTICLES = 24;
+        static final int WAKE_PARTICLES = 3;
+        static final int BUBBLE_INTERVAL = 2;//the ticks between the bubbles of each submarine
+        private int lastBattleshipX;//The position of the battleship after the last tick
+
         /**
-         * getBounds Method - Gets the rectangular bounds of the submarine
-         * @return Rectangle - Returns the rectangular dimension of the submarine at the centerX and
-         * centerY position.
+         * reset Method - Removes every particle, when a new game starts.
          */
-        Rectangle getBounds() {
-            return new Rectangle(centerX, centerY, submarineWidth, submarineHeight);
-        	
-        }//end of the getBounds Method
-    } // end of the Submarine Nested Class 
-    /**
-     * Wave Class - The nested class that defines the waves.  Note that its constructor is not called
-     * until the screenWidth of the panel is known!
-     */
-    private class Wave {
-    	//Instance Variable
-    	int centerX;
-    	/**
-    	 * Default Wave Constructor - Creates an instance of the Wave.
-    	 */
-    	public Wave() {
-    		centerX = screenWidth / 1;
-                
-    	}//end of the Default Wave Constructor
-    	/**
-    	 * updateNewFrame Method - Updates the centerX position of the drawn arcs that moves them across 
-         * the panel.
-    	 */
-    	synchronized void updateNewFrame() {
-    		if (centerX < 0) {
-                    centerX = screenWidth / 1;
-                } else {
-                    centerX -= 1;
-                    if (centerX < screenWidth)
-                        centerX += 20;
-    		}		
-    	}//end of the updateNewFrame Method
+        void reset() {
+            particles.clear();
+            lastBattleshipX = world.battleship.centerX;
+
+        }//end of the reset Method
+        /**
+         * depthChargeDropped Method - Emits the splash of a depth charge that was dropped.
+         * @param centerX - the x position of the center of the depth charge
+         * @param centerY - the y position of the center of the depth charge
+         */
+        @Override
+        public void depthChargeDropped(int centerX, int centerY) {
+            particles.emit(ParticleSystem.Kind.SPRAY, centerX, centerY, SPLASH_PARTICLES, 0, 0);
+
+        }//end of the depthChargeDropped Method
+        /**
+         * depthChargeHit Method - Emits the spray of a depth charge that hit a submarine, where it
+         * hit.
+         * @param impactX - the x position of the impact
+         * @param impactY - the y position of the impact
+         */
+        @Override
+        public void depthChargeHit(int impactX, int impactY) {
+            particles.emit(ParticleSystem.Kind.SPRAY, impactX, impactY, HIT_SPRAY_PARTICLES, 0, 0);
+
+        }//end of the depthChargeHit Method
+        /**
+         * submarineExploded Method - Emits the fire of a submarine that was hit, at the center of
+         * its explosion.
+         * @param centerX - the x position of the center of the submarine
+         * @param centerY - the y position of the center of the submarine
+         */
+        @Override
+        public void submarineExploded(int centerX, int centerY) {
+            particles.emit(ParticleSystem.Kind.FIRE, centerX + 80, centerY, FIRE_PARTICLES, 0, 0);
+
+        }//end of the submarineExploded Method
+        /**
+         * update Method - Emits the wake of the battleship, if it moved in the last tick, and the
+         * bubbles behind the tail of every submarine that is not exploding, and moves every particle.
+         */
+        void update() {
+            GameWorld.Battleship ship = world.battleship;
+            int dx = ship.centerX - lastBattleshipX;
+            if (dx != 0) {
+                int sternX = dx > 0 ? ship.centerX - 130 : ship.centerX + 140;
+                particles.emit(ParticleSystem.Kind.WAKE, sternX, ship.centerY + 32, WAKE_PARTICLES, -0.15f * dx, 0);
+            }
+            lastBattleshipX = ship.centerX;
+            GameWorld.SubmarinePool subs = world.submarines;
+            if (world.getTickCount() % BUBBLE_INTERVAL == 0) {
+                for (int i = 0; i < subs.count; i++) {
+                    if (subs.isExploding[i])
+                        continue;
+                    int tailX = subs.velocityX[i] > 0 ? subs.centerX[i] - 30
+                            : subs.centerX[i] - 30 + GameWorld.SubmarinePool.submarineWidth;
+                    particles.emit(ParticleSystem.Kind.BUBBLE, tailX, subs.centerY[i] + 21, 1, -0.1f * subs.velocityX[i], 0);
+                }
+            }
+            particles.update();
+
+        }//end of the update Method for the Effects Class
+    } // end of the Effects Nested Class
+    /**
+     * Wave Class - The nested class that draws the waves of the world.
+     */
+    class Wave implements SpriteCache.Painter {
+        //Instance Variables
+        /*
+         * The waves repeat every 20 pixels, so a tile of TILE_PERIODS periods is rasterized once
+         * and drawn across the panel, instead of drawing every arc of both rows each frame.
+         */
+        static final int PERIOD = 20;
+        static final int TILE_PERIODS = 32;
+        static final int TILE_WIDTH = PERIOD * TILE_PERIODS;
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("wave"), 0, 6, TILE_WIDTH, 18);
+
     	/**
-    	 * draw Method - Draws the two roll of waves across the panel.
-    	 * @param g - the Graphic context
+    	 * draw Method - Draws the two roll of waves across the panel, by drawing the tile of each
+    	 * roll at the offset of the waves.
+    	 * @param list - the DisplayList of the frame
     	 */
-    	synchronized void draw(Graphics g) {
-            Graphics2D g2d = (Graphics2D)g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
+    	void draw(DisplayList list) {
+            for (int x = Math.floorMod(snapshot.wavesX, PERIOD) - PERIOD; x < screenWidth; x += TILE_WIDTH) {
+                sprite.draw(list, x, 220);//Drawing the first roll of waves across the panel
+                sprite.draw(list, x, 250);//Drawing the second roll of waves across the panel
+            }
+    	}//end of the draw Method
+        /**
+         * addBounds Method - Adds the bounds of both rolls of waves across the panel to a region,
+         * as the waves scroll every frame.
+         * @param region - the DirtyRegion to add the bounds to
+         */
+        void addBounds(DirtyRegion region) {
+            region.add(0, 226, screenWidth, 48);//From the top of the first roll to the bottom of the second
+
+        }//end of the addBounds Method
+        /**
+         * paint Method - Paints one tile of a roll of waves into its sprite.  The arcs on both ends
+         * are clipped by the edges of the tile, so the tiles line up without a seam.
+         * @param g2d - the Graphics context of the sprite
+         * @param centerX - the x position of the left edge of the tile
+         * @param centerY - the y position of the top of the arcs
+         */
+        @Override
+        public void paint(Graphics2D g2d, int centerX, int centerY) {
             /** Begin drawing the wave by setting the color to blue and increasing the basic stroke */
             g2d.setColor(new Color(6, 52, 166));
             g2d.setStroke(new BasicStroke(4, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-            for (int i = 0; i < (screenWidth + 120); i += 20) {
-                /**Drawing the first roll of waves across the panel */
-                g2d.drawArc((centerX - 40)- i + 20, 220, 20, 20, 0, -180);
-            }
-            for (int i = 0; i < (screenWidth + 120); i += 20) {
-                /**Drawing the second roll of waves across the panel */
-                g2d.drawArc((centerX - 40) - i + 20, 250, 20, 20, 0, -180);
-            }	
-    	}//end of the draw Method
+            for (int i = -PERIOD; i <= TILE_WIDTH; i += PERIOD)
+                g2d.drawArc(centerX + i, centerY, PERIOD, PERIOD, 0, -180);
+
+        }//end of the paint Method
     }//end of the Wave Class
     /**
-     * CloudOne Class - The nested class that defines the group of clouds in the foreground.  Note 
-     * that its constructor is not call until the screenWidth and screenHeight are known!
+     * CloudOne Class - The nested class that draws the group of clouds in the foreground.
      */
-    private class CloudOne {
+    class CloudOne implements SpriteCache.Painter {
     	//Instance Variables
-    	double centerX, centerY;
-	    Color cloudColor1;
+	    Color cloudColor1 = new Color(252, 252, 252);
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("cloud-one"), -702, -32, 544, 94);
 
     	/**
-    	 * Default Cloud Constructor - Creates an instance of CloudOne class
+    	 * draw Method - Draws CloudOne from its cached sprite at the CloudOne's centerX and
+    	 * centerY positions.
+    	 * @param list - the DisplayList of the frame
     	 */
-    	public CloudOne() {
-            centerX = screenWidth / 1.3091;
-            centerY = screenHeight / 18;
-            cloudColor1 = new Color(252, 252, 252);
-    
-    	}//end of the CloudOne Constructor
-    	/**
-    	 * updateNewFrame Method - Updates the centerX position of CloudOne that moves it across
-         * the panel.
-    	 */
-    	synchronized void updateNewFrame() {
-            if (centerX < 0) {
-                centerX = screenWidth + 700;
+    	void draw(DisplayList list) {
+            sprite.draw(list, (int)snapshot.cloudOneX, (int)snapshot.cloudOneY);
 
-            } else {
-                centerX -= 2;
+    	}//end of the draw Method for the CloudOne
+        /**
+         * addBounds Method - Adds the bounds of CloudOne to a region.
+         * @param region - the DirtyRegion to add the bounds to
+         */
+        void addBounds(DirtyRegion region) {
+            sprite.addBounds(region, (int)snapshot.cloudOneX, (int)snapshot.cloudOneY);
 
-            }		
-    	}//end of the updateNewFrame Method for the CloudOne
+        }//end of the addBounds Method for the CloudOne
     	/**
-    	 * draw Method - Draws CloudOne by using the graphics context fillOval and setColor methods 
-         * to fill ovals using the CloudOne's centerX and centerY positions.
-    	 * @param g - the Graphics context
+    	 * paint Method - Paints CloudOne into its sprite by using the graphics context fillOval and
+    	 * setColor methods to fill ovals around the given center.
+    	 * @param g2d - the Graphics context of the sprite
+    	 * @param centerX - the x position of the center of CloudOne
+    	 * @param centerY - the y position of the center of CloudOne
     	 */
-    	synchronized void draw(Graphics g) {
-            Graphics2D g2d = (Graphics2D)g;
+    	@Override
+    	public void paint(Graphics2D g2d, int centerX, int centerY) {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
             //Begin drawing medium cloud
             g2d.setColor(cloudColor1);
-            g2d.fillOval((int)centerX - 290, (int)centerY + 25, 130, 20);
-            g2d.fillOval((int)centerX - 282, (int)centerY + 22, 15, 15);
-            g2d.fillOval((int)centerX - 272, (int)centerY + 15, 35, 20);
-            g2d.fillOval((int)centerX - 250, (int)centerY, 50, 35);
-            g2d.fillOval((int)centerX - 210, (int)centerY + 15, 40, 26);
+            g2d.fillOval(centerX - 290, centerY + 25, 130, 20);
+            g2d.fillOval(centerX - 282, centerY + 22, 15, 15);
+            g2d.fillOval(centerX - 272, centerY + 15, 35, 20);
+            g2d.fillOval(centerX - 250, centerY, 50, 35);
+            g2d.fillOval(centerX - 210, centerY + 15, 40, 26);
 
             //Begin drawing large cloud
-            g2d.fillOval((int)centerX - 495, (int)centerY + 5, 170, 30);
-            g2d.fillOval((int)centerX - 465, (int)centerY - 20, 80, 40);
-            g2d.fillOval((int)centerX - 485, (int)centerY, 40, 20);
-            g2d.fillOval((int)centerX - 445, (int)centerY - 30, 40, 40);
-            g2d.fillOval((int)centerX - 465, (int)centerY - 10, 100, 30);
+            g2d.fillOval(centerX - 495, centerY + 5, 170, 30);
+            g2d.fillOval(centerX - 465, centerY - 20, 80, 40);
+            g2d.fillOval(centerX - 485, centerY, 40, 20);
+            g2d.fillOval(centerX - 445, centerY - 30, 40, 40);
+            g2d.fillOval(centerX - 465, centerY - 10, 100, 30);
 
             //Begin drawing small cloud
-            g2d.fillOval((int)centerX - 700, (int)centerY + 40, 95, 20);
-            g2d.fillOval((int)centerX - 690, (int)centerY + 37, 20, 20);
-            g2d.fillOval((int)centerX - 675, (int)centerY + 25, 30, 25);
-            g2d.fillOval((int)centerX - 650, (int)centerY + 35, 25, 15);
-    		
-    	}//end of the draw Method for the CloudOne
+            g2d.fillOval(centerX - 700, centerY + 40, 95, 20);
+            g2d.fillOval(centerX - 690, centerY + 37, 20, 20);
+            g2d.fillOval(centerX - 675, centerY + 25, 30, 25);
+            g2d.fillOval(centerX - 650, centerY + 35, 25, 15);
+
+    	}//end of the paint Method for the CloudOne
     }//end of the CloudOne Class
     /**
-     * CloudTwo Class - The nested class that defines the group of clouds behind the sun.  Note 
-     * that its constructor is not call until the screenWidth and screenHeight are known!
+     * CloudTwo Class - The nested class that draws the group of clouds behind the sun.
      */
-    private class CloudTwo {
+    class CloudTwo implements SpriteCache.Painter {
     	//Instance Variables
-    	double centerX, centerY;
-    	Color cloudColor2;
-    	
-    	/**
-    	 * Default CloudTwo Constructor - Creates an instance Cloud2 class.
-    	 */
-    	public CloudTwo() {
-            centerX = screenWidth / 1.1520;
-            centerY = screenHeight / 23.0769;
-            cloudColor2 = new Color(222, 220, 240);
-    		
-    	}//end of the Default CloudTwo Constructor
+    	Color cloudColor2 = new Color(222, 220, 240);
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("cloud-two"), -182, -7, 234, 69);
+
     	/**
-    	 * updateNewFrame Method - Updates the centerX position of CloudTwo that moves it across the
-         * panel.
+    	 * draw Method - Draws CloudTwo from its cached sprite at the CloudTwo's centerX and
+    	 * centerY positions.
+    	 * @param list - the DisplayList of the frame
     	 */
-    	synchronized void updateNewFrame() {
-            if (centerX < 0) {
-                centerX = screenWidth + 180;
-            } else {
-                centerX -= 3;
-            }
-    	}//end of the updateNewFrame Method for CloudTwo
+    	void draw(DisplayList list) {
+            sprite.draw(list, (int)snapshot.cloudTwoX, (int)snapshot.cloudTwoY);
+
+    	}//end of the draw Method for the CloudTwo
+        /**
+         * addBounds Method - Adds the bounds of CloudTwo to a region.
+         * @param region - the DirtyRegion to add the bounds to
+         */
+        void addBounds(DirtyRegion region) {
+            sprite.addBounds(region, (int)snapshot.cloudTwoX, (int)snapshot.cloudTwoY);
+
+        }//end of the addBounds Method for the CloudTwo
     	/**
-    	 * draw Method - Draws CloudTwo by using the graphics context fillOval and setColor methods 
-         * to fill ovals using the CloudTwo's centerX and centerY positions.
-    	 * @param g - the Graphics context
+    	 * paint Method - Paints CloudTwo into its sprite by using the graphics context fillOval and
+    	 * setColor methods to fill ovals around the given center.
+    	 * @param g2d - the Graphics context of the sprite
+    	 * @param centerX - the x position of the center of CloudTwo
+    	 * @param centerY - the y position of the center of CloudTwo
     	 */
-    	synchronized void draw(Graphics g) {
-            Graphics2D g2d = (Graphics2D)g;
+    	@Override
+    	public void paint(Graphics2D g2d, int centerX, int centerY) {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
             /**Begin drawing the CloudTwo's smaller cloud */
             g2d.setStroke(new BasicStroke(16, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
             g2d.setColor(cloudColor2);
-            g2d.fillOval((int)centerX-180,(int)centerY+1, 23, 13);
-            g2d.fillOval((int)centerX-175,(int)centerY+12, 25, 13);
-            g2d.fillOval((int)centerX-170,(int)centerY-5, 23, 19);
-            g2d.fillOval((int)centerX-155,(int)centerY+2, 22, 16);
-            g2d.fillOval((int)centerX-155,(int)centerY+15, 20, 15);
-            g2d.fillOval((int)centerX-145,(int)centerY+13, 20, 16);
+            g2d.fillOval(centerX-180,centerY+1, 23, 13);
+            g2d.fillOval(centerX-175,centerY+12, 25, 13);
+            g2d.fillOval(centerX-170,centerY-5, 23, 19);
+            g2d.fillOval(centerX-155,centerY+2, 22, 16);
+            g2d.fillOval(centerX-155,centerY+15, 20, 15);
+            g2d.fillOval(centerX-145,centerY+13, 20, 16);
 
             /**Begin drawing the CloudTwo's larger cloud */
-            g2d.fillOval((int)centerX-60,(int)centerY+10, 40, 20);
-            g2d.fillOval((int)centerX-40,(int)centerY+25, 35, 30);
-            g2d.fillOval((int)centerX-38,(int)centerY+5, 35, 40);
-            g2d.fillOval((int)centerX-10,(int)centerY+12, 40, 30);
-            g2d.fillOval((int)centerX-10,(int)centerY+30, 30, 30);
-            g2d.fillOval((int)centerX+5,(int)centerY+30, 45, 25);
-    		
-    	}//end of the draw Method for the CloudTwo
+            g2d.fillOval(centerX-60,centerY+10, 40, 20);
+            g2d.fillOval(centerX-40,centerY+25, 35, 30);
+            g2d.fillOval(centerX-38,centerY+5, 35, 40);
+            g2d.fillOval(centerX-10,centerY+12, 40, 30);
+            g2d.fillOval(centerX-10,centerY+30, 30, 30);
+            g2d.fillOval(centerX+5,centerY+30, 45, 25);
+
+    	}//end of the paint Method for the CloudTwo
     }//end of the CloudTwo Class
     /**
-     * Sun Class - The nested class that defines the Sun.
+     * Sun Class - The nested class that draws the Sun.
      */
-    private class Sun {
+    class Sun implements SpriteCache.Painter {
     	//Instance Variables
-    	double centerX;
-    	double centerY;
-    	int sunDiameter;
-    	Color sunColor;
-    	/**
-    	 * Default Sun Constructor - Creates an instance of the Sun Class.
-    	 */
-    	public Sun() {
-    		centerX = screenWidth/1.200;
-    		centerY = screenHeight/45.0;
-    		sunDiameter = 50;
-    		sunColor = new Color(227, 197, 27);
-                
-    	}//end of the Default Sun Constructor
+    	Color sunColor = new Color(227, 197, 27);
+        final SpriteCache.Sprite sprite = spriteCache.define(this, assets.defineSprite("sun"), -1, -1, GameWorld.Sun.sunDiameter + 2,
+                GameWorld.Sun.sunDiameter + 2);
+
     	/**
-    	 * updateNewFrame Method - Updates the sun by slightly changing its color
+    	 * draw Method - Draws the sun at its location from its cached sprite.
+    	 * @param list - the DisplayList of the frame
     	 */
-    	synchronized void updateNewFrame() {
-    		if (sunColor == new Color(227, 197, 27)) {
-                    sunColor = new Color(240, 223, 141);
-                } else {
-                    sunColor = new Color(227, 197, 27);
-                }
-    	}//end of the updateNewFrame Method for the Sun
+    	void draw(DisplayList list) {
+    		sprite.draw(list, (int)snapshot.sunX, (int)snapshot.sunY);
+
+    	}//end of the draw Method for the Sun
+        /**
+         * addBounds Method - Adds the bounds of the sun to a region.
+         * @param region - the DirtyRegion to add the bounds to
+         */
+        void addBounds(DirtyRegion region) {
+            sprite.addBounds(region, (int)snapshot.sunX, (int)snapshot.sunY);
+
+        }//end of the addBounds Method for the Sun
     	/**
-    	 * drawSun Method - Draws the sun using the graphics context setColor and fillOval methods,
-    	 * @param g - the Graphic context
+    	 * paint Method - Paints the sun into its sprite using the graphics context setColor and
+    	 * fillOval methods.
+    	 * @param g2d - the Graphics context of the sprite
+    	 * @param centerX - the x position of the upper left corner of the sun
+    	 * @param centerY - the y position of the upper left corner of the sun
     	 */
-    	synchronized void draw(Graphics g) {
-    		Graphics2D g2d = (Graphics2D)g;
-    		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    		
-    		/**Begin drawing the Sun */
-    		g2d.setStroke(new BasicStroke(8, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+    	@Override
+    	public void paint(Graphics2D g2d, int centerX, int centerY) {
     		g2d.setColor(sunColor);
-    		g2d.fillOval((int)centerX, (int)centerY, sunDiameter, sunDiameter);
-    		
-    	}//end of the draw Method for the Sun
+    		g2d.fillOval(centerX, centerY, GameWorld.Sun.sunDiameter, GameWorld.Sun.sunDiameter);
+
+    	}//end of the paint Method for the Sun
     }//end of the Sun Class
     /**
      * getScore - Get the number of the times the depth charge has hit the submarine.
      * @return Int - Return an Integer for the number of times the depth charge has hit the 
      * submarine.
      */
-    public int getScore() {return hits;}
+    public int getScore() {return world == null ? 0 : world.getScore();}
     /**
      * getMisses Method - Get the number of times the depth charge has missed the submarine.
      * @return Int - Return an Integer for the number of times the depth charge has missed the
      * submarine.
      */
-    public int getMisses() {return misses;}
+    public int getMisses() {return world == null ? 0 : world.getMisses();}
     /**
      * getPercentage Method - Get the percentage for the number of time the depth charge has hit
      * the submarine (i.e., hits divided by the sum of hits and and misses).
      * @return double - Return a Double for the percentage of hits.
      */
-    public double getPercentage() {return (hits / ((double)hits + (double)misses));}
+    public double getPercentage() {return world == null ? Double.NaN : world.getPercentage();}
     /**
-     * doGameOver Method - Displays the game over dialog. It JDialog to displays the results of
-     * the game, and uses JOptionPane to determine whether to repeat the game or not.
+     * doGameOver Method - Ends the game at the next tick, and shows its results inside the panel,
+     * where the player can start another game.
      */
     public void doGameOver() {
-        JOptionPane.showMessageDialog(this, "                        Your score is "+ getScore() +
-                        "\n              and your Percentage is " + (int)(getPercentage()* 100) + "%",
-                        "                         G A M E  O V E R", JOptionPane.PLAIN_MESSAGE);
-
-        String message = "Do you want to play again?";
-        int response = JOptionPane.showConfirmDialog(this, message, "", JOptionPane.YES_NO_OPTION);
-
-        switch (response) {
-            case JOptionPane.YES_OPTION:
-                    doNewGame();
-                    break;
-            case JOptionPane.NO_OPTION:
-                    System.exit(0);
-                    break;
-            default:
-                    System.exit(0);
-        }	
-    }//end of the gameOver Method
+        requestedState = GameState.GAME_OVER;
+
+    }//end of the doGameOver Method
     /**
-     * doNewGame Method - Gets the default Toolkit, sets the screen size to full, creates the frame container and
-     * the object of SubmarineKiller.  Adds the object of SubmarineKiller to the frame, sets it to the frame to be
-     * visible, and set its default close operation.  In short, this method resets the game.
+     * doNewGame Method - Starts a new game at the next tick, in the same panel, reusing its world,
+     * timer, and buffers.  In short, this method resets the game.
      */
     public void doNewGame() {
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();	
-        screenWidth = (int)screenSize.getWidth();
-        screenHeight = (int)screenSize.getHeight();
-		
-        JFrame frame = new JFrame("Submarine Killer");
-        SubmarineKiller game = new SubmarineKiller();
-        frame.setIconImage(Toolkit.getDefaultToolkit().
-                getImage(SubmarineKiller.class.getResource("/img/Submarine.png")));
-        frame.setContentPane(game);
-        frame.setBounds(0, 0, screenWidth, screenHeight);
-        frame.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
-        frame.setResizable(false);//User cannot change the size of the frame
-        frame.setVisible(true);
-       
+        requestedState = GameState.PLAYING;
+
     }//end of the doNewGame Method
     /**
-     * main Method - Gets the default Toolkit, sets the screen size to full, creates the frame container and
-     * the object of SubmarineKiller.  Adds the object of SubmarineKiller to the frame, sets it the frame to
-     * visible, and set its default close operation.
+     * main Method - Launches the game: creates the frame container at the size of the screen and
+     * the object of SubmarineKiller, and adds the object of SubmarineKiller to the frame once it is
+     * prepared.  With the --active argument, the game is drawn onto a Canvas by the ActiveRenderer
+     * instead.  Either way, frames are drawn at the target FPS of the --fps argument (0 for
+     * uncapped), while the world is ticked 40 times a second.  The --barrage argument plays the
+     * Barrage level instead of the Classic one, the --charge-speed argument sets the pixels a depth
+     * charge falls each tick, and the --record argument records every game into the given
+     * directory, to be played again by the ReplayPlayer.  The --scale argument renders the game at
+     * a fraction of the size of the frame, such as 0.5, and the --resolution argument renders it at
+     * a fixed resolution, such as 1920x1080, and either is upscaled with the nearest, bilinear, or
+     * bicubic filter of the --interpolation argument, which is bilinear by default.  The
+     * --render-threads argument renders every frame in horizontal bands on that many threads.  The
+     * --capture argument records every frame into the given directory as a sequence of PNG files,
+     * or, with --capture-format raw, as a raw stream of RGB video, on a thread of its own, and
+     * drops the frames that the encoder cannot keep up with, unless --capture-blocking makes the
+     * game wait.  The Startup prepares the game off the event dispatch thread; the --startup-probe
+     * argument prints the time from the start of the JVM to the first frame and exits, and the
+     * --serial-startup argument prepares everything on the event dispatch thread instead.
      * @param args - String[] representing the command line arguments
      */
     public static void main(String[] args) {
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();	
-        int screenWidth = (int)screenSize.getWidth();
-        int screenHeight = (int)screenSize.getHeight();
-		
-        JFrame frame = new JFrame("Submarine Killer");
-        SubmarineKiller game = new SubmarineKiller();
-        frame.setIconImage(Toolkit.getDefaultToolkit().
-                getImage(SubmarineKiller.class.getResource("/img/Submarine.png")));
-        frame.setContentPane(game);
-        frame.setBounds(0, 0, screenWidth, screenHeight);
-        frame.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
-        frame.setResizable(true);//User cannot change the size of the frame
-        frame.setVisible(true);
+        Startup.parse(args).launch();
+
     }//end of the main Method
-} // end of the SubmarineKiller Class
\ No newline at end of file
+} // end of the SubmarineKiller Class
\ No newline at end of file
@@ -0,0 +1,177 @@
+
+package src;
+
+/**
+ * The WorldSnapshot Class holds a copy of everything that is needed to draw one frame of the
+ * GameWorld.  The world copies itself into a snapshot at the end of each tick and publishes it
+ * through its SnapshotExchange, so that painting only ever reads from a snapshot and never from
+ * the world that the simulation is updating.  Snapshots are reused, so a published snapshot
+ * belongs to the reader until the reader acquires the next one.  A frame that is drawn between two
+ * ticks is drawn from a snapshot that is interpolated between them.
+ */
+final class WorldSnapshot {
+    //Class Variables
+    /** An entity that moved further than this in one tick jumped, and is not interpolated */
+    static final int MAX_INTERPOLATED_STEP = 64;
+
+    //Instance Variables
+    int battleshipX, battleshipY;
+    int attachedChargeX, attachedChargeY;
+    boolean isDepthChargeAttached;
+    int depthChargeCount;
+    final int[] depthChargeX, depthChargeY;
+    int submarineCount;
+    final int[] submarineX, submarineY;
+    final boolean[] isSubmarineExploding;
+    final int[] explosionFrameNumber;
+    int wavesX;
+    double cloudOneX, cloudOneY;
+    double cloudTwoX, cloudTwoY;
+    double sunX, sunY;
+    int hits, misses;
+    boolean isGameOver;
+    long tickCount;
+    long inputNanos;
+
+    /**
+     * WorldSnapshot Constructor - Creates a snapshot with room for the depth charges and the
+     * submarines of a level.
+     * @param chargeCapacity - the number of depth charges that can be falling at once
+     * @param submarineCapacity - the number of submarines
+     */
+    WorldSnapshot(int chargeCapacity, int submarineCapacity) {
+        depthChargeX = new int[chargeCapacity];
+        depthChargeY = new int[chargeCapacity];
+        submarineX = new int[submarineCapacity];
+        submarineY = new int[submarineCapacity];
+        isSubmarineExploding = new boolean[submarineCapacity];
+        explosionFrameNumber = new int[submarineCapacity];
+
+    }//end of the WorldSnapshot Constructor
+    /**
+     * copyFrom Method - Copies the state of the world into this snapshot.
+     * @param world - the GameWorld to copy
+     */
+    void copyFrom(GameWorld world) {
+        battleshipX = world.battleship.centerX;
+        battleshipY = world.battleship.centerY;
+        GameWorld.DepthChargePool charges = world.depthCharges;
+        attachedChargeX = charges.attachedX;
+        attachedChargeY = charges.attachedY;
+        isDepthChargeAttached = charges.isAttached();
+        depthChargeCount = charges.count;
+        System.arraycopy(charges.centerX, 0, depthChargeX, 0, charges.count);
+        System.arraycopy(charges.centerY, 0, depthChargeY, 0, charges.count);
+        GameWorld.SubmarinePool submarines = world.submarines;
+        submarineCount = submarines.count;
+        System.arraycopy(submarines.centerX, 0, submarineX, 0, submarines.count);
+        System.arraycopy(submarines.centerY, 0, submarineY, 0, submarines.count);
+        System.arraycopy(submarines.isExploding, 0, isSubmarineExploding, 0, submarines.count);
+        System.arraycopy(submarines.explosionFrameNumber, 0, explosionFrameNumber, 0, submarines.count);
+        wavesX = world.waves.centerX;
+        cloudOneX = world.cloudOne.centerX;
+        cloudOneY = world.cloudOne.centerY;
+        cloudTwoX = world.cloudTwo.centerX;
+        cloudTwoY = world.cloudTwo.centerY;
+        sunX = world.sun.centerX;
+        sunY = world.sun.centerY;
+        hits = world.hits;
+        misses = world.misses;
+        isGameOver = world.isGameOver;
+        tickCount = world.tickCount;
+        inputNanos = world.inputNanos;
+
+    }//end of the copyFrom Method
+    /**
+     * interpolate Method - Sets this snapshot to the state of the world at a fraction of the way
+     * from the previous tick to the current one.  The positions of the battleship, the submarines,
+     * the waves, the clouds, and the sun are interpolated, unless they jumped, such as when a
+     * submarine comes back after an explosion or a cloud wraps around the panel.  The falling depth
+     * charges are moved back up by what is left of their fall, because their order in the pool
+     * changes when one of them is removed.  Everything else is taken from the current tick.
+     * @param previous - the WorldSnapshot of the previous tick
+     * @param current - the WorldSnapshot of the current tick
+     * @param alpha - the fraction of the way from the previous tick to the current one
+     * @param chargeSpeed - the pixels that a depth charge falls each tick
+     */
+    void interpolate(WorldSnapshot previous, WorldSnapshot current, double alpha, int chargeSpeed) {
+        battleshipX = interpolate(previous.battleshipX, current.battleshipX, alpha);
+        battleshipY = interpolate(previous.battleshipY, current.battleshipY, alpha);
+        isDepthChargeAttached = current.isDepthChargeAttached;
+        if (previous.isDepthChargeAttached) {
+            attachedChargeX = interpolate(previous.attachedChargeX, current.attachedChargeX, alpha);
+            attachedChargeY = interpolate(previous.attachedChargeY, current.attachedChargeY, alpha);
+        } else {
+            attachedChargeX = current.attachedChargeX;
+            attachedChargeY = current.attachedChargeY;
+        }
+        int rise = (int)Math.round((1 - alpha) * chargeSpeed);
+        depthChargeCount = current.depthChargeCount;
+        for (int i = 0; i < depthChargeCount; i++) {
+            depthChargeX[i] = current.depthChargeX[i];
+            depthChargeY[i] = current.depthChargeY[i] - rise;
+        }
+        submarineCount = current.submarineCount;
+        for (int i = 0; i < submarineCount; i++) {
+            submarineX[i] = interpolate(previous.submarineX[i], current.submarineX[i], alpha);
+            submarineY[i] = interpolate(previous.submarineY[i], current.submarineY[i], alpha);
+            isSubmarineExploding[i] = current.isSubmarineExploding[i];
+            explosionFrameNumber[i] = current.explosionFrameNumber[i];
+        }
+        wavesX = interpolatePhase(previous.wavesX, current.wavesX, alpha, SubmarineKiller.Wave.PERIOD);
+        cloudOneX = interpolate(previous.cloudOneX, current.cloudOneX, alpha);
+        cloudOneY = interpolate(previous.cloudOneY, current.cloudOneY, alpha);
+        cloudTwoX = interpolate(previous.cloudTwoX, current.cloudTwoX, alpha);
+        cloudTwoY = interpolate(previous.cloudTwoY, current.cloudTwoY, alpha);
+        sunX = interpolate(previous.sunX, current.sunX, alpha);
+        sunY = interpolate(previous.sunY, current.sunY, alpha);
+        hits = current.hits;
+        misses = current.misses;
+        isGameOver = current.isGameOver;
+        tickCount = current.tickCount;
+        inputNanos = current.inputNanos;
+
+    }//end of the interpolate Method
+    /**
+     * interpolate Method - Interpolates a position in pixels, unless it jumped.
+     * @param from - the position at the previous tick
+     * @param to - the position at the current tick
+     * @param alpha - the fraction of the way from the previous tick to the current one
+     * @return Int - Returns the interpolated position.
+     */
+    static int interpolate(int from, int to, double alpha) {
+        if (Math.abs(to - from) > MAX_INTERPOLATED_STEP)
+            return to;
+        return from + (int)Math.round((to - from) * alpha);
+
+    }//end of the interpolate Method
+    /**
+     * interpolatePhase Method - Interpolates a position that repeats every period, such as the
+     * offset of the waves, which wrap by 19 pixels every 20 ticks.  The step is taken modulo the
+     * period, so a wrap is interpolated as the step of one pixel that it stands for, rather than
+     * as a step backward.
+     * @param from - the position at the previous tick
+     * @param to - the position at the current tick
+     * @param alpha - the fraction of the way from the previous tick to the current one
+     * @param period - the pixels after which the position repeats
+     * @return Int - Returns the interpolated position, which is within a period of the current one.
+     */
+    static int interpolatePhase(int from, int to, double alpha, int period) {
+        int step = Math.floorMod(to - from + period / 2, period) - period / 2;
+        return to - step + (int)Math.round(step * alpha);
+
+    }//end of the interpolatePhase Method
+    /**
+     * interpolate Method - Interpolates a position, unless it jumped.
+     * @param from - the position at the previous tick
+     * @param to - the position at the current tick
+     * @param alpha - the fraction of the way from the previous tick to the current one
+     * @return Double - Returns the interpolated position.
+     */
+    static double interpolate(double from, double to, double alpha) {
+        if (Math.abs(to - from) > MAX_INTERPOLATED_STEP)
+            return to;
+        return from + (to - from) * alpha;
+
+    }//end of the interpolate Method
+} // end of the WorldSnapshot Class